@@ -4,7 +4,15 @@
  */
 package momo;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import momo.commands.Command;
+import momo.controller.BatchRunner;
 import momo.controller.Controller;
 import momo.exceptions.MomoException;
 import momo.exceptions.StorageException;
@@ -72,15 +80,59 @@ public class Momo {
     /**
      * Command-line interface entry point for legacy use.
      * <p>
-     * Initializes the CLI {@link Ui} and starts the main controller loop.
+     * Initializes the CLI {@link Ui} and starts the main controller loop. With
+     * {@code --script <file>}, or when standard input is not a terminal, commands are
+     * instead run as a script by a {@link BatchRunner}, writing changes every
+     * {@code --flush-every <n>} commands or only at the end.
      * </p>
      *
      * @param args Command-line arguments.
      */
     public static void main(String[] args) {
-        Ui ui = new Ui();
-        Controller controller = new Controller(ui);
-        controller.run();
+        if (args.length == 0 && System.console() != null) {
+            Ui ui = new Ui();
+            Controller controller = new Controller(ui);
+            controller.run();
+            return;
+        }
+
+        String scriptPath = null;
+        int flushEvery = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case "--script":
+                    scriptPath = args[++i];
+                    break;
+                case "--flush-every":
+                    flushEvery = Integer.parseInt(args[++i]);
+                    if (flushEvery < 0) {
+                        throw new NumberFormatException();
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException err) { // missing value, bad number or unknown option
+            System.err.println("Usage: momo [--script <file>] [--flush-every <commands>]");
+            System.exit(2);
+        }
+
+        try (BufferedReader script = scriptPath == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(scriptPath), StandardCharsets.UTF_8)) {
+            BatchRunner.Summary summary = new BatchRunner(new TaskManager(), flushEvery, System.err).run(script);
+            if (summary.getFailedCount() > 0) {
+                System.exit(1);
+            }
+        } catch (IOException err) {
+            System.err.println("Failed to read script: " + err.getMessage());
+            System.exit(2);
+        } catch (StorageException err) {
+            System.err.println(err.getMessage());
+            System.exit(1);
+        }
     }
 }
 
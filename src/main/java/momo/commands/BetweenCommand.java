@@ -0,0 +1,47 @@
+package momo.commands;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import momo.exceptions.MomoException;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.ui.Ui;
+
+/**
+ * Lists the events taking place at any time within a period.
+ * <p>
+ * Events are looked up in the interval tree kept by {@code TaskManager}, so only
+ * overlapping events are visited. The matching events are displayed in start order.
+ * </p>
+ */
+public class BetweenCommand extends Command {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    /**
+     * Constructs a between command for the given period.
+     *
+     * @param from Start of the period.
+     * @param to End of the period, not before {@code from}.
+     */
+    public BetweenCommand(LocalDateTime from, LocalDateTime to) {
+        assert !to.isBefore(from) : "Period must not end before it starts";
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Displays every event that overlaps the period.
+     * </p>
+     */
+    @Override
+    public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
+        ArrayList<Task> events = taskManager.findEventsBetween(from, to);
+
+        ui.showMatchingTaskList(events);
+        return false;
+    }
+}
@@ -1,5 +1,7 @@
 package momo.commands;
 
+import java.util.ArrayList;
+
 import momo.exceptions.InvalidArgumentException;
 import momo.exceptions.MomoException;
 import momo.tasks.Task;
@@ -7,10 +9,10 @@ import momo.tasks.TaskManager;
 import momo.ui.Ui;
 
 /**
- * Deletes a specified task and saves to storage the updated task list.
+ * Deletes one or more tasks and saves the changes to storage.
  */
 public class DeleteCommand extends Command {
-    private final int index;
+    private final TaskSelection selection;
 
     /**
      * Constructs a delete command for the given task index.
@@ -18,28 +20,50 @@ public class DeleteCommand extends Command {
      * @param index 1-based index of the task as entered by the user.
      */
     public DeleteCommand(int index) {
-        this.index = index - 1;
+        this(TaskReference.ofPosition(index));
+    }
+
+    /**
+     * Constructs a delete command for the referenced task.
+     *
+     * @param reference Position or id of the task.
+     */
+    public DeleteCommand(TaskReference reference) {
+        this(TaskSelection.of(reference));
+    }
+
+    /**
+     * Constructs a delete command for several tasks.
+     *
+     * @param selection Positions, ranges and ids of the tasks.
+     */
+    public DeleteCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Validates that the index is within bounds, removes the task,
-     * saves the updated task list, and displays a confirmation message.
+     * Validates that the referenced tasks exist, removes them,
+     * saves the changes together, and displays a confirmation message.
      * </p>
      *
-     * @throws InvalidArgumentException If the index is out of bounds.
+     * @throws InvalidArgumentException If no task matches a reference.
      */
     @Override
     public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
-        if (index < 0 || index >= taskManager.getTaskListSize()) {
-            throw new InvalidArgumentException("delete <1-" + taskManager.getTaskListSize() + ">");
+        TaskReference reference = selection.getSingle();
+        if (reference != null) {
+            Task target = reference.resolve(taskManager, "delete", "");
+            Task removedTask = taskManager.removeTaskById(target.getId());
+            ui.showDeleteTask(removedTask, taskManager.getTaskListSize());
+            return false;
         }
 
-        Task removedTask = taskManager.removeTask(index);
-        taskManager.save(); //task manager removeTask does not auto save
-
-        ui.showDeleteTask(removedTask, taskManager.getTaskListSize());
+        ArrayList<Task> targets = selection.resolve(taskManager, "delete", "");
+        ArrayList<Task> removedTasks = taskManager.removeTasksById(TaskSelection.idsOf(targets));
+        ui.showTasksChanged("Ok, I've removed these " + removedTasks.size() + " tasks, leaving "
+                + taskManager.getTaskListSize() + " in the list:", removedTasks);
         return false;
     }
 }
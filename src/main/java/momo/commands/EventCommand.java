@@ -1,6 +1,7 @@
 package momo.commands;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 
 import momo.exceptions.InvalidArgumentException;
 import momo.exceptions.MomoException;
@@ -16,6 +17,7 @@ public class EventCommand extends Command {
     private final String title;
     private final LocalDateTime startDate;
     private final LocalDateTime endDate;
+    private final boolean isConflictCheck;
 
     /**
      * Constructs an event command using the provided title and start/end date/time values.
@@ -25,9 +27,22 @@ public class EventCommand extends Command {
      * @param endDate End date/time of the event.
      */
     public EventCommand(String title, LocalDateTime startDate, LocalDateTime endDate) {
+        this(title, startDate, endDate, false);
+    }
+
+    /**
+     * Constructs an event command that can also report existing events clashing with the new one.
+     *
+     * @param title Title/description of the event.
+     * @param startDate Start date/time of the event.
+     * @param endDate End date/time of the event.
+     * @param isConflictCheck {@code true} to report the events that overlap the new event.
+     */
+    public EventCommand(String title, LocalDateTime startDate, LocalDateTime endDate, boolean isConflictCheck) {
         this.title = title.trim();
         this.startDate = startDate;
         this.endDate = endDate;
+        this.isConflictCheck = isConflictCheck;
     }
 
     /**
@@ -36,6 +51,11 @@ public class EventCommand extends Command {
      * Validates the input, ensures the end date/time is not before the start date/time,
      * creates a new {@link Event} task, adds it to the task list, and displays an acknowledgement message.
      * </p>
+     * <p>
+     * In conflict-check mode the existing events overlapping the new one are looked up in the
+     * task manager's interval tree and reported after the acknowledgement. Back-to-back events
+     * are not reported. The event is added either way.
+     * </p>
      *
      * @throws InvalidArgumentException If the title is blank/missing, any date/time is missing,
      *         or the end date/time is before the start date/time.
@@ -50,10 +70,33 @@ public class EventCommand extends Command {
             throw new InvalidArgumentException("event end must be after start");
         }
 
+        ArrayList<Task> conflicts = new ArrayList<>();
+        if (isConflictCheck) {
+            for (Task other : taskManager.findEventsBetween(startDate, endDate)) {
+                if (clashes((Event) other)) {
+                    conflicts.add(other);
+                }
+            }
+        }
+
         Task task = new Event(title, startDate, endDate);
         taskManager.addTask(task);
         ui.displayAddedTask(task, taskManager.getTaskListSize());
+        if (!conflicts.isEmpty()) {
+            ui.showEventConflicts(conflicts);
+        }
 
         return false;
     }
+
+    /**
+     * Returns whether an existing event takes up some of the new event's time.
+     * <p>
+     * Both are treated as half-open intervals, so an event ending exactly when the new
+     * one starts, or starting exactly when it ends, does not clash with it.
+     * </p>
+     */
+    private boolean clashes(Event other) {
+        return other.getStartDate().isBefore(endDate) && other.getEndDate().isAfter(startDate);
+    }
 }
@@ -11,12 +11,13 @@ public class ExitCommand extends Command {
     /**
      * {@inheritDoc}
      * <p>
-     * Displays a goodbye message and signals the controller
-     * to terminate the application.
+     * Waits for pending writes to reach storage, displays a goodbye message
+     * and signals the controller to terminate the application.
      * </p>
      */
     @Override
     public boolean execute(TaskManager taskManager, Ui ui) {
+        taskManager.flush();
         ui.showGoodbye();
         return true; // signal Controller to terminate loop
     }
@@ -0,0 +1,39 @@
+package momo.commands;
+
+import java.util.ArrayList;
+
+import momo.exceptions.MomoException;
+import momo.tasks.Query;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.ui.Ui;
+
+/**
+ * Lists the tasks matching a query that combines tags, title keywords, types, status and dates.
+ */
+public class FilterCommand extends Command {
+    private final Query query;
+
+    /**
+     * Constructs a filter command.
+     *
+     * @param query The query tasks must match.
+     */
+    public FilterCommand(Query query) {
+        this.query = query;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Displays the matching tasks in list order.
+     * </p>
+     */
+    @Override
+    public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
+        ArrayList<Task> results = taskManager.findTasks(query);
+
+        ui.showMatchingTaskList(results);
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package momo.commands;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import momo.exceptions.MomoException;
 import momo.tasks.Task;
@@ -17,6 +18,8 @@ import momo.ui.Ui;
 public class FindCommand extends Command {
     private final String keyword;
     private final boolean isTag;
+    private final List<String> tags;
+    private final boolean isMatchAll;
 
     /**
      * Constructs a find command using the provided keyword.
@@ -26,6 +29,21 @@ public class FindCommand extends Command {
     public FindCommand(String keyword, boolean isTag) {
         this.keyword = keyword;
         this.isTag = isTag;
+        this.tags = null;
+        this.isMatchAll = false;
+    }
+
+    /**
+     * Constructs a find command that searches for several tags at once.
+     *
+     * @param tags The tags to search for.
+     * @param isMatchAll {@code true} to find tasks carrying every tag, {@code false} for any tag.
+     */
+    public FindCommand(List<String> tags, boolean isMatchAll) {
+        this.keyword = null;
+        this.isTag = true;
+        this.tags = List.copyOf(tags);
+        this.isMatchAll = isMatchAll;
     }
 
     /**
@@ -40,7 +58,11 @@ public class FindCommand extends Command {
     public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
         ArrayList<Task> searchResults = new ArrayList<>();
 
-        if (isTag) { //If command is searching for a tag
+        if (tags != null) {
+            searchResults = isMatchAll
+                    ? taskManager.findTasksByAllTags(tags)
+                    : taskManager.findTasksByAnyTag(tags);
+        } else if (isTag) { //If command is searching for a tag
             searchResults = taskManager.findTasksByTag(keyword);
         } else {
             searchResults = taskManager.findTasksByTitle(keyword);
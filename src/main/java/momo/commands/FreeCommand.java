@@ -0,0 +1,49 @@
+package momo.commands;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import momo.exceptions.MomoException;
+import momo.tasks.TaskManager;
+import momo.tasks.TimeSlot;
+import momo.ui.Ui;
+
+/**
+ * Lists the windows of at least a given length that no event takes up within a range of days.
+ */
+public class FreeCommand extends Command {
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final Duration minLength;
+
+    /**
+     * Constructs a free command over a range of whole days.
+     *
+     * @param firstDay First day to search.
+     * @param lastDay Last day to search, inclusive.
+     * @param minLength Shortest window worth listing.
+     */
+    public FreeCommand(LocalDate firstDay, LocalDate lastDay, Duration minLength) {
+        assert !lastDay.isBefore(firstDay) : "Range must not end before it starts";
+        assert !minLength.isNegative() && !minLength.isZero() : "Length must be positive";
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.minLength = minLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Displays the free windows, earliest first.
+     * </p>
+     */
+    @Override
+    public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
+        ArrayList<TimeSlot> slots = taskManager.findFreeSlots(firstDay.atStartOfDay(),
+                lastDay.plusDays(1).atStartOfDay(), minLength);
+
+        ui.showFreeSlots(slots);
+        return false;
+    }
+}
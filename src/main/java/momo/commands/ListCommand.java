@@ -1,23 +1,63 @@
 package momo.commands;
 
+import momo.exceptions.InvalidArgumentException;
 import momo.exceptions.MomoException;
+import momo.tasks.TaskCursor;
 import momo.tasks.TaskManager;
 import momo.ui.Ui;
 
 /**
- * Lists all tasks currently managed by the application.
+ * Lists all tasks currently managed by the application, or one page of them.
  */
 public class ListCommand extends Command {
+    /** Largest number of tasks on one page. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final int page;
+    private final int pageSize;
+
+    /**
+     * Constructs a command that lists every task.
+     */
+    public ListCommand() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a command that lists one page of tasks.
+     *
+     * @param page 1-based page number, or 0 to list every task.
+     * @param pageSize Number of tasks on a page.
+     */
+    public ListCommand(int page, int pageSize) {
+        assert page == 0 || (pageSize > 0 && pageSize <= MAX_PAGE_SIZE) : "Page size must be in range";
+        this.page = page;
+        this.pageSize = pageSize;
+    }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Displays the task list using {@link Ui#showTaskList(TaskManager)}.
+     * Displays the task list using {@link Ui#showTaskList(TaskManager)}, or the requested
+     * page using {@link Ui#showTaskList(TaskCursor, int)}. Only the tasks of the page are read.
      * </p>
+     *
+     * @throws InvalidArgumentException If the page is past the end of the list.
      */
     @Override
     public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
-        ui.showTaskList(taskManager);
+        if (page == 0) {
+            ui.showTaskList(taskManager);
+            return false;
+        }
+
+        TaskCursor cursor = taskManager.openCursor();
+        int pageCount = Math.max(1, (cursor.getTotal() + pageSize - 1) / pageSize);
+        if (page > pageCount) {
+            throw new InvalidArgumentException("list --page <1-" + pageCount + "> [--size <count>]");
+        }
+        cursor.seek((page - 1) * pageSize);
+        ui.showTaskList(cursor, pageSize);
         return false;
     }
 }
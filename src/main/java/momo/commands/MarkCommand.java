@@ -1,5 +1,7 @@
 package momo.commands;
 
+import java.util.ArrayList;
+
 import momo.exceptions.InvalidArgumentException;
 import momo.exceptions.MomoException;
 import momo.tasks.Task;
@@ -7,10 +9,10 @@ import momo.tasks.TaskManager;
 import momo.ui.Ui;
 
 /**
- * Marks a specified task as completed and saves to storage the updated task list.
+ * Marks one or more tasks as completed and saves the changes to storage.
  */
 public class MarkCommand extends Command {
-    private final int index;
+    private final TaskSelection selection;
 
     /**
      * Constructs a mark command for the given task index.
@@ -18,29 +20,48 @@ public class MarkCommand extends Command {
      * @param index 1-based index of the task as entered by the user.
      */
     public MarkCommand(int index) {
-        this.index = index - 1;
+        this(TaskReference.ofPosition(index));
+    }
+
+    /**
+     * Constructs a mark command for the referenced task.
+     *
+     * @param reference Position or id of the task.
+     */
+    public MarkCommand(TaskReference reference) {
+        this(TaskSelection.of(reference));
+    }
+
+    /**
+     * Constructs a mark command for several tasks.
+     *
+     * @param selection Positions, ranges and ids of the tasks.
+     */
+    public MarkCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Validates that the index is within bounds, marks the task as complete,
-     * saves the updated task list, and displays a confirmation message.
+     * Validates that the referenced tasks exist, marks them as complete,
+     * saves the changes together, and displays a confirmation message.
      * </p>
      *
-     * @throws InvalidArgumentException If the index is out of bounds.
+     * @throws InvalidArgumentException If no task matches a reference.
      */
     @Override
     public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
-        if (index < 0 || index >= taskManager.getTaskListSize()) {
-            throw new InvalidArgumentException("mark <1-" + taskManager.getTaskListSize() + ">");
+        TaskReference reference = selection.getSingle();
+        if (reference != null) {
+            Task target = reference.resolve(taskManager, "mark", "");
+            ui.showMarkTask(taskManager.markTaskById(target.getId()));
+            return false;
         }
 
-        Task task = taskManager.getTask(index);
-        task.setComplete();
-        taskManager.save();
-
-        ui.showMarkTask(task);
+        ArrayList<Task> targets = selection.resolve(taskManager, "mark", "");
+        ArrayList<Task> tasks = taskManager.markTasksById(TaskSelection.idsOf(targets));
+        ui.showTasksChanged("Yipee! I've marked these " + tasks.size() + " tasks as done:", tasks);
         return false;
     }
 }
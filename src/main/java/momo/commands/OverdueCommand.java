@@ -0,0 +1,29 @@
+package momo.commands;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import momo.exceptions.MomoException;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.ui.Ui;
+
+/**
+ * Lists the incomplete deadlines that are already past due.
+ */
+public class OverdueCommand extends Command {
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Displays the overdue deadlines, longest overdue first.
+     * </p>
+     */
+    @Override
+    public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
+        ArrayList<Task> deadlines = taskManager.findOverdueDeadlines(LocalDateTime.now());
+
+        ui.showMatchingTaskList(deadlines);
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package momo.commands;
+
+import java.util.ArrayList;
+
+import momo.exceptions.InvalidArgumentException;
+import momo.exceptions.MomoException;
+import momo.tasks.Event;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.ui.Ui;
+
+/**
+ * Lists the events whose time overlaps a specified event.
+ */
+public class OverlapsCommand extends Command {
+    private final TaskReference reference;
+
+    /**
+     * Constructs an overlaps command for the referenced event.
+     *
+     * @param reference Position or id of the event.
+     */
+    public OverlapsCommand(TaskReference reference) {
+        this.reference = reference;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Validates that the referenced task exists and is an event, then displays
+     * every other event that overlaps it.
+     * </p>
+     *
+     * @throws InvalidArgumentException If no task matches the reference or the task is not an event.
+     */
+    @Override
+    public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
+        Task target = reference.resolve(taskManager, "overlaps", "");
+        if (!(target instanceof Event)) {
+            throw new InvalidArgumentException("overlaps <index>, where <index> is an event");
+        }
+        ArrayList<Task> events = taskManager.findEventsOverlapping((Event) target);
+
+        ui.showMatchingTaskList(events);
+        return false;
+    }
+}
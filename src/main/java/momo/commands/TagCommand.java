@@ -1,16 +1,18 @@
 package momo.commands;
 
-import momo.exceptions.InvalidArgumentException;
+import java.util.ArrayList;
+import java.util.List;
+
 import momo.exceptions.MomoException;
 import momo.tasks.Task;
 import momo.tasks.TaskManager;
 import momo.ui.Ui;
 
 /**
- * Adds a tag to an existing task.
+ * Adds tags to one or more existing tasks.
  */
 public class TagCommand extends Command {
-    private final int index;
+    private final TaskSelection selection;
     private final String tag;
 
     /**
@@ -20,35 +22,52 @@ public class TagCommand extends Command {
      * @param tag The tag to be added to the task.
      */
     public TagCommand(int index, String tag) {
-        this.index = index - 1;
+        this(TaskReference.ofPosition(index), tag);
+    }
+
+    /**
+     * Constructs a TagCommand with the referenced task and tag.
+     *
+     * @param reference Position or id of the task.
+     * @param tag The tag to be added to the task.
+     */
+    public TagCommand(TaskReference reference, String tag) {
+        this(TaskSelection.of(reference), tag);
+    }
+
+    /**
+     * Constructs a tag command for several tasks.
+     *
+     * @param selection Positions, ranges and ids of the tasks.
+     * @param tag The tags to be added to each task, separated by commas.
+     */
+    public TagCommand(TaskSelection selection, String tag) {
+        this.selection = selection;
         this.tag = tag;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Adds the specified tag to the selected task and persists the updated task list.
+     * Adds the specified tags to the selected tasks and persists the changes together.
      * </p>
      *
      * @throws MomoException If an error occurs during command execution.
      */
     @Override
     public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
-        if (index < 0 || index >= taskManager.getTaskListSize()) {
-            throw new InvalidArgumentException("tag <1-" + taskManager.getTaskListSize() + "> " + this.tag);
+        List<String> tags = List.of(this.tag.split(","));
+        TaskReference reference = selection.getSingle();
+        if (reference != null) {
+            Task task = reference.resolve(taskManager, "tag", " " + this.tag);
+            taskManager.tagTasksById(new long[] {task.getId()}, tags);
+            ui.showTagAdded(task);
+            return false;
         }
 
-        Task task = taskManager.getTask(index);
-        if (this.tag.contains(",")) {
-            String[] tags = this.tag.split(",");
-            for (String i : tags) {
-                task.addTag(i);
-            }
-        } else {
-            task.addTag(tag);
-        }
-        taskManager.save();
-        ui.showTagAdded(task);
+        ArrayList<Task> targets = selection.resolve(taskManager, "tag", " " + this.tag);
+        ArrayList<Task> tasks = taskManager.tagTasksById(TaskSelection.idsOf(targets), tags);
+        ui.showTasksChanged("I have added the tag to these " + tasks.size() + " tasks:", tasks);
         return false;
     }
 }
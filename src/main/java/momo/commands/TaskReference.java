@@ -0,0 +1,71 @@
+package momo.commands;
+
+import momo.exceptions.InvalidArgumentException;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+
+/**
+ * Identifies the task a command acts on, either by its 1-based position in the list
+ * or by its stable id (entered as {@code #<id>}).
+ */
+public final class TaskReference {
+    private final boolean isId;
+    private final long value;
+
+    private TaskReference(boolean isId, long value) {
+        this.isId = isId;
+        this.value = value;
+    }
+
+    /**
+     * Creates a reference to the task at a position in the list.
+     *
+     * @param position 1-based position as entered by the user.
+     * @return The reference.
+     */
+    public static TaskReference ofPosition(int position) {
+        return new TaskReference(false, position);
+    }
+
+    /**
+     * Creates a reference to the task with a stable id.
+     *
+     * @param id Id of the task.
+     * @return The reference.
+     */
+    public static TaskReference ofId(long id) {
+        return new TaskReference(true, id);
+    }
+
+    /**
+     * Looks up the referenced task.
+     *
+     * @param taskManager Task manager holding the tasks.
+     * @param commandWord Command keyword, used in the usage message.
+     * @param usageSuffix Rest of the usage message after the task reference.
+     * @return The referenced task.
+     * @throws InvalidArgumentException If no task matches the reference.
+     */
+    public Task resolve(TaskManager taskManager, String commandWord, String usageSuffix)
+            throws InvalidArgumentException {
+        int size = taskManager.getTaskListSize();
+        if (isId) {
+            Task task = taskManager.getTaskById(value);
+            if (task == null) {
+                throw new InvalidArgumentException(commandWord + " <1-" + size + "> or an existing #<id>"
+                        + usageSuffix);
+            }
+            return task;
+        }
+
+        if (value < 1 || value > size) {
+            throw new InvalidArgumentException(commandWord + " <1-" + size + ">" + usageSuffix);
+        }
+        return taskManager.getTask((int) value - 1);
+    }
+
+    @Override
+    public String toString() {
+        return isId ? "#" + value : String.valueOf(value);
+    }
+}
@@ -0,0 +1,127 @@
+package momo.commands;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import momo.exceptions.InvalidArgumentException;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.tasks.TaskSnapshot;
+
+/**
+ * Identifies the tasks a bulk command acts on: any mix of single tasks and ranges of
+ * positions, entered as e.g. {@code 3,7,9-20} or {@code 1-500}.
+ */
+public final class TaskSelection {
+    private final List<TaskReference> references = new ArrayList<>();
+    private final List<int[]> ranges = new ArrayList<>();
+
+    private TaskSelection() {
+    }
+
+    /**
+     * Creates a selection of one task.
+     *
+     * @param reference Position or id of the task.
+     * @return The selection.
+     */
+    public static TaskSelection of(TaskReference reference) {
+        return new TaskSelection().and(reference);
+    }
+
+    /**
+     * Creates a selection of a range of positions.
+     *
+     * @param first 1-based position of the first task.
+     * @param last 1-based position of the last task, inclusive.
+     * @return The selection.
+     */
+    public static TaskSelection ofRange(int first, int last) {
+        return new TaskSelection().andRange(first, last);
+    }
+
+    /**
+     * Adds one task to this selection.
+     *
+     * @param reference Position or id of the task.
+     * @return This selection.
+     */
+    public TaskSelection and(TaskReference reference) {
+        references.add(reference);
+        return this;
+    }
+
+    /**
+     * Adds a range of positions to this selection.
+     *
+     * @param first 1-based position of the first task.
+     * @param last 1-based position of the last task, inclusive.
+     * @return This selection.
+     */
+    public TaskSelection andRange(int first, int last) {
+        assert first <= last : "Range must not be empty";
+        ranges.add(new int[] {first, last});
+        return this;
+    }
+
+    /**
+     * Returns the single task reference this selection is made of, if it is only one task.
+     *
+     * @return The reference, or {@code null} if the selection is a range or several tasks.
+     */
+    public TaskReference getSingle() {
+        return references.size() == 1 && ranges.isEmpty() ? references.get(0) : null;
+    }
+
+    /**
+     * Looks up the selected tasks.
+     * <p>
+     * Positions are taken from one snapshot of the list, so they all refer to the list as
+     * it was when the command started. A task selected more than once is returned once.
+     * </p>
+     *
+     * @param taskManager Task manager holding the tasks.
+     * @param commandWord Command keyword, used in the usage message.
+     * @param usageSuffix Rest of the usage message after the task references.
+     * @return The selected tasks in list order.
+     * @throws InvalidArgumentException If any part of the selection matches no task.
+     */
+    public ArrayList<Task> resolve(TaskManager taskManager, String commandWord, String usageSuffix)
+            throws InvalidArgumentException {
+        TaskSnapshot tasks = taskManager.snapshot();
+        ArrayList<Task> selected = new ArrayList<>();
+        for (int[] range : ranges) {
+            if (range[0] < 1 || range[1] > tasks.size()) {
+                throw new InvalidArgumentException(commandWord + " <1-" + tasks.size() + ">" + usageSuffix);
+            }
+            for (int position = range[0]; position <= range[1]; position++) {
+                selected.add(tasks.get(position - 1));
+            }
+        }
+        for (TaskReference reference : references) {
+            selected.add(reference.resolve(taskManager, commandWord, usageSuffix));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        selected.removeIf(task -> !seen.add(task.getId()));
+        selected.sort(Comparator.comparingLong(Task::getId));
+        return selected;
+    }
+
+    /**
+     * Returns the ids of tasks, in the same order.
+     *
+     * @param tasks Resolved tasks.
+     * @return Their ids.
+     */
+    static long[] idsOf(List<Task> tasks) {
+        long[] ids = new long[tasks.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tasks.get(i).getId();
+        }
+        return ids;
+    }
+}
@@ -1,5 +1,7 @@
 package momo.commands;
 
+import java.util.ArrayList;
+
 import momo.exceptions.InvalidArgumentException;
 import momo.exceptions.MomoException;
 import momo.tasks.Task;
@@ -7,10 +9,10 @@ import momo.tasks.TaskManager;
 import momo.ui.Ui;
 
 /**
- * Unmarks a specified task as completed and saves to storage the updated task list.
+ * Unmarks one or more tasks as completed and saves the changes to storage.
  */
 public class UnmarkCommand extends Command {
-    private final int index;
+    private final TaskSelection selection;
 
     /**
      * Constructs an unmark command for the given task index.
@@ -18,28 +20,48 @@ public class UnmarkCommand extends Command {
      * @param index 1-based index of the task as entered by the user.
      */
     public UnmarkCommand(int index) {
-        this.index = index - 1;
+        this(TaskReference.ofPosition(index));
+    }
+
+    /**
+     * Constructs an unmark command for the referenced task.
+     *
+     * @param reference Position or id of the task.
+     */
+    public UnmarkCommand(TaskReference reference) {
+        this(TaskSelection.of(reference));
+    }
+
+    /**
+     * Constructs an unmark command for several tasks.
+     *
+     * @param selection Positions, ranges and ids of the tasks.
+     */
+    public UnmarkCommand(TaskSelection selection) {
+        this.selection = selection;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Validates that the index is within bounds, marks the task as incomplete,
-     * saves the updated task list, and displays a confirmation message.
+     * Validates that the referenced tasks exist, marks them as incomplete,
+     * saves the changes together, and displays a confirmation message.
      * </p>
      *
-     * @throws InvalidArgumentException If the index is out of bounds.
+     * @throws InvalidArgumentException If no task matches a reference.
      */
     @Override
     public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
-        if (index < 0 || index >= taskManager.getTaskListSize()) {
-            throw new InvalidArgumentException("unmark <1-" + taskManager.getTaskListSize() + ">");
+        TaskReference reference = selection.getSingle();
+        if (reference != null) {
+            Task target = reference.resolve(taskManager, "unmark", "");
+            ui.showUnmarkTask(taskManager.unmarkTaskById(target.getId()));
+            return false;
         }
 
-        Task task = taskManager.getTask(index);
-        task.setIncomplete();
-        taskManager.save();
-        ui.showUnmarkTask(task);
+        ArrayList<Task> targets = selection.resolve(taskManager, "unmark", "");
+        ArrayList<Task> tasks = taskManager.unmarkTasksById(TaskSelection.idsOf(targets));
+        ui.showTasksChanged("Ok, I've marked these " + tasks.size() + " tasks as not done yet:", tasks);
         return false;
     }
 }
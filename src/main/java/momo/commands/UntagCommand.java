@@ -1,16 +1,17 @@
 package momo.commands;
 
-import momo.exceptions.InvalidArgumentException;
+import java.util.ArrayList;
+
 import momo.exceptions.MomoException;
 import momo.tasks.Task;
 import momo.tasks.TaskManager;
 import momo.ui.Ui;
 
 /**
- * Removes a tag from an existing task.
+ * Removes a tag from one or more existing tasks.
  */
 public class UntagCommand extends Command {
-    private final int index;
+    private final TaskSelection selection;
     private final String tag;
 
     /**
@@ -20,29 +21,50 @@ public class UntagCommand extends Command {
      * @param tag The tag to be removed from the task.
      */
     public UntagCommand(int index, String tag) {
-        this.index = index - 1;
+        this(TaskReference.ofPosition(index), tag);
+    }
+
+    /**
+     * Constructs a UntagCommand with the referenced task and tag.
+     *
+     * @param reference Position or id of the task.
+     * @param tag The tag to be removed from the task.
+     */
+    public UntagCommand(TaskReference reference, String tag) {
+        this(TaskSelection.of(reference), tag);
+    }
+
+    /**
+     * Constructs an untag command for several tasks.
+     *
+     * @param selection Positions, ranges and ids of the tasks.
+     * @param tag The tag to be removed from each task.
+     */
+    public UntagCommand(TaskSelection selection, String tag) {
+        this.selection = selection;
         this.tag = tag;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Removes the specified tag from the selected task and persists the updated task list.
+     * Removes the specified tag from the selected tasks and persists the changes together.
      * </p>
      *
      * @throws MomoException If an error occurs during command execution.
      */
     @Override
     public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
-        if (index < 0 || index >= taskManager.getTaskListSize()) {
-            throw new InvalidArgumentException("untag <1-" + taskManager.getTaskListSize() + "> " + this.tag);
+        TaskReference reference = selection.getSingle();
+        if (reference != null) {
+            Task target = reference.resolve(taskManager, "untag", " " + this.tag);
+            ui.showTagRemoved(taskManager.untagTaskById(target.getId(), tag));
+            return false;
         }
 
-        Task task = taskManager.getTask(index);
-        task.removeTag(tag);
-        taskManager.save();
-
-        ui.showTagRemoved(task);
+        ArrayList<Task> targets = selection.resolve(taskManager, "untag", " " + this.tag);
+        ArrayList<Task> tasks = taskManager.untagTasksById(TaskSelection.idsOf(targets), tag);
+        ui.showTasksChanged("I have removed the tag from these " + tasks.size() + " tasks:", tasks);
         return false;
     }
 }
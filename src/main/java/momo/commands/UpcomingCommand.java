@@ -0,0 +1,47 @@
+package momo.commands;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import momo.exceptions.MomoException;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.ui.Ui;
+
+/**
+ * Lists the incomplete deadlines that are due next.
+ * <p>
+ * Deadlines are read in due order from the index kept by {@code TaskManager},
+ * so only the listed deadlines are visited.
+ * </p>
+ */
+public class UpcomingCommand extends Command {
+    /** Number of deadlines listed when no count is given. */
+    public static final int DEFAULT_LIMIT = 5;
+
+    private final int limit;
+
+    /**
+     * Constructs an upcoming command listing at most the given number of deadlines.
+     *
+     * @param limit Maximum number of deadlines to list.
+     */
+    public UpcomingCommand(int limit) {
+        assert limit > 0 : "Limit must be positive";
+        this.limit = limit;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Displays the incomplete deadlines due from now on, soonest first.
+     * </p>
+     */
+    @Override
+    public boolean execute(TaskManager taskManager, Ui ui) throws MomoException {
+        ArrayList<Task> deadlines = taskManager.findUpcomingDeadlines(LocalDateTime.now(), limit);
+
+        ui.showMatchingTaskList(deadlines);
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+package momo.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import momo.commands.Command;
+import momo.exceptions.MomoException;
+import momo.exceptions.StorageException;
+import momo.parser.Parser;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.ui.Ui;
+
+/**
+ * Runs a script of commands without prompting, such as a file of commands to import.
+ * <p>
+ * Each line is parsed and executed like a line typed into the {@link Controller}, but
+ * the confirmations printed after adding, marking, deleting or tagging a task are left
+ * out, and changes are written to storage together instead of one by one: at the end
+ * of the script, and every {@code flushEvery} commands if that is positive. Output of
+ * commands that show tasks, such as {@code list}, is printed as usual.
+ * </p>
+ * <p>
+ * A command that fails is reported with its line number and the script carries on,
+ * except after a storage error, which stops the script. Blank lines are skipped, and
+ * {@code bye} ends the script early.
+ * </p>
+ */
+public class BatchRunner {
+    private final TaskManager taskManager;
+    private final int flushEvery;
+    private final PrintStream report;
+    private final Parser parser = new Parser();
+    private final Ui ui = new QuietUi();
+
+    /**
+     * Counts of the commands a script ran.
+     */
+    public static final class Summary {
+        private final int succeededCount;
+        private final int failedCount;
+
+        private Summary(int succeededCount, int failedCount) {
+            this.succeededCount = succeededCount;
+            this.failedCount = failedCount;
+        }
+
+        public int getSucceededCount() {
+            return succeededCount;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+    }
+
+    /**
+     * Ui that shows tasks and errors but none of the confirmations after a change.
+     */
+    private static class QuietUi extends Ui {
+        @Override
+        public void showWelcome() {
+        }
+
+        @Override
+        public void showGoodbye() {
+        }
+
+        @Override
+        public void displayAddedTask(Task task, int size) {
+        }
+
+        @Override
+        public void showMarkTask(Task task) {
+        }
+
+        @Override
+        public void showUnmarkTask(Task task) {
+        }
+
+        @Override
+        public void showDeleteTask(Task task, int size) {
+        }
+
+        @Override
+        public void showTagAdded(Task task) {
+        }
+
+        @Override
+        public void showTagRemoved(Task task) {
+        }
+
+        @Override
+        public void showTasksChanged(String message, ArrayList<Task> tasks) {
+        }
+    }
+
+    /**
+     * Constructs a batch runner.
+     *
+     * @param taskManager Task manager the commands act on.
+     * @param flushEvery Number of commands after which held changes are written, or 0 to write
+     *     them only at the end.
+     * @param report Stream for failed commands and the closing summary.
+     */
+    public BatchRunner(TaskManager taskManager, int flushEvery, PrintStream report) {
+        assert flushEvery >= 0 : "Flush interval must not be negative";
+        this.taskManager = taskManager;
+        this.flushEvery = flushEvery;
+        this.report = report;
+    }
+
+    /**
+     * Runs every command of a script, then writes the changes and waits until they are stored.
+     *
+     * @param script Reader over the script, one command per line.
+     * @return Counts of the commands that succeeded and failed.
+     * @throws IOException If the script cannot be read.
+     * @throws StorageException If the changes cannot be written.
+     */
+    public Summary run(BufferedReader script) throws IOException {
+        int lineNumber = 0;
+        int succeeded = 0;
+        int failed = 0;
+        int sinceCommit = 0;
+
+        taskManager.beginBatch();
+        try {
+            String line;
+            boolean isExit = false;
+            while (!isExit && (line = script.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    Command command = parser.parse(line);
+                    isExit = command.execute(taskManager, ui);
+                    succeeded++;
+                } catch (StorageException err) {
+                    failed++;
+                    report.println("line " + lineNumber + ": " + err.getMessage());
+                    break;
+                } catch (MomoException err) {
+                    failed++;
+                    report.println("line " + lineNumber + ": " + err.getMessage());
+                }
+
+                if (flushEvery > 0 && ++sinceCommit == flushEvery) {
+                    taskManager.commitBatch();
+                    sinceCommit = 0;
+                }
+            }
+        } finally {
+            taskManager.endBatch();
+        }
+        taskManager.flush();
+
+        report.println("Ran " + (succeeded + failed) + " commands from " + lineNumber + " lines: "
+                + succeeded + " succeeded, " + failed + " failed.");
+        return new Summary(succeeded, failed);
+    }
+}
@@ -0,0 +1,344 @@
+package momo.parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.Arrays;
+
+/**
+ * Splits one line of user input into whitespace-separated tokens in a single pass.
+ * <p>
+ * Tokens are recorded as start and end offsets into the input, in buffers that are
+ * reused from one line to the next, so scanning a line allocates nothing. Substrings
+ * are only created for the parts of a command that are kept, such as a title. Any
+ * character up to and including the space character counts as whitespace, as in
+ * {@link String#trim()}.
+ * </p>
+ * <p>
+ * The command word is looked up in a perfect hash table of the {@link CommandType}s,
+ * built once when the class is loaded, and numbers and dates are parsed straight from
+ * the input. Invalid numbers and dates are reported by return value rather than by
+ * exception. A scanner keeps state between calls, so it must not be shared between threads.
+ * </p>
+ */
+final class CommandScanner {
+    /** Returned by the number parsers for input that is not a number in range. */
+    static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    private static final CommandType[] KEYWORDS;
+    private static final int KEYWORD_SEED;
+
+    static {
+        CommandType[] types = CommandType.values();
+        int size = Integer.highestOneBit(types.length) * 4;
+        int seed = 1;
+        CommandType[] table = placeKeywords(types, size, seed);
+        while (table == null) {
+            seed++;
+            if (seed % 1000 == 0) {
+                size *= 2; // no seed found quickly, so give the table more room
+            }
+            table = placeKeywords(types, size, seed);
+        }
+        KEYWORDS = table;
+        KEYWORD_SEED = seed;
+    }
+
+    private String input = "";
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count;
+
+    /**
+     * Scans a line, replacing the tokens of the previous one.
+     *
+     * @param line Raw user input, not {@code null}.
+     */
+    void scan(String line) {
+        input = line;
+        count = 0;
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            while (i < length && line.charAt(i) <= ' ') {
+                i++;
+            }
+            if (i == length) {
+                return;
+            }
+            int start = i;
+            while (i < length && line.charAt(i) > ' ') {
+                i++;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = i;
+            count++;
+        }
+    }
+
+    String input() {
+        return input;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int start(int token) {
+        return starts[token];
+    }
+
+    int end(int token) {
+        return ends[token];
+    }
+
+    int length(int token) {
+        return ends[token] - starts[token];
+    }
+
+    /**
+     * Returns one token as a string.
+     *
+     * @param token Index of the token.
+     * @return The token.
+     */
+    String token(int token) {
+        return input.substring(starts[token], ends[token]);
+    }
+
+    /**
+     * Returns a run of tokens as a string, keeping the whitespace between them as typed.
+     *
+     * @param first Index of the first token.
+     * @param last Index of the last token, inclusive.
+     * @return The tokens.
+     */
+    String tokens(int first, int last) {
+        return input.substring(starts[first], ends[last]);
+    }
+
+    /**
+     * Returns whether a token is the given text, ignoring case.
+     *
+     * @param token Index of the token.
+     * @param text Text to compare with.
+     * @return {@code true} if the token matches.
+     */
+    boolean tokenEquals(int token, String text) {
+        return length(token) == text.length() && input.regionMatches(true, starts[token], text, 0, text.length());
+    }
+
+    /**
+     * Returns whether a token starts with the given character.
+     *
+     * @param token Index of the token.
+     * @param c The character.
+     * @return {@code true} if the first character of the token is {@code c}.
+     */
+    boolean tokenStartsWith(int token, char c) {
+        return input.charAt(starts[token]) == c;
+    }
+
+    /**
+     * Returns the command matching the first token.
+     *
+     * @return The command type, or {@code null} if the line is empty or the word is not a command.
+     */
+    CommandType keyword() {
+        if (count == 0) {
+            return null;
+        }
+
+        int from = starts[0];
+        int to = ends[0];
+        CommandType candidate = KEYWORDS[hash(input, from, to, KEYWORD_SEED) & (KEYWORDS.length - 1)];
+        if (candidate == null || candidate.name().length() != to - from
+                || !candidate.name().regionMatches(true, 0, input, from, to - from)) {
+            return null;
+        }
+        return candidate;
+    }
+
+    /**
+     * Parses part of the input as a decimal number with an optional sign.
+     *
+     * @param from Start offset.
+     * @param to End offset, exclusive.
+     * @return The number, or {@link #NOT_A_NUMBER} if the text is not a number that fits in a long.
+     */
+    long parseLong(int from, int to) {
+        if (from >= to) {
+            return NOT_A_NUMBER;
+        }
+
+        boolean isNegative = input.charAt(from) == '-';
+        if (isNegative || input.charAt(from) == '+') {
+            from++;
+            if (from == to) {
+                return NOT_A_NUMBER;
+            }
+        }
+
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return NOT_A_NUMBER;
+            }
+            value = value * 10 + digit;
+        }
+        return isNegative ? -value : value;
+    }
+
+    /**
+     * Parses a token as a number that fits in an int.
+     *
+     * @param token Index of the token.
+     * @return The number, or {@link #NOT_A_NUMBER} if the token is not an int.
+     */
+    long parseInt(int token) {
+        return parseInt(starts[token], ends[token]);
+    }
+
+    /**
+     * Parses part of the input as a number that fits in an int.
+     *
+     * @param from Start offset.
+     * @param to End offset, exclusive.
+     * @return The number, or {@link #NOT_A_NUMBER} if the text is not an int.
+     */
+    long parseInt(int from, int to) {
+        long value = parseLong(from, to);
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_A_NUMBER : value;
+    }
+
+    /**
+     * Parses part of the input as {@code yyyy-MM-dd} or {@code yyyy-MM-dd HHmm}.
+     * <p>
+     * Surrounding whitespace is ignored, and the date and time may be separated by any whitespace.
+     * </p>
+     *
+     * @param from Start offset.
+     * @param to End offset, exclusive.
+     * @return The date/time, at the start of the day if no time is given, or {@code null} if the text is invalid.
+     */
+    LocalDateTime parseDateTime(int from, int to) {
+        while (from < to && input.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && input.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (to - from < 10) {
+            return null;
+        }
+
+        LocalDate date = parseDate(from, from + 10);
+        if (date == null) {
+            return null;
+        }
+        if (to - from == 10) {
+            return date.atStartOfDay();
+        }
+
+        int timeStart = from + 10;
+        if (input.charAt(timeStart) > ' ') {
+            return null;
+        }
+        while (input.charAt(timeStart) <= ' ') {
+            timeStart++;
+        }
+        if (to - timeStart != 4) {
+            return null;
+        }
+        int hours = digits(timeStart, 2);
+        int minutes = digits(timeStart + 2, 2);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            return null;
+        }
+        return LocalDateTime.of(date, LocalTime.of(hours, minutes));
+    }
+
+    /**
+     * Parses a token as a {@code yyyy-MM-dd} date.
+     *
+     * @param token Index of the token.
+     * @return The date, or {@code null} if the token is not a valid date.
+     */
+    LocalDate parseDate(int token) {
+        return length(token) == 10 ? parseDate(starts[token], ends[token]) : null;
+    }
+
+    /**
+     * Parses part of the input as a {@code yyyy-MM-dd} date.
+     *
+     * @param from Start offset.
+     * @param to End offset, exclusive.
+     * @return The date, or {@code null} if the text is not a valid date.
+     */
+    LocalDate parseDate(int from, int to) {
+        if (to - from != 10) {
+            return null;
+        }
+        if (input.charAt(from + 4) != '-' || input.charAt(from + 7) != '-') {
+            return null;
+        }
+
+        int year = digits(from, 4);
+        int month = digits(from + 5, 2);
+        int day = digits(from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        boolean isLeap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+        if (day > Month.of(month).length(isLeap)) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Reads a fixed number of digits.
+     *
+     * @return Their value, or {@code -1} if any of them is not a digit.
+     */
+    private int digits(int from, int length) {
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static CommandType[] placeKeywords(CommandType[] types, int size, int seed) {
+        CommandType[] table = new CommandType[size];
+        for (CommandType type : types) {
+            String name = type.name();
+            int slot = hash(name, 0, name.length(), seed) & (size - 1);
+            if (table[slot] != null) {
+                return null;
+            }
+            table[slot] = type;
+        }
+        return table;
+    }
+
+    private static int hash(CharSequence s, int from, int to, int seed) {
+        int h = seed;
+        for (int i = from; i < to; i++) {
+            h = h * 31 + Character.toUpperCase(s.charAt(i));
+        }
+        h ^= h >>> 16;
+        h *= 0x45D9F3B;
+        return h ^ (h >>> 16);
+    }
+}
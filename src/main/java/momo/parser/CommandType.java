@@ -23,8 +23,20 @@ public enum CommandType {
     EVENT,
     /** Finds all matching tasks */
     FIND,
+    /** Finds the tasks matching a query */
+    FILTER,
     /** Tags a task*/
     TAG,
     /** Untags a task */
     UNTAG,
+    /** Lists events within a period */
+    BETWEEN,
+    /** Lists events overlapping an event */
+    OVERLAPS,
+    /** Lists the next incomplete deadlines */
+    UPCOMING,
+    /** Lists overdue deadlines */
+    OVERDUE,
+    /** Lists free time between events */
+    FREE,
 }
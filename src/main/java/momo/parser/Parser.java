@@ -1,33 +1,56 @@
 package momo.parser;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
+import momo.commands.BetweenCommand;
 import momo.commands.Command;
 import momo.commands.DeadlineCommand;
 import momo.commands.DeleteCommand;
 import momo.commands.EventCommand;
 import momo.commands.ExitCommand;
+import momo.commands.FilterCommand;
 import momo.commands.FindCommand;
+import momo.commands.FreeCommand;
 import momo.commands.ListCommand;
 import momo.commands.MarkCommand;
+import momo.commands.OverdueCommand;
+import momo.commands.OverlapsCommand;
 import momo.commands.TagCommand;
+import momo.commands.TaskReference;
+import momo.commands.TaskSelection;
 import momo.commands.TodoCommand;
 import momo.commands.UnmarkCommand;
 import momo.commands.UntagCommand;
+import momo.commands.UpcomingCommand;
 import momo.exceptions.InvalidArgumentException;
 import momo.exceptions.InvalidCommandException;
 import momo.exceptions.InvalidDateTimeException;
 import momo.exceptions.MomoException;
+import momo.tasks.Query;
+import momo.ui.Ui;
 
 /**
  * Parser validates raw user input and parses into executable {@link momo.commands.Command} objects.
  * Throws {@link momo.exceptions.MomoException} subclasses for invalid inputs.
+ * <p>
+ * Input is scanned once by a {@link CommandScanner} that the parser reuses for every
+ * command, so a parser must not be shared between threads.
+ * </p>
  */
 public class Parser {
+    /** Flag at the end of an event command that asks for clashing events to be reported. */
+    private static final String CHECK_FLAG = "/check";
+    private static final String BY_DELIMITER = " /by ";
+    private static final String FROM_DELIMITER = " /from ";
+    private static final String TO_DELIMITER = " /to ";
+
+    private final CommandScanner scanner = new CommandScanner();
+
     /**
      * Parses a user command string into a {@link Command}.
      * <p>
@@ -43,110 +66,132 @@ public class Parser {
      * @throws InvalidDateTimeException If a date/time argument does not match the expected format.
      */
     public Command parse(String cmd) throws MomoException {
-        if (cmd == null || cmd.trim().length() == 0) { //Handle empty input
+        if (cmd == null) {
             throw new InvalidCommandException();
         }
 
-        String[] cmdTokens = cmd.trim().split("\\s+"); //Split the command up to extract main word
-        String trimmed = cmd.trim();
-
-        CommandType type = matchEnum(cmdTokens[0]); //Enum matching
+        scanner.scan(cmd);
+        CommandType type = scanner.keyword(); // null for empty input or an unknown word
+        if (type == null) {
+            throw new InvalidCommandException();
+        }
 
         switch(type) {
         case LIST:
-            return parseListCommand(cmdTokens);
+            return parseListCommand();
         case MARK:
-            return parseMarkCommand(cmdTokens);
+            return parseMarkCommand();
         case UNMARK:
-            return parseUnmarkCommand(cmdTokens);
+            return parseUnmarkCommand();
         case DELETE:
-            return parseDeleteCommand(cmdTokens);
+            return parseDeleteCommand();
         case BYE:
-            return parseByeCommand(cmdTokens);
+            return parseByeCommand();
         case TODO:
-            return parseTodoCommand(trimmed, cmdTokens);
+            return parseTodoCommand();
         case DEADLINE:
-            return parseDeadlineCommand(trimmed);
+            return parseDeadlineCommand();
         case EVENT:
-            return parseEventCommand(trimmed);
+            return parseEventCommand();
         case FIND:
-            return parseFindCommand(trimmed, cmdTokens);
+            return parseFindCommand();
+        case FILTER:
+            return parseFilterCommand();
         case TAG:
-            return parseTagCommand(cmdTokens);
+            return parseTagCommand();
         case UNTAG:
-            return parseUntagCommand(cmdTokens);
+            return parseUntagCommand();
+        case BETWEEN:
+            return parseBetweenCommand();
+        case OVERLAPS:
+            return parseOverlapsCommand();
+        case UPCOMING:
+            return parseUpcomingCommand();
+        case OVERDUE:
+            return parseOverdueCommand();
+        case FREE:
+            return parseFreeCommand();
         default:
             throw new InvalidCommandException();
         }
     }
 
-    private CommandType matchEnum(String commandWord) throws InvalidCommandException {
-        try {
-            return CommandType.valueOf(commandWord.toUpperCase());
-        } catch (IllegalArgumentException | NullPointerException e) {
-            throw new InvalidCommandException();
-        }
-    }
-
-    private Command parseListCommand(String[] cmdTokens) throws InvalidArgumentException {
-        if (cmdTokens.length != 1) {
-            throw new InvalidArgumentException("list");
+    /**
+     * Parses {@code list}, optionally followed by {@code --page <n>} and/or {@code --size <count>}
+     * in either order. A size without a page shows the first page.
+     */
+    private Command parseListCommand() throws InvalidArgumentException {
+        String usage = "list [--page <n>] [--size <1-" + ListCommand.MAX_PAGE_SIZE + ">]";
+        int count = scanner.count();
+        if (count == 1) {
+            return new ListCommand();
+        }
+        if (count != 3 && count != 5) {
+            throw new InvalidArgumentException(usage);
+        }
+
+        long page = 0;
+        long size = 0;
+        for (int i = 1; i < count; i += 2) {
+            long value = scanner.parseInt(i + 1);
+            if (scanner.tokenEquals(i, "--page") && page == 0) {
+                page = value;
+                if (page < 1) { // includes NOT_A_NUMBER
+                    throw new InvalidArgumentException(usage);
+                }
+            } else if (scanner.tokenEquals(i, "--size") && size == 0) {
+                size = value;
+                if (size < 1 || size > ListCommand.MAX_PAGE_SIZE) {
+                    throw new InvalidArgumentException(usage);
+                }
+            } else {
+                throw new InvalidArgumentException(usage);
+            }
         }
-
-        return new ListCommand();
+        return new ListCommand(page == 0 ? 1 : (int) page, size == 0 ? Ui.PAGE_SIZE : (int) size);
     }
 
-    private Command parseByeCommand(String[] cmdTokens) throws InvalidArgumentException {
-        if (cmdTokens.length != 1) {
+    private Command parseByeCommand() throws InvalidArgumentException {
+        if (scanner.count() != 1) {
             throw new InvalidArgumentException("bye");
         }
 
         return new ExitCommand();
     }
 
-    private Command parseMarkCommand(String[] cmdTokens) throws InvalidArgumentException {
-        if (cmdTokens.length != 2) {
+    private Command parseMarkCommand() throws InvalidArgumentException {
+        if (scanner.count() != 2) {
             throw new InvalidArgumentException("mark <index>");
         }
-        try {
-            return new MarkCommand(Integer.parseInt(cmdTokens[1]));
-        } catch (NumberFormatException err) {
-            throw new InvalidArgumentException("mark <index>. Index must be an integer");
-        }
+        return new MarkCommand(parseTaskSelection(1, "mark <index>. Index must be an integer, a range or a list"));
     }
 
-    private Command parseUnmarkCommand(String[] cmdTokens) throws InvalidArgumentException {
-        if (cmdTokens.length != 2) {
+    private Command parseUnmarkCommand() throws InvalidArgumentException {
+        if (scanner.count() != 2) {
             throw new InvalidArgumentException("unmark <index>");
         }
-        try {
-            return new UnmarkCommand(Integer.parseInt(cmdTokens[1]));
-        } catch (NumberFormatException err) {
-            throw new InvalidArgumentException("unmark <index>. Index must be an integer");
-        }
+        return new UnmarkCommand(parseTaskSelection(1, "unmark <index>. Index must be an integer, a range or a list"));
     }
 
-    private Command parseDeleteCommand(String[] cmdTokens) throws InvalidArgumentException {
-        if (cmdTokens.length != 2) {
+    private Command parseDeleteCommand() throws InvalidArgumentException {
+        if (scanner.count() != 2) {
             throw new InvalidArgumentException("delete <index>");
         }
-        try {
-            return new DeleteCommand(Integer.parseInt(cmdTokens[1]));
-        } catch (NumberFormatException err) {
-            throw new InvalidArgumentException("delete <index>. Index must be an integer");
-        }
+        return new DeleteCommand(parseTaskSelection(1, "delete <index>. Index must be an integer, a range or a list"));
     }
 
-    private Command parseFindCommand(String cmd, String[] cmdTokens) throws InvalidArgumentException {
-        if (cmdTokens.length < 2) {
+    private Command parseFindCommand() throws InvalidArgumentException {
+        if (scanner.count() < 2) {
             throw new InvalidArgumentException("find <keyword>");
         }
-        String keyword = cmd.substring(cmd.indexOf(" ") + 1).trim();
-        if (keyword.isEmpty()) {
-            throw new InvalidArgumentException("find <keyword>");
+
+        Command multiTagCommand = parseMultiTagFind();
+        if (multiTagCommand != null) {
+            return multiTagCommand;
         }
-        boolean isTag = false;
 
+        String keyword = scanner.tokens(1, scanner.count() - 1);
+        boolean isTag = false;
         if (keyword.startsWith("#")) {
             isTag = true;
             keyword = keyword.substring(1);
@@ -158,118 +203,349 @@ public class Parser {
         return new FindCommand(keyword, isTag);
     }
 
-    private Command parseTodoCommand(String cmd, String[] cmdTokens) throws InvalidArgumentException {
-        if (cmdTokens.length < 2) {
-            throw new InvalidArgumentException("todo <task>");
+    private Command parseFilterCommand() throws MomoException {
+        if (scanner.count() < 2) {
+            throw new InvalidArgumentException(QueryParser.USAGE);
         }
+        return new FilterCommand(new QueryParser(scanner, scanner.start(1), scanner.input().length()).parse());
+    }
+
+    /**
+     * Parses the text of a query on its own, as written after {@code filter}.
+     *
+     * @param query Raw query text.
+     * @return The compiled query.
+     * @throws InvalidArgumentException If the query is empty or malformed.
+     * @throws InvalidDateTimeException If a date in the query is invalid.
+     */
+    public Query parseQuery(String query) throws MomoException {
+        scanner.scan(query);
+        return new QueryParser(scanner, 0, query.length()).parse();
+    }
 
-        String title = cmd.substring(cmd.indexOf(" ") + 1).trim(); //only take <title>
-        if (title.isEmpty()) {
+    /**
+     * Parses a search for several tags, written as {@code #a #b} (every tag) or
+     * {@code #a or #b} (any tag).
+     *
+     * @return The command, or {@code null} if the keyword is not a multi-tag search.
+     * @throws InvalidArgumentException If {@code or} is mixed with plain juxtaposition.
+     */
+    private Command parseMultiTagFind() throws InvalidArgumentException {
+        if (scanner.count() < 3) {
+            return null;
+        }
+
+        List<String> tags = new ArrayList<>();
+        int orCount = 0;
+        for (int i = 1; i < scanner.count(); i++) {
+            if (scanner.tokenEquals(i, "or")) {
+                if (i % 2 == 1) {
+                    throw new InvalidArgumentException("find #<tag> #<tag> ... or find #<tag> or #<tag> ...");
+                }
+                orCount++;
+            } else if (scanner.tokenStartsWith(i, '#') && scanner.length(i) > 1) {
+                tags.add(scanner.input().substring(scanner.start(i) + 1, scanner.end(i)));
+            } else {
+                return null; // a single tag containing spaces, e.g. "#very important"
+            }
+        }
+
+        if (orCount > 0 && orCount != tags.size() - 1) {
+            throw new InvalidArgumentException("find #<tag> #<tag> ... or find #<tag> or #<tag> ...");
+        }
+        return new FindCommand(tags, orCount == 0);
+    }
+
+    private Command parseTodoCommand() throws InvalidArgumentException {
+        if (scanner.count() < 2) {
             throw new InvalidArgumentException("todo <task>");
         }
-        return new TodoCommand(title);
+
+        return new TodoCommand(scanner.tokens(1, scanner.count() - 1)); //only take <title>
     }
 
-    private Command parseDeadlineCommand(String cmd) throws MomoException {
-        if (!cmd.contains(" /by ")) {
-            throw new InvalidArgumentException("deadline <task> /by <date>");
+    private Command parseDeadlineCommand() throws MomoException {
+        String usage = "deadline <task> /by <date>";
+        int end = scanner.end(scanner.count() - 1);
+        int byAt = indexOf(BY_DELIMITER, scanner.end(0), end);
+        if (byAt < 0) {
+            throw new InvalidArgumentException(usage);
         }
 
-        String[] parts = cmd.split(" /by ", 2);
-        if (parts.length < 2) {
-            throw new InvalidArgumentException("deadline <task> /by <date>");
+        String title = region(scanner.end(0), byAt);
+        if (title.isEmpty() || isBlank(byAt + BY_DELIMITER.length(), end)) {
+            throw new InvalidArgumentException(usage);
         }
 
-        String leftString = parts[0].trim(); // left: "deadline <title>"
-        String byString = parts[1].trim();
+        LocalDateTime byDateTime = parseUserDateTime(byAt + BY_DELIMITER.length(), end);
+        return new DeadlineCommand(title, byDateTime);
+    }
 
-        if (leftString.equals("deadline")) {
-            throw new InvalidArgumentException("deadline <task> /by <date>");
+    private Command parseEventCommand() throws MomoException {
+        String usage = "event <task> /from <start_date/time> /to <end_date/time>";
+        int last = scanner.count() - 1;
+        int end = scanner.end(last);
+        boolean isConflictCheck = last > 0 && scanner.length(last) == CHECK_FLAG.length()
+                && scanner.input().startsWith(CHECK_FLAG, scanner.start(last));
+        if (isConflictCheck) {
+            end = scanner.end(last - 1);
         }
-        String title = leftString.substring(leftString.indexOf(" ") + 1).trim(); // remove "deadline"
 
-        if (title.isEmpty() || byString.isEmpty()) {
-            throw new InvalidArgumentException("deadline <task> /by <date>");
+        int fromAt = indexOf(FROM_DELIMITER, scanner.end(0), end);
+        int toAt = fromAt < 0 ? -1 : indexOf(TO_DELIMITER, fromAt + FROM_DELIMITER.length(), end);
+        if (toAt < 0) {
+            throw new InvalidArgumentException(usage);
         }
 
-        LocalDateTime byDateTime = parseUserDateTime(byString);
-        return new DeadlineCommand(title, byDateTime);
+        String title = region(scanner.end(0), fromAt);
+        int fromStart = fromAt + FROM_DELIMITER.length();
+        int toStart = toAt + TO_DELIMITER.length();
+        if (title.isEmpty() || isBlank(fromStart, toAt) || isBlank(toStart, end)) {
+            throw new InvalidArgumentException(usage);
+        }
+
+        LocalDateTime fromDateTime = parseUserDateTime(fromStart, toAt);
+        LocalDateTime endDateTime = parseUserDateTime(toStart, end);
+
+        return new EventCommand(title, fromDateTime, endDateTime, isConflictCheck);
     }
 
-    private Command parseEventCommand(String cmd) throws MomoException {
-        if (!cmd.contains(" /from ") || !cmd.contains(" /to ")) {
-            throw new InvalidArgumentException("event <task> /from <start_date/time> /to <end_date/time>");
+    private Command parseTagCommand() throws MomoException {
+        if (scanner.count() != 3) {
+            throw new InvalidArgumentException("tag <index> <tag1,tag2,...>");
         }
 
-        String[] firstSplit = cmd.split(" /from ", 2);
-        if (firstSplit.length < 2) {
-            throw new InvalidArgumentException("event <task> /from <start_date/time> /to <end_date/time>");
+        TaskSelection selection = parseTaskSelection(1,
+                "tag <index> <tag1,tag2,...>. Index should be a number, a range or a list");
+        return new TagCommand(selection, scanner.token(2));
+    }
+
+    private Command parseUntagCommand() throws MomoException {
+        if (scanner.count() != 3) {
+            throw new InvalidArgumentException("untag <index> <tag>");
         }
 
-        String left = firstSplit[0].trim(); // "event <title>""
-        String rest = firstSplit[1].trim(); // "<start> /to <end>"
+        TaskSelection selection = parseTaskSelection(1,
+                "untag <index> <tag>. Index should be a number, a range or a list");
+        return new UntagCommand(selection, scanner.token(2));
+    }
 
-        if (left.equals("event")) {
-            throw new InvalidArgumentException("event <task> /from <start_date/time> /to <end_date/time>");
+    /**
+     * Parses a period given as two dates, each optionally followed by a time.
+     * <p>
+     * An end date without a time covers the whole of that day, so
+     * {@code between 2026-03-01 2026-03-01} lists every event on that day.
+     * </p>
+     */
+    private Command parseBetweenCommand() throws MomoException {
+        String usage = "between <start_date/time> <end_date/time>";
+        int count = scanner.count();
+        if (count < 3 || count > 5) {
+            throw new InvalidArgumentException(usage);
         }
-        String title = left.substring(left.indexOf(" ") + 1).trim(); // remove "event"
 
-        String[] secondSplit = rest.split(" /to ", 2);
-        if (secondSplit.length < 2) {
-            throw new InvalidArgumentException("event <task> /from <start_date/time> /to <end_date/time>");
+        int endAt = isTimeToken(2) ? 3 : 2;
+        if (endAt == count || count - endAt > 2) {
+            throw new InvalidArgumentException(usage);
         }
 
-        String from = secondSplit[0].trim();
-        String to = secondSplit[1].trim();
+        LocalDateTime from = parseUserDateTime(scanner.start(1), scanner.end(endAt - 1));
+        LocalDateTime to = parseUserDateTime(scanner.start(endAt), scanner.end(count - 1));
+        if (endAt == count - 1) {
+            to = to.toLocalDate().atTime(LocalTime.MAX); // date only: until the end of the day
+        }
+        if (to.isBefore(from)) {
+            throw new InvalidArgumentException(usage + ". The end must not be before the start");
+        }
+
+        return new BetweenCommand(from, to);
+    }
 
-        if (title.isEmpty() || from.isEmpty() || to.isEmpty()) {
-            throw new InvalidArgumentException("event <task> /from <start_date/time> /to <end_date/time>");
+    private boolean isTimeToken(int token) {
+        if (scanner.length(token) != 4) {
+            return false;
         }
+        for (int i = scanner.start(token); i < scanner.end(token); i++) {
+            char c = scanner.input().charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        LocalDateTime fromDateTime = parseUserDateTime(from);
-        LocalDateTime endDateTime = parseUserDateTime(to);
+    private Command parseOverlapsCommand() throws InvalidArgumentException {
+        if (scanner.count() != 2) {
+            throw new InvalidArgumentException("overlaps <index>");
+        }
+        return new OverlapsCommand(parseTaskReference(1, "overlaps <index>. Index must be an integer"));
+    }
+
+    private Command parseUpcomingCommand() throws InvalidArgumentException {
+        if (scanner.count() > 2) {
+            throw new InvalidArgumentException("upcoming [count]");
+        }
+        if (scanner.count() == 1) {
+            return new UpcomingCommand(UpcomingCommand.DEFAULT_LIMIT);
+        }
 
-        return new EventCommand(title, fromDateTime, endDateTime);
+        long limit = scanner.parseInt(1);
+        if (limit == CommandScanner.NOT_A_NUMBER) {
+            throw new InvalidArgumentException("upcoming [count]. Count must be an integer");
+        }
+        if (limit < 1) {
+            throw new InvalidArgumentException("upcoming [count]. Count must be at least 1");
+        }
+        return new UpcomingCommand((int) limit);
     }
 
-    private Command parseTagCommand(String[] cmdTokens) throws MomoException {
-        if (cmdTokens.length != 3) {
-            throw new InvalidArgumentException("tag <index> <tag1,tag2,...>");
+    private Command parseOverdueCommand() throws InvalidArgumentException {
+        if (scanner.count() != 1) {
+            throw new InvalidArgumentException("overdue");
         }
 
-        int index;
-        try {
-            index = Integer.parseInt(cmdTokens[1]);
-        } catch (NumberFormatException err) {
-            throw new InvalidArgumentException("tag <index> <tag1,tag2,...>. Index should be a number");
+        return new OverdueCommand();
+    }
+
+    /**
+     * Parses a search for free time over one day, or a range of days, and a shortest window length.
+     */
+    private Command parseFreeCommand() throws MomoException {
+        String usage = "free <date> [<end_date>] <duration>, e.g. free 2026-03-03 1h30m";
+        int count = scanner.count();
+        if (count != 3 && count != 4) {
+            throw new InvalidArgumentException(usage);
         }
 
-        String tag = cmdTokens[2].trim();
-        if (tag.isEmpty()) {
-            throw new InvalidArgumentException("tag <int> <tag1,tag2,...>");
+        LocalDate firstDay = parseUserDate(1);
+        LocalDate lastDay = count == 4 ? parseUserDate(2) : firstDay;
+        if (lastDay.isBefore(firstDay)) {
+            throw new InvalidArgumentException(usage + ". The end date must not be before the start date");
         }
 
-        return new TagCommand(index, tag);
+        Duration minLength = parseDuration(count - 1);
+        if (minLength == null) {
+            throw new InvalidArgumentException(usage + ". Duration is written as <hours>h<minutes>m");
+        }
+        return new FreeCommand(firstDay, lastDay, minLength);
     }
 
-    private Command parseUntagCommand(String[] cmdTokens) throws MomoException {
-        if (cmdTokens.length != 3) {
-            throw new InvalidArgumentException("untag <index> <tag>");
+    private LocalDate parseUserDate(int token) throws InvalidDateTimeException {
+        LocalDate date = scanner.parseDate(token);
+        if (date == null) {
+            throw new InvalidDateTimeException();
+        }
+        return date;
+    }
+
+    /**
+     * Parses a length of time written in hours and/or minutes, such as {@code 45m}, {@code 2h}
+     * or {@code 1h30m}.
+     *
+     * @return The duration, or {@code null} if the token is not a positive duration.
+     */
+    private Duration parseDuration(int token) {
+        String input = scanner.input();
+        int i = scanner.start(token);
+        int end = scanner.end(token);
+        long hours = 0;
+        long minutes = 0;
+
+        int digitsEnd = skipDigits(i, end);
+        if (digitsEnd > i && digitsEnd < end && Character.toLowerCase(input.charAt(digitsEnd)) == 'h') {
+            hours = scanner.parseLong(i, digitsEnd);
+            i = digitsEnd + 1;
+            digitsEnd = skipDigits(i, end);
+        }
+        if (i < end) {
+            if (digitsEnd == i || digitsEnd != end - 1 || Character.toLowerCase(input.charAt(digitsEnd)) != 'm') {
+                return null;
+            }
+            minutes = scanner.parseLong(i, digitsEnd);
+        }
+        if (hours == CommandScanner.NOT_A_NUMBER || minutes == CommandScanner.NOT_A_NUMBER) {
+            return null;
         }
 
-        int index;
         try {
-            index = Integer.parseInt(cmdTokens[1]);
-        } catch (NumberFormatException err) {
-            throw new InvalidArgumentException("untag <index> <tag>. Index should be a number");
+            Duration duration = Duration.ofHours(hours).plusMinutes(minutes);
+            return duration.isZero() ? null : duration;
+        } catch (ArithmeticException err) {
+            return null;
+        }
+    }
+
+    private int skipDigits(int from, int to) {
+        while (from < to && scanner.input().charAt(from) >= '0' && scanner.input().charAt(from) <= '9') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Parses a task reference, which is either a 1-based index or a task id written as {@code #<id>}.
+     *
+     * @param token Index of the reference token.
+     * @param usage Usage message to show if the token is invalid.
+     * @return The parsed reference.
+     * @throws InvalidArgumentException If the token is neither an integer nor a positive {@code #<id>}.
+     */
+    private TaskReference parseTaskReference(int token, String usage) throws InvalidArgumentException {
+        return parseTaskReference(scanner.start(token), scanner.end(token), usage);
+    }
+
+    private TaskReference parseTaskReference(int from, int to, String usage) throws InvalidArgumentException {
+        if (from < to && scanner.input().charAt(from) == '#') {
+            long id = scanner.parseLong(from + 1, to);
+            if (id <= 0) { // includes NOT_A_NUMBER
+                throw new InvalidArgumentException(usage);
+            }
+            return TaskReference.ofId(id);
         }
 
-        String tag = cmdTokens[2].trim();
-        if (tag.isEmpty()) {
-            throw new InvalidArgumentException("untag <int> <tag>");
+        long position = scanner.parseInt(from, to);
+        if (position == CommandScanner.NOT_A_NUMBER) {
+            throw new InvalidArgumentException(usage);
         }
+        return TaskReference.ofPosition((int) position);
+    }
+
+    /**
+     * Parses the tasks a bulk command acts on: a comma-separated list of task references
+     * and ranges of positions such as {@code 9-20}, e.g. {@code 3,#7,9-20}.
+     *
+     * @param token Index of the selection token.
+     * @param usage Usage message to show if the token is invalid.
+     * @return The parsed selection.
+     * @throws InvalidArgumentException If any part is not a reference or a non-empty range.
+     */
+    private TaskSelection parseTaskSelection(int token, String usage) throws InvalidArgumentException {
+        String input = scanner.input();
+        int end = scanner.end(token);
+        TaskSelection selection = null;
+        for (int from = scanner.start(token); from <= end; ) {
+            int to = input.indexOf(',', from);
+            if (to < 0 || to > end) {
+                to = end;
+            }
 
-        return new UntagCommand(index, tag);
+            int dash = from + 1 < to ? input.indexOf('-', from + 1) : -1; // a leading '-' is a sign
+            if (dash > 0 && dash < to) {
+                long first = scanner.parseInt(from, dash);
+                long last = scanner.parseInt(dash + 1, to);
+                if (first == CommandScanner.NOT_A_NUMBER || last == CommandScanner.NOT_A_NUMBER || first > last) {
+                    throw new InvalidArgumentException(usage);
+                }
+                selection = selection == null
+                        ? TaskSelection.ofRange((int) first, (int) last)
+                        : selection.andRange((int) first, (int) last);
+            } else {
+                TaskReference reference = parseTaskReference(from, to, usage);
+                selection = selection == null ? TaskSelection.of(reference) : selection.and(reference);
+            }
+            from = to + 1;
+        }
+        return selection;
     }
 
     /**
@@ -282,45 +558,48 @@ public class Parser {
      * </ul>
      * </p>
      *
-     * @param input User date/time string.
+     * @param from Start offset of the date/time in the input.
+     * @param to End offset, exclusive.
      * @return Parsed {@link LocalDateTime}.
-     * @throws InvalidDateTimeException If the input is blank or does not match supported formats.
+     * @throws InvalidDateTimeException If the input does not match supported formats.
      */
-    private LocalDateTime parseUserDateTime(String input) throws InvalidDateTimeException {
-        String x = input.trim();
-        if (x.isEmpty()) {
+    private LocalDateTime parseUserDateTime(int from, int to) throws InvalidDateTimeException {
+        LocalDateTime dateTime = scanner.parseDateTime(from, to);
+        if (dateTime == null) {
             throw new InvalidDateTimeException();
         }
+        return dateTime;
+    }
 
-        // date-only: yyyy-MM-dd
-        try {
-            LocalDate d = LocalDate.parse(x, DateTimeFormatter.ISO_LOCAL_DATE);
-            return d.atStartOfDay();
-        } catch (DateTimeParseException ignored) {
-            // continue
-        }
-
-        // date and time: yyyy-MM-dd HHmm
-        try {
-            String[] tokens = x.split("\\s+");
-            if (tokens.length != 2) {
-                throw new InvalidDateTimeException();
-            }
+    /**
+     * Finds a delimiter that lies wholly within part of the input.
+     *
+     * @return Offset of the first occurrence, or {@code -1} if there is none.
+     */
+    private int indexOf(String delimiter, int from, int to) {
+        int at = scanner.input().indexOf(delimiter, from);
+        return at >= 0 && at + delimiter.length() <= to ? at : -1;
+    }
 
-            LocalDate date = LocalDate.parse(tokens[0], DateTimeFormatter.ISO_LOCAL_DATE);
+    /**
+     * Returns part of the input without surrounding whitespace.
+     */
+    private String region(int from, int to) {
+        while (from < to && scanner.input().charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && scanner.input().charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return scanner.input().substring(from, to);
+    }
 
-            String t = tokens[1];
-            if (t.length() != 4) {
-                throw new InvalidDateTimeException();
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (scanner.input().charAt(i) > ' ') {
+                return false;
             }
-
-            int hh = Integer.parseInt(t.substring(0, 2));
-            int mm = Integer.parseInt(t.substring(2, 4));
-            LocalTime time = LocalTime.of(hh, mm); // validates time range
-
-            return LocalDateTime.of(date, time);
-        } catch (RuntimeException err) {
-            throw new InvalidDateTimeException();
         }
+        return true;
     }
 }
@@ -0,0 +1,275 @@
+package momo.parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import momo.exceptions.InvalidArgumentException;
+import momo.exceptions.InvalidDateTimeException;
+import momo.exceptions.MomoException;
+import momo.tasks.Deadline;
+import momo.tasks.Event;
+import momo.tasks.Query;
+import momo.tasks.Task;
+import momo.tasks.Todo;
+
+/**
+ * Compiles the text of a {@code filter} command into a {@link Query}.
+ * <p>
+ * A query is made of terms joined by {@code and}, {@code or} and {@code not}, which bind
+ * in that order from tightest ({@code not}) to loosest ({@code or}); terms written next
+ * to each other are joined by {@code and}, and parentheses group terms. The terms are:
+ * </p>
+ * <ul>
+ *   <li>{@code #<tag>}: tasks carrying the tag.</li>
+ *   <li>{@code type:todo}, {@code type:deadline} or {@code type:event}.</li>
+ *   <li>{@code is:done} or {@code is:undone}.</li>
+ *   <li>{@code due:<range>}, {@code start:<range>} or {@code end:<range>}: deadlines due, or events
+ *       starting or ending, within a range of whole days written as {@code <date>},
+ *       {@code <date>..<date>}, {@code ..<date>} or {@code <date>..}.</li>
+ *   <li>Any other word, or several words in double quotes: tasks whose title contains it.</li>
+ * </ul>
+ * <p>
+ * The text is read straight from the input of a {@link CommandScanner}, between two offsets.
+ * </p>
+ */
+final class QueryParser {
+    static final String USAGE = "filter <query>, e.g. filter #cs2103 and (type:deadline or type:event) "
+            + "due:2026-03-01..2026-03-07";
+
+    private static final int END = 0;
+    private static final int WORD = 1;
+    private static final int PHRASE = 2;
+    private static final int OPEN = 3;
+    private static final int CLOSE = 4;
+
+    private final CommandScanner scanner;
+    private final String input;
+    private final int end;
+    private int position;
+    private int kind;
+    private int tokenStart;
+    private int tokenEnd;
+
+    /**
+     * Creates a parser over part of the scanner's input.
+     *
+     * @param scanner Scanner holding the input.
+     * @param from Start offset of the query.
+     * @param to End offset of the query, exclusive.
+     */
+    QueryParser(CommandScanner scanner, int from, int to) {
+        this.scanner = scanner;
+        this.input = scanner.input();
+        this.position = from;
+        this.end = to;
+    }
+
+    /**
+     * Parses the whole query.
+     *
+     * @return The compiled query.
+     * @throws InvalidArgumentException If the query is empty or malformed.
+     * @throws InvalidDateTimeException If a date in a range is invalid.
+     */
+    Query parse() throws MomoException {
+        next();
+        if (kind == END) {
+            throw new InvalidArgumentException(USAGE);
+        }
+        Query query = parseOr();
+        if (kind != END) {
+            throw new InvalidArgumentException(USAGE + ". Check the parentheses");
+        }
+        return query;
+    }
+
+    private Query parseOr() throws MomoException {
+        List<Query> parts = new ArrayList<>();
+        parts.add(parseAnd());
+        while (isKeyword("or")) {
+            next();
+            parts.add(parseAnd());
+        }
+        return Query.anyOf(parts);
+    }
+
+    private Query parseAnd() throws MomoException {
+        List<Query> parts = new ArrayList<>();
+        parts.add(parseUnary());
+        while (kind != END && kind != CLOSE && !isKeyword("or")) {
+            if (isKeyword("and")) {
+                next();
+            }
+            parts.add(parseUnary());
+        }
+        return Query.allOf(parts);
+    }
+
+    private Query parseUnary() throws MomoException {
+        if (isKeyword("not")) {
+            next();
+            return Query.not(parseUnary());
+        }
+
+        switch (kind) {
+        case OPEN:
+            next();
+            Query group = parseOr();
+            if (kind != CLOSE) {
+                throw new InvalidArgumentException(USAGE + ". Check the parentheses");
+            }
+            next();
+            return group;
+        case PHRASE:
+            Query phrase = Query.title(input.substring(tokenStart, tokenEnd));
+            next();
+            return phrase;
+        case WORD:
+            Query term = parseTerm(tokenStart, tokenEnd);
+            next();
+            return term;
+        default:
+            throw new InvalidArgumentException(USAGE);
+        }
+    }
+
+    private Query parseTerm(int from, int to) throws MomoException {
+        if (input.charAt(from) == '#') {
+            if (to - from == 1) {
+                throw new InvalidArgumentException(USAGE + ". A tag is written as #<tag>");
+            }
+            return Query.tag(input.substring(from + 1, to));
+        }
+
+        int colon = input.indexOf(':', from);
+        if (colon < 0 || colon >= to) {
+            return Query.title(input.substring(from, to));
+        }
+        String field = input.substring(from, colon).toLowerCase();
+        int valueStart = colon + 1;
+        switch (field) {
+        case "type":
+            return Query.type(parseType(valueStart, to));
+        case "is":
+            return Query.done(parseStatus(valueStart, to));
+        case "due":
+        case "start":
+        case "end":
+            return parseRange(field, valueStart, to);
+        default:
+            return Query.title(input.substring(from, to)); // a title that happens to contain a colon
+        }
+    }
+
+    private Class<? extends Task> parseType(int from, int to) throws InvalidArgumentException {
+        String type = input.substring(from, to).toLowerCase();
+        switch (type) {
+        case "todo":
+            return Todo.class;
+        case "deadline":
+            return Deadline.class;
+        case "event":
+            return Event.class;
+        default:
+            throw new InvalidArgumentException(USAGE + ". Type is written as type:todo, type:deadline or type:event");
+        }
+    }
+
+    private boolean parseStatus(int from, int to) throws InvalidArgumentException {
+        String status = input.substring(from, to).toLowerCase();
+        switch (status) {
+        case "done":
+            return true;
+        case "undone":
+            return false;
+        default:
+            throw new InvalidArgumentException(USAGE + ". Status is written as is:done or is:undone");
+        }
+    }
+
+    /**
+     * Parses a range of whole days after {@code due:}, {@code start:} or {@code end:}.
+     */
+    private Query parseRange(String field, int from, int to) throws MomoException {
+        LocalDateTime rangeStart;
+        LocalDateTime rangeEnd;
+        int dots = input.indexOf("..", from);
+        if (dots < 0 || dots + 2 > to) {
+            LocalDate day = parseDate(from, to);
+            rangeStart = day.atStartOfDay();
+            rangeEnd = day.atTime(LocalTime.MAX);
+        } else {
+            if (dots == from && dots + 2 == to) {
+                throw new InvalidArgumentException(USAGE + ". A range needs at least one date");
+            }
+            rangeStart = dots == from ? null : parseDate(from, dots).atStartOfDay();
+            rangeEnd = dots + 2 == to ? null : parseDate(dots + 2, to).atTime(LocalTime.MAX);
+            if (rangeStart != null && rangeEnd != null && rangeEnd.isBefore(rangeStart)) {
+                throw new InvalidArgumentException(USAGE + ". The end must not be before the start");
+            }
+        }
+
+        switch (field) {
+        case "due":
+            return Query.due(rangeStart, rangeEnd);
+        case "start":
+            return Query.starts(rangeStart, rangeEnd);
+        default:
+            return Query.ends(rangeStart, rangeEnd);
+        }
+    }
+
+    private LocalDate parseDate(int from, int to) throws InvalidDateTimeException {
+        LocalDate date = scanner.parseDate(from, to);
+        if (date == null) {
+            throw new InvalidDateTimeException();
+        }
+        return date;
+    }
+
+    private boolean isKeyword(String keyword) {
+        return kind == WORD && tokenEnd - tokenStart == keyword.length()
+                && input.regionMatches(true, tokenStart, keyword, 0, keyword.length());
+    }
+
+    /**
+     * Reads the next token: a parenthesis, a phrase in double quotes, or a word running
+     * up to whitespace or a parenthesis.
+     */
+    private void next() throws InvalidArgumentException {
+        while (position < end && input.charAt(position) <= ' ') {
+            position++;
+        }
+        if (position == end) {
+            kind = END;
+            return;
+        }
+
+        char c = input.charAt(position);
+        if (c == '(' || c == ')') {
+            kind = c == '(' ? OPEN : CLOSE;
+            tokenStart = position;
+            tokenEnd = ++position;
+        } else if (c == '"') {
+            int closing = input.indexOf('"', position + 1);
+            if (closing < 0 || closing >= end || closing == position + 1) {
+                throw new InvalidArgumentException(USAGE + ". A phrase is written as \"<words>\"");
+            }
+            kind = PHRASE;
+            tokenStart = position + 1;
+            tokenEnd = closing;
+            position = closing + 1;
+        } else {
+            kind = WORD;
+            tokenStart = position;
+            while (position < end && input.charAt(position) > ' '
+                    && input.charAt(position) != '(' && input.charAt(position) != ')') {
+                position++;
+            }
+            tokenEnd = position;
+        }
+    }
+}
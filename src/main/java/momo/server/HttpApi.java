@@ -0,0 +1,297 @@
+package momo.server;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import momo.commands.Command;
+import momo.commands.DeadlineCommand;
+import momo.commands.DeleteCommand;
+import momo.commands.EventCommand;
+import momo.commands.FilterCommand;
+import momo.commands.FindCommand;
+import momo.commands.ListCommand;
+import momo.commands.MarkCommand;
+import momo.commands.TaskReference;
+import momo.commands.TodoCommand;
+import momo.commands.UnmarkCommand;
+import momo.exceptions.MomoException;
+import momo.exceptions.StorageException;
+import momo.parser.Parser;
+import momo.tasks.ConcurrentTaskManager;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+
+/**
+ * Local HTTP API that answers with JSON, for dashboards and other tools.
+ * <p>
+ * Requests are turned into the usual {@link Command}s and run against a shared
+ * task manager; the tasks they report are sent back as JSON (see {@link TaskJson}).
+ * </p>
+ * <ul>
+ *   <li>{@code GET /tasks} lists every task; {@code ?q=<keyword>}, {@code ?tag=<tag>} or
+ *       {@code ?filter=<query>} (see {@link FilterCommand}) searches instead.</li>
+ *   <li>{@code POST /tasks} adds the task described by a {@code todo}, {@code deadline} or {@code event}
+ *       command in the request body. For an {@code event ... /check}, the added task also has a
+ *       {@code "conflicts"} array listing the existing events that clash with it.</li>
+ *   <li>{@code POST /tasks/<id>/mark} and {@code POST /tasks/<id>/unmark} change the status of a task.</li>
+ *   <li>{@code DELETE /tasks/<id>} deletes a task.</li>
+ * </ul>
+ * <p>
+ * Responses to {@code GET} carry an ETag that changes whenever any task changes, so a
+ * client sending it back in {@code If-None-Match} gets {@code 304 Not Modified} while
+ * the list is unchanged. Lists are written straight from the current task snapshot
+ * without being built up in memory first. Failed requests are answered with
+ * {@code {"error":"..."}}, with status 500 if the tasks could not be read or written
+ * and 400 if the request itself was at fault.
+ * </p>
+ */
+public class HttpApi implements Closeable {
+    /** Port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 2104;
+
+    private static final String TASKS_PATH = "/tasks";
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final TaskManager taskManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    /** Distinguishes the ETags of this run from those of earlier runs, whose versions restarted at 0. */
+    private final String etagPrefix = Long.toHexString(System.nanoTime());
+
+    /**
+     * Starts the API on a loopback port.
+     *
+     * @param taskManager Task manager shared by every request; it should be safe for concurrent use.
+     * @param port Port to listen on, or {@code 0} for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public HttpApi(TaskManager taskManager, int port) throws IOException {
+        this.taskManager = taskManager;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = MomoServer.newSessionExecutor();
+        this.server.setExecutor(executor);
+        this.server.createContext(TASKS_PATH, this::handle);
+        this.server.start();
+    }
+
+    /**
+     * Returns the port the API is listening on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().substring(TASKS_PATH.length()).split("/");
+            // path is [""] for /tasks, ["", "<id>"] for /tasks/<id>, ["", "<id>", "<action>"] below that
+
+            if (path.length <= 1) {
+                if (method.equals("GET")) {
+                    listTasks(exchange);
+                } else if (method.equals("POST")) {
+                    addTask(exchange);
+                } else {
+                    sendError(exchange, 405, "Use GET or POST on " + TASKS_PATH);
+                }
+                return;
+            }
+
+            long id = parseId(path[1]);
+            if (id <= 0 || path.length > 3 || taskManager.getTaskById(id) == null) {
+                sendError(exchange, 404, "No task at " + exchange.getRequestURI().getPath());
+                return;
+            }
+
+            String action = path.length == 3 ? path[2] : "";
+            if (method.equals("DELETE") && action.isEmpty()) {
+                runForTask(exchange, new DeleteCommand(TaskReference.ofId(id)), 200);
+            } else if (method.equals("POST") && action.equals("mark")) {
+                runForTask(exchange, new MarkCommand(TaskReference.ofId(id)), 200);
+            } else if (method.equals("POST") && action.equals("unmark")) {
+                runForTask(exchange, new UnmarkCommand(TaskReference.ofId(id)), 200);
+            } else {
+                sendError(exchange, 405, "Use DELETE on a task, or POST to its /mark or /unmark");
+            }
+        }
+    }
+
+    private void listTasks(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        Command command = new ListCommand();
+        if (query != null && query.startsWith("q=")) {
+            command = new FindCommand(decode(query.substring(2)), false);
+        } else if (query != null && query.startsWith("tag=")) {
+            command = new FindCommand(decode(query.substring(4)), true);
+        } else if (query != null && query.startsWith("filter=")) {
+            try {
+                command = new FilterCommand(new Parser().parseQuery(decode(query.substring(7))));
+            } catch (MomoException err) {
+                sendError(exchange, 400, err.getMessage());
+                return;
+            }
+        }
+
+        // Read before the tasks are: a change in between gives a newer list under an older tag,
+        // which costs a client one more download but never leaves it with a stale list
+        String etag = "\"" + etagPrefix + "-" + taskManager.getVersion() + "\"";
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        JsonUi ui = new JsonUi();
+        try {
+            command.execute(taskManager, ui);
+        } catch (MomoException err) {
+            sendError(exchange, statusOf(err), err.getMessage());
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(200, 0); // unknown length: the list is streamed in chunks
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 16)) {
+            out.append('[');
+            boolean isFirst = true;
+            for (Task task : ui.getTasks()) {
+                if (!isFirst) {
+                    out.append(',');
+                }
+                TaskJson.write(out, task);
+                isFirst = false;
+            }
+            out.append(']');
+        }
+    }
+
+    private void addTask(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+
+        Command command;
+        try {
+            command = new Parser().parse(body);
+        } catch (MomoException err) {
+            sendError(exchange, 400, err.getMessage());
+            return;
+        }
+        if (!(command instanceof TodoCommand || command instanceof DeadlineCommand
+                || command instanceof EventCommand)) {
+            sendError(exchange, 400, "The body should be a todo, deadline or event command");
+            return;
+        }
+        runForTask(exchange, command, 201);
+    }
+
+    private void runForTask(HttpExchange exchange, Command command, int status) throws IOException {
+        JsonUi ui = new JsonUi();
+        try {
+            command.execute(taskManager, ui);
+        } catch (MomoException err) {
+            sendError(exchange, statusOf(err), err.getMessage());
+            return;
+        }
+
+        StringBuilder json = new StringBuilder();
+        TaskJson.write(json, ui.getTask());
+        if (ui.getConflicts() != null) {
+            json.setLength(json.length() - 1); // reopen the task object to add the clashing events
+            json.append(",\"conflicts\":[");
+            for (int i = 0; i < ui.getConflicts().size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                TaskJson.write(json, ui.getConflicts().get(i));
+            }
+            json.append("]}");
+        }
+        send(exchange, status, json.toString());
+    }
+
+    /**
+     * Returns the status for a failed command: a storage failure is the server's fault,
+     * anything else the request's.
+     */
+    private static int statusOf(MomoException err) {
+        return err instanceof StorageException ? 500 : 400;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        TaskJson.quote(json, message);
+        json.append('}');
+        send(exchange, status, json.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static long parseId(String token) {
+        try {
+            return Long.parseLong(token);
+        } catch (NumberFormatException err) {
+            return -1;
+        }
+    }
+
+    private static String decode(String s) {
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stops the API, letting requests in progress finish, and waits for pending writes.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+        }
+        taskManager.flush();
+    }
+
+    /**
+     * HTTP API entry point.
+     * <p>
+     * Usage: {@code java -cp momo.jar momo.server.HttpApi [port]}
+     * </p>
+     *
+     * @param args Optional port number.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        HttpApi api = new HttpApi(new ConcurrentTaskManager(), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(api::close));
+        System.out.println("Momo API is listening on http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + api.getPort() + TASKS_PATH);
+    }
+}
@@ -0,0 +1,92 @@
+package momo.server;
+
+import java.util.ArrayList;
+
+import momo.tasks.Task;
+import momo.tasks.TaskCursor;
+import momo.tasks.TaskManager;
+import momo.ui.Ui;
+
+/**
+ * Ui that keeps the tasks a command reports instead of printing messages about them,
+ * so {@link HttpApi} can send them back as JSON.
+ */
+class JsonUi extends Ui {
+    private Task task;
+    private Iterable<Task> tasks;
+    private ArrayList<Task> conflicts;
+
+    Task getTask() {
+        return task;
+    }
+
+    Iterable<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the existing events that clash with an added event.
+     *
+     * @return The clashing events, or {@code null} if none were reported.
+     */
+    ArrayList<Task> getConflicts() {
+        return conflicts;
+    }
+
+    @Override
+    public void displayAddedTask(Task task, int size) {
+        this.task = task;
+    }
+
+    /**
+     * Keeps the current snapshot of the list, so a large list can be streamed
+     * without being copied.
+     *
+     * @param taskManager Task manager containing the tasks to list.
+     */
+    @Override
+    public void showTaskList(TaskManager taskManager) {
+        this.tasks = taskManager.snapshot();
+    }
+
+    /**
+     * Keeps one page of tasks read from the cursor.
+     *
+     * @param cursor Cursor positioned at the first task of the page.
+     * @param count Largest number of tasks on the page.
+     */
+    @Override
+    public void showTaskList(TaskCursor cursor, int count) {
+        this.tasks = cursor.next(count);
+    }
+
+    @Override
+    public void showMarkTask(Task task) {
+        this.task = task;
+    }
+
+    @Override
+    public void showUnmarkTask(Task task) {
+        this.task = task;
+    }
+
+    @Override
+    public void showDeleteTask(Task task, int size) {
+        this.task = task;
+    }
+
+    @Override
+    public void showTasksChanged(String message, ArrayList<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public void showEventConflicts(ArrayList<Task> conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    @Override
+    public void showMatchingTaskList(ArrayList<Task> found) {
+        this.tasks = found;
+    }
+}
@@ -0,0 +1,141 @@
+package momo.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import momo.tasks.ConcurrentTaskManager;
+import momo.tasks.TaskManager;
+
+/**
+ * Headless server that lets many local clients drive one shared task list.
+ * <p>
+ * Clients connect over TCP on the loopback interface and send commands in the usual
+ * syntax, one per line; see {@link Session} for the protocol. Every connection is
+ * served by its own thread. On Java 21 and later these are virtual threads, so
+ * thousands of mostly idle sessions cost little more than their sockets; on older
+ * runtimes a cached pool of platform threads is used instead.
+ * </p>
+ */
+public class MomoServer implements Closeable {
+    /** Port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 2103;
+
+    private final TaskManager taskManager;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final Thread acceptor;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Starts a server on a loopback port.
+     *
+     * @param taskManager Task manager shared by every session; it should be safe for concurrent use.
+     * @param port Port to listen on, or {@code 0} for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public MomoServer(TaskManager taskManager, int port) throws IOException {
+        this.taskManager = taskManager;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.sessions = newSessionExecutor();
+        this.acceptor = new Thread(this::acceptLoop, "momo-server-acceptor");
+        this.acceptor.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                openSockets.add(socket);
+                sessions.execute(() -> {
+                    try {
+                        new Session(socket, taskManager).run();
+                    } finally {
+                        openSockets.remove(socket);
+                    }
+                });
+            } catch (IOException err) {
+                // the server socket was closed, or one connection failed before it started
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections, ends the open sessions and waits for pending writes.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close(); // unblocks a session waiting for input
+        }
+        sessions.shutdown();
+        try {
+            sessions.awaitTermination(5, TimeUnit.SECONDS);
+            acceptor.join();
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+        }
+        taskManager.flush();
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread when the
+     * runtime supports them, and on a cached pool of daemon threads otherwise.
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException err) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "momo-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Server entry point.
+     * <p>
+     * Usage: {@code java -cp momo.jar momo.server.MomoServer [port]}
+     * </p>
+     *
+     * @param args Optional port number.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        MomoServer server = new MomoServer(new ConcurrentTaskManager(), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException err) {
+                // exiting anyway
+            }
+        }));
+        System.out.println("Momo is listening on " + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getPort());
+    }
+}
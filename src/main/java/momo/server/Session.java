@@ -0,0 +1,85 @@
+package momo.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import momo.commands.Command;
+import momo.exceptions.MomoException;
+import momo.exceptions.StorageException;
+import momo.parser.Parser;
+import momo.tasks.TaskManager;
+import momo.ui.Gui;
+
+/**
+ * Serves one client connection of a {@link MomoServer}.
+ * <p>
+ * Each line received is parsed and executed like input typed into the CLI, and the
+ * output is collected in the session's own {@link Gui} buffer and sent back followed
+ * by an empty line, which marks the end of the response. The session ends when the
+ * client sends {@code bye} or disconnects.
+ * </p>
+ */
+class Session implements Runnable {
+    private final Socket socket;
+    private final TaskManager taskManager;
+    private final Parser parser = new Parser();
+    private final Gui gui = new Gui();
+
+    Session(Socket socket, TaskManager taskManager) {
+        this.socket = socket;
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public void run() {
+        try (Socket s = socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            gui.clear();
+            gui.showWelcome();
+            respond(out);
+
+            boolean isExit = false;
+            String line;
+            while (!isExit && (line = in.readLine()) != null) {
+                isExit = handle(line);
+                respond(out);
+            }
+        } catch (IOException err) {
+            // the client went away; nothing is left to clean up
+        }
+    }
+
+    /**
+     * Executes one line of input, leaving the output in the buffer.
+     *
+     * @return {@code true} if the session should end.
+     */
+    private boolean handle(String line) {
+        gui.clear();
+        try {
+            Command command = parser.parse(line);
+            return command.execute(taskManager, gui);
+        } catch (StorageException err) {
+            gui.showErrMsg(err.getMessage());
+            gui.showFatalErrMsg();
+            return true;
+        } catch (MomoException err) {
+            gui.showErrMsg(err.getMessage());
+            return false;
+        }
+    }
+
+    private void respond(BufferedWriter out) throws IOException {
+        out.write(gui.getOutput());
+        out.write('\n');
+        out.flush();
+    }
+}
@@ -0,0 +1,102 @@
+package momo.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import momo.tasks.Deadline;
+import momo.tasks.Event;
+import momo.tasks.Task;
+
+/**
+ * Writes tasks as JSON objects.
+ * <p>
+ * A task is written as {@code {"id":1,"type":"deadline","title":"...","done":false,"tags":[...],"by":"..."}},
+ * where events have {@code "from"} and {@code "to"} instead of {@code "by"}, and todos have neither.
+ * Date/times use the ISO-8601 local format.
+ * </p>
+ */
+final class TaskJson {
+    private TaskJson() {
+    }
+
+    /**
+     * Appends one task as a JSON object.
+     *
+     * @param out Destination.
+     * @param task The task to write.
+     * @throws IOException If the destination cannot be written.
+     */
+    static void write(Appendable out, Task task) throws IOException {
+        out.append("{\"id\":").append(String.valueOf(task.getId()));
+        out.append(",\"type\":");
+        if (task instanceof Deadline) {
+            out.append("\"deadline\"");
+        } else if (task instanceof Event) {
+            out.append("\"event\"");
+        } else {
+            out.append("\"todo\"");
+        }
+        out.append(",\"title\":");
+        quote(out, task.getTitle());
+        out.append(",\"done\":").append(String.valueOf(task.isComplete()));
+
+        out.append(",\"tags\":[");
+        List<String> tags = new ArrayList<>(task.getTags());
+        tags.sort(null);
+        for (int i = 0; i < tags.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            quote(out, tags.get(i));
+        }
+        out.append(']');
+
+        if (task instanceof Deadline) {
+            out.append(",\"by\":\"").append(((Deadline) task).getDueDate().toString()).append('"');
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            out.append(",\"from\":\"").append(event.getStartDate().toString()).append('"');
+            out.append(",\"to\":\"").append(event.getEndDate().toString()).append('"');
+        }
+        out.append('}');
+    }
+
+    /**
+     * Appends a string as a JSON string literal.
+     *
+     * @param out Destination.
+     * @param s The string to quote.
+     * @throws IOException If the destination cannot be written.
+     */
+    static void quote(Appendable out, String s) throws IOException {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+}
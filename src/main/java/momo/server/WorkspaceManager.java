@@ -0,0 +1,302 @@
+package momo.server;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import momo.exceptions.InvalidArgumentException;
+import momo.storage.JournalStorage;
+import momo.storage.StorageService;
+import momo.tasks.ConcurrentTaskManager;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+
+/**
+ * Hosts the task lists of many users or workspaces in one process.
+ * <p>
+ * Each workspace key has its own {@link TaskManager} and {@link StorageService}. A
+ * workspace is loaded the first time it is acquired, and workspaces nobody holds are
+ * saved and dropped from memory, least recently used first, whenever the estimated
+ * memory of the loaded workspaces exceeds the budget. A workspace that is being used
+ * is never dropped, so the budget can be exceeded while many are in use at once.
+ * </p>
+ * <p>
+ * Callers acquire a workspace as a {@link Lease} and close it when done:
+ * </p>
+ * <pre>
+ * try (WorkspaceManager.Lease lease = workspaces.acquire("alice")) {
+ *     lease.getTaskManager().addTask(task);
+ * }
+ * </pre>
+ */
+public class WorkspaceManager implements Closeable {
+    /** Rough memory of a loaded workspace with no tasks: managers, indexes and storage. */
+    static final long WORKSPACE_OVERHEAD_BYTES = 4096;
+    /** Rough memory of one task and its index entries, besides its title and tags. */
+    static final long TASK_OVERHEAD_BYTES = 320;
+    /** Rough memory of one tag of a task, including its index entry. */
+    static final long TAG_BYTES = 96;
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Function<String, StorageService> storageFactory;
+    private final long memoryBudgetBytes;
+    /** Workspaces in access order, least recently used first. */
+    private final LinkedHashMap<String, Workspace> workspaces = new LinkedHashMap<>(16, 0.75f, true);
+    /** Evicted workspaces still being saved; they must not be loaded again until that is done. */
+    private final Map<String, Workspace> unloading = new HashMap<>();
+    private long estimatedBytes;
+
+    /**
+     * A workspace and the number of leases currently held on it.
+     */
+    private static class Workspace {
+        private final String key;
+        private volatile TaskManager taskManager;
+        private int leases;
+        private long bytesPerTask;
+        private long estimatedBytes;
+
+        Workspace(String key) {
+            this.key = key;
+        }
+
+        long estimateBytes() {
+            return WORKSPACE_OVERHEAD_BYTES + taskManager.getTaskListSize() * bytesPerTask;
+        }
+    }
+
+    /**
+     * A workspace acquired by a caller, which keeps it loaded until the lease is closed.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Workspace workspace;
+        private boolean isClosed;
+
+        private Lease(Workspace workspace) {
+            this.workspace = workspace;
+        }
+
+        /**
+         * Returns the task manager of the workspace.
+         *
+         * @return The task manager, safe for concurrent use.
+         */
+        public TaskManager getTaskManager() {
+            return workspace.taskManager;
+        }
+
+        /**
+         * Releases the workspace, which may then be saved and dropped from memory.
+         */
+        @Override
+        public void close() {
+            if (!isClosed) {
+                isClosed = true;
+                release(workspace);
+            }
+        }
+    }
+
+    /**
+     * Constructs a workspace manager that keeps each workspace in a journal under a directory.
+     *
+     * @param directory Directory holding the journal of every workspace.
+     * @param memoryBudgetBytes Estimated memory the loaded workspaces may take up.
+     */
+    public WorkspaceManager(Path directory, long memoryBudgetBytes) {
+        this(key -> new JournalStorage(directory.resolve(key + ".journal").toString()), memoryBudgetBytes);
+    }
+
+    /**
+     * Constructs a workspace manager with a provided storage for each workspace.
+     *
+     * @param storageFactory Creates the storage of a workspace from its key.
+     * @param memoryBudgetBytes Estimated memory the loaded workspaces may take up.
+     */
+    public WorkspaceManager(Function<String, StorageService> storageFactory, long memoryBudgetBytes) {
+        assert memoryBudgetBytes > 0 : "Memory budget must be positive";
+        this.storageFactory = storageFactory;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Acquires a workspace, loading it if it is not in memory.
+     * <p>
+     * Only the workspace being loaded waits for its storage; other workspaces can be
+     * acquired meanwhile.
+     * </p>
+     *
+     * @param key Workspace key of up to 64 letters, digits, {@code -} or {@code _}.
+     * @return A lease on the workspace, to be closed when done.
+     * @throws InvalidArgumentException If the key is not valid.
+     */
+    public Lease acquire(String key) throws InvalidArgumentException {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new InvalidArgumentException("a workspace key of up to 64 letters, digits, '-' or '_'");
+        }
+
+        Workspace workspace;
+        synchronized (this) {
+            while (unloading.containsKey(key)) {
+                awaitUnloaded();
+            }
+            workspace = workspaces.computeIfAbsent(key, Workspace::new);
+            workspace.leases++;
+        }
+
+        try {
+            load(workspace);
+            unloadAll(evictIdle());
+        } catch (RuntimeException err) {
+            synchronized (this) {
+                workspace.leases--;
+                if (workspace.leases == 0 && workspace.taskManager == null) {
+                    workspaces.remove(key);
+                }
+            }
+            throw err;
+        }
+        return new Lease(workspace);
+    }
+
+    private void load(Workspace workspace) {
+        synchronized (workspace) {
+            if (workspace.taskManager != null) {
+                return;
+            }
+
+            TaskManager taskManager = new ConcurrentTaskManager(storageFactory.apply(workspace.key));
+            long bytes = 0;
+            int count = 0;
+            for (Task task : taskManager.snapshot()) {
+                bytes += TASK_OVERHEAD_BYTES + 2L * task.getTitle().length() + TAG_BYTES * task.getTags().size();
+                count++;
+            }
+            workspace.bytesPerTask = count == 0 ? TASK_OVERHEAD_BYTES * 2 : bytes / count;
+            workspace.taskManager = taskManager;
+        }
+
+        synchronized (this) {
+            if (workspace.estimatedBytes == 0) {
+                workspace.estimatedBytes = workspace.estimateBytes();
+                estimatedBytes += workspace.estimatedBytes;
+            }
+        }
+    }
+
+    private void release(Workspace workspace) {
+        synchronized (this) {
+            workspace.leases--;
+            if (workspaces.get(workspace.key) != workspace) {
+                return; // already unloaded by close()
+            }
+            long updated = workspace.estimateBytes();
+            estimatedBytes += updated - workspace.estimatedBytes;
+            workspace.estimatedBytes = updated;
+        }
+        unloadAll(evictIdle());
+    }
+
+    /**
+     * Removes idle workspaces, least recently used first, until the loaded ones fit the budget.
+     *
+     * @return The removed workspaces, to be saved outside the lock.
+     */
+    private synchronized List<Workspace> evictIdle() {
+        List<Workspace> evicted = new ArrayList<>();
+        Iterator<Workspace> eldestFirst = workspaces.values().iterator();
+        while (estimatedBytes > memoryBudgetBytes && eldestFirst.hasNext()) {
+            Workspace candidate = eldestFirst.next();
+            if (candidate.leases == 0 && candidate.taskManager != null) {
+                eldestFirst.remove();
+                unloading.put(candidate.key, candidate);
+                estimatedBytes -= candidate.estimatedBytes;
+                evicted.add(candidate);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Writes evicted workspaces out, so their storage holds everything and releases its files.
+     */
+    private void unloadAll(List<Workspace> evicted) {
+        for (Workspace workspace : evicted) {
+            try {
+                unload(workspace);
+            } finally {
+                synchronized (this) {
+                    unloading.remove(workspace.key);
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private static void unload(Workspace workspace) {
+        synchronized (workspace) {
+            TaskManager taskManager = workspace.taskManager;
+            if (taskManager.getVersion() > 0) {
+                taskManager.save();
+            }
+            taskManager.flush();
+        }
+    }
+
+    private void awaitUnloaded() {
+        try {
+            wait();
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while a workspace was being saved", err);
+        }
+    }
+
+    /**
+     * Returns the number of workspaces currently in memory.
+     *
+     * @return Number of loaded workspaces.
+     */
+    public synchronized int getLoadedCount() {
+        return workspaces.size();
+    }
+
+    /**
+     * Returns the estimated memory taken up by the loaded workspaces.
+     *
+     * @return Estimated bytes, as last updated when a lease was closed.
+     */
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Saves every loaded workspace and drops them from memory.
+     * <p>
+     * Workspaces still leased are saved as they are; their leases should not be used afterwards.
+     * </p>
+     */
+    @Override
+    public void close() {
+        List<Workspace> all = new ArrayList<>();
+        synchronized (this) {
+            for (Workspace workspace : workspaces.values()) {
+                if (workspace.taskManager != null) {
+                    unloading.put(workspace.key, workspace);
+                    all.add(workspace);
+                }
+            }
+            workspaces.clear();
+            estimatedBytes = 0;
+        }
+        unloadAll(all);
+    }
+}
@@ -0,0 +1,162 @@
+package momo.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.UnaryOperator;
+
+/**
+ * Replaces a file so that a crash at any point leaves either the old or the new contents on disk.
+ * <p>
+ * The new contents are written to a sibling temporary file and forced to disk. The current
+ * file is then kept as a backup generation ({@code <file>.bak}) and the temporary file is
+ * atomically renamed over the target.
+ * </p>
+ */
+final class AtomicFileWriter {
+    static final String TEMP_SUFFIX = ".tmp";
+    static final String BACKUP_SUFFIX = ".bak";
+
+    /**
+     * Writes the contents of a file through a {@link BufferedWriter}.
+     */
+    @FunctionalInterface
+    interface Content {
+        void writeTo(BufferedWriter writer) throws IOException;
+    }
+
+    /**
+     * Writes the contents of a file through a {@link DataOutputStream}.
+     */
+    @FunctionalInterface
+    interface BinaryContent {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Atomically replaces the target file with the given contents.
+     *
+     * @param target File to replace.
+     * @param content Writes the new contents.
+     * @throws IOException If the contents cannot be written; the target is left untouched.
+     */
+    static void write(Path target, Content content) throws IOException {
+        write(target, content, UnaryOperator.identity());
+    }
+
+    /**
+     * Atomically replaces the target file, passing the temporary file's stream through a wrapper first.
+     * <p>
+     * The wrapper exists so that tests can inject faults into the write.
+     * </p>
+     *
+     * @param target File to replace.
+     * @param content Writes the new contents.
+     * @param wrapper Wraps the stream to the temporary file.
+     * @throws IOException If the contents cannot be written; the target is left untouched.
+     */
+    static void write(Path target, Content content, UnaryOperator<OutputStream> wrapper) throws IOException {
+        replace(target, wrapper, out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()));
+            content.writeTo(writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Atomically replaces the target file with the given binary contents.
+     *
+     * @param target File to replace.
+     * @param content Writes the new contents.
+     * @throws IOException If the contents cannot be written; the target is left untouched.
+     */
+    static void writeBinary(Path target, BinaryContent content) throws IOException {
+        replace(target, UnaryOperator.identity(), out -> {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            content.writeTo(data);
+            data.flush();
+        });
+    }
+
+    private interface StreamContent {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private static void replace(Path target, UnaryOperator<OutputStream> wrapper, StreamContent content)
+            throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            content.writeTo(wrapper.apply(Channels.newOutputStream(channel)));
+            channel.force(true);
+        } catch (IOException | RuntimeException err) {
+            Files.deleteIfExists(temp);
+            throw err;
+        }
+
+        if (Files.exists(target)) {
+            keepBackup(target);
+        }
+        moveIntoPlace(temp, target);
+        syncDirectory(parent);
+    }
+
+    /**
+     * Returns the backup generation kept for the given file.
+     *
+     * @param target File being replaced.
+     * @return Path of its backup.
+     */
+    static Path backupOf(Path target) {
+        return target.resolveSibling(target.getFileName() + BACKUP_SUFFIX);
+    }
+
+    private static void keepBackup(Path target) throws IOException {
+        Path backup = backupOf(target);
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, target);
+        } catch (IOException | UnsupportedOperationException err) {
+            // File system without hard links, fall back to a copy
+            Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException err) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException err) {
+            // Not every platform allows syncing a directory; the rename itself is still atomic
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package momo.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+
+/**
+ * Provides file-based persistence for task data in a compact binary format.
+ * <p>
+ * This is an alternative to the line-based {@link Storage}. Records are length-prefixed,
+ * dates are stored as epoch values and tags as ids into a dictionary, so loading and
+ * saving involve no splitting, escaping or date parsing. See {@link BinaryTaskCodec}
+ * for the layout. {@link StorageConverter} converts between the two formats.
+ * </p>
+ */
+public class BinaryStorage implements StorageService {
+    private static final String STORAGE_PATH = "./data/momoTasks.bin";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final long MAP_THRESHOLD = 1L << 20;
+
+    private final Path path;
+
+    /**
+     * Constructs a binary storage handler using the default storage path.
+     */
+    public BinaryStorage() {
+        this(STORAGE_PATH);
+    }
+
+    /**
+     * Constructs a binary storage handler using the given storage path.
+     *
+     * @param filePath Path of the storage file.
+     */
+    public BinaryStorage(String filePath) {
+        this.path = Path.of(filePath);
+    }
+
+    /**
+     * Loads tasks from the storage file.
+     * <p>
+     * A missing file is treated as an empty task list. If the file cannot be decoded,
+     * the previous generation kept by {@link #saveTasks(ArrayList)} is loaded instead,
+     * and a file that cannot be recovered is set aside as {@code <file>.corrupt}.
+     * </p>
+     *
+     * @return {@code ArrayList} of tasks loaded from storage.
+     * @throws StorageException If a corrupted storage file cannot be set aside.
+     */
+    @Override
+    public ArrayList<Task> loadTasks() {
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return readTasks(path);
+        } catch (IOException | StorageException err) {
+            // Fall back to the previous generation below
+        }
+
+        Path backup = AtomicFileWriter.backupOf(path);
+        if (Files.exists(backup)) {
+            try {
+                ArrayList<Task> recovered = readTasks(backup);
+                setAsideCorruptedFile();
+                saveTasks(recovered); // target is gone, so the good backup is left as is
+                return recovered;
+            } catch (IOException | StorageException err) {
+                // Both generations are unreadable
+            }
+        }
+
+        setAsideCorruptedFile();
+        return new ArrayList<>();
+    }
+
+    /**
+     * Saves the given list of tasks to the storage file.
+     * <p>
+     * The file is replaced atomically and the previous contents are kept as {@code <file>.bak}.
+     * </p>
+     *
+     * @param tasks The tasks to be persisted.
+     * @throws StorageException If the file cannot be written.
+     */
+    @Override
+    public void saveTasks(ArrayList<Task> tasks) {
+        try {
+            AtomicFileWriter.writeBinary(path, out -> BinaryTaskCodec.write(out, tasks));
+        } catch (IOException err) {
+            throw new StorageException("Failed to save binary storage file");
+        }
+    }
+
+    /**
+     * Reads every task in the file. Large files are decoded straight from a mapping of the
+     * file rather than being copied onto the heap first.
+     * <p>
+     * Every task is still decoded before this returns, so load time grows with the number
+     * of tasks; only the copy of the raw file is avoided.
+     * </p>
+     */
+    private static ArrayList<Task> readTasks(Path file) throws IOException {
+        if (Files.size(file) >= MAP_THRESHOLD) {
+            try (MappedTaskFile mapped = MappedTaskFile.open(file)) {
+                return mapped.readAll();
+            }
+        }
+        return BinaryTaskCodec.read(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    private void setAsideCorruptedFile() {
+        try {
+            Files.move(path, path.resolveSibling(path.getFileName() + CORRUPT_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException err) {
+            throw new StorageException("Failed to set aside corrupted storage file.");
+        }
+    }
+}
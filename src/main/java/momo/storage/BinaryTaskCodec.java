@@ -0,0 +1,273 @@
+package momo.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Deadline;
+import momo.tasks.Event;
+import momo.tasks.Task;
+import momo.tasks.Todo;
+
+/**
+ * Encodes and decodes the binary task file format.
+ * <p>
+ * Layout (all integers big-endian):
+ * <ul>
+ * <li>header: {@code int magic}, {@code short version}</li>
+ * <li>tag dictionary: {@code int count}, then {@code count} strings</li>
+ * <li>tasks: {@code int count}, then {@code count} records of {@code int length} followed by
+ *     {@code length} bytes of payload</li>
+ * <li>record index (since version 2): {@code count} {@code long} file offsets, one per record,
+ *     followed by a {@code long} holding the file offset of the index itself</li>
+ * </ul>
+ * A payload is {@code byte type} ({@code T}, {@code D} or {@code E}), {@code byte flags}
+ * (bit 0 set when complete), {@code long id} (since version 3, {@code 0} if unassigned), the title, {@code short tagCount} and that many {@code int}
+ * tag ids, then one date/time for a deadline or two for an event. Strings are an
+ * {@code int} byte length followed by UTF-8 bytes, and a date/time is a {@code long}
+ * epoch second plus an {@code int} nanosecond, both in UTC.
+ * </p>
+ * <p>
+ * The trailing record index lets {@link MappedTaskFile} find any record without reading
+ * the ones before it. Version 1 files have no index and are still read.
+ * </p>
+ */
+final class BinaryTaskCodec {
+    static final int MAGIC = 0x4D4F4D4F; // "MOMO"
+    static final short VERSION = 3;
+    static final short VERSION_WITHOUT_INDEX = 1;
+    static final short VERSION_WITHOUT_IDS = 2;
+    static final int VERSION_OFFSET = Integer.BYTES;
+
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+    private static final byte FLAG_COMPLETE = 1;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Writes the given tasks in the binary format.
+     *
+     * @param out Stream to write to.
+     * @param tasks Tasks to encode.
+     * @throws IOException If the stream cannot be written.
+     */
+    static void write(DataOutputStream out, List<Task> tasks) throws IOException {
+        Map<String, Integer> tagIds = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            for (String tag : task.getTags()) {
+                tagIds.putIfAbsent(tag, tagIds.size());
+            }
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        header.writeInt(tagIds.size());
+        for (String tag : tagIds.keySet()) {
+            writeString(header, tag);
+        }
+        header.writeInt(tasks.size());
+        header.flush();
+        headerBytes.writeTo(out);
+
+        long position = headerBytes.size();
+        long[] offsets = new long[tasks.size()];
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        for (int i = 0; i < tasks.size(); i++) {
+            recordBytes.reset();
+            writeRecord(record, tasks.get(i), tagIds);
+            record.flush();
+            out.writeInt(recordBytes.size());
+            recordBytes.writeTo(out);
+            offsets[i] = position;
+            position += Integer.BYTES + recordBytes.size();
+        }
+
+        for (long offset : offsets) {
+            out.writeLong(offset);
+        }
+        out.writeLong(position);
+    }
+
+    /**
+     * Reads every task from a buffer positioned at the start of a binary task file.
+     * <p>
+     * Records are decoded in file order, so the record index is not needed and is skipped.
+     * </p>
+     *
+     * @param buffer Buffer holding the file.
+     * @return The decoded tasks, in file order.
+     * @throws StorageException If the buffer is not a valid binary task file.
+     */
+    static ArrayList<Task> read(ByteBuffer buffer) {
+        try {
+            short version = buffer.getShort(VERSION_OFFSET);
+            String[] tags = readHeader(buffer);
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / Integer.BYTES) {
+                throw new StorageException("Corrupted binary storage: bad task count " + count);
+            }
+
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int end = buffer.position() + length;
+                tasks.add(readRecord(buffer, tags, version));
+                if (buffer.position() != end) {
+                    throw new StorageException("Corrupted binary storage: bad length for record " + i);
+                }
+            }
+            return tasks;
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException err) {
+            throw new StorageException("Corrupted binary storage: " + err.getMessage());
+        }
+    }
+
+    /**
+     * Checks the magic number and version, and reads the tag dictionary.
+     *
+     * @param buffer Buffer positioned at the start of the file.
+     * @return Tags indexed by their id.
+     * @throws StorageException If the header is invalid or the version is unsupported.
+     */
+    static String[] readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES + Short.BYTES || buffer.getInt() != MAGIC) {
+            throw new StorageException("Not a Momo binary storage file");
+        }
+
+        short version = buffer.getShort();
+        if (version < VERSION_WITHOUT_INDEX || version > VERSION) {
+            throw new StorageException("Unsupported binary storage version: " + version);
+        }
+
+        int tagCount = buffer.getInt();
+        if (tagCount < 0 || tagCount > buffer.remaining() / Integer.BYTES) {
+            throw new StorageException("Corrupted binary storage: bad tag count " + tagCount);
+        }
+        String[] tags = new String[tagCount];
+        for (int i = 0; i < tagCount; i++) {
+            tags[i] = readString(buffer);
+        }
+        return tags;
+    }
+
+    /**
+     * Decodes one record payload.
+     *
+     * @param buffer Buffer positioned at the start of the payload.
+     * @param tags Tag dictionary of the file.
+     * @param version Format version of the file.
+     * @return The decoded task.
+     * @throws StorageException If the payload is invalid.
+     */
+    static Task readRecord(ByteBuffer buffer, String[] tags, short version) {
+        byte type = buffer.get();
+        byte flags = buffer.get();
+        long id = version > VERSION_WITHOUT_IDS ? buffer.getLong() : 0;
+        String title = readString(buffer);
+
+        short tagCount = buffer.getShort();
+        if (tagCount < 0 || tagCount > buffer.remaining() / Integer.BYTES) {
+            throw new StorageException("Corrupted binary storage: bad tag count " + tagCount);
+        }
+        int[] tagIds = new int[tagCount];
+        for (int i = 0; i < tagCount; i++) {
+            tagIds[i] = buffer.getInt();
+        }
+
+        Task task;
+        switch (type) {
+        case TODO:
+            task = new Todo(title);
+            break;
+        case DEADLINE:
+            task = new Deadline(title, readDateTime(buffer));
+            break;
+        case EVENT:
+            task = new Event(title, readDateTime(buffer), readDateTime(buffer));
+            break;
+        default:
+            throw new StorageException("Corrupted binary storage: unknown task type " + type);
+        }
+
+        if ((flags & FLAG_COMPLETE) != 0) {
+            task.setComplete();
+        }
+        if (id < 0) {
+            throw new StorageException("Corrupted binary storage: negative task id " + id);
+        } else if (id > 0) {
+            task.setId(id);
+        }
+        for (int tagId : tagIds) {
+            if (tagId < 0 || tagId >= tags.length) {
+                throw new StorageException("Corrupted binary storage: unknown tag id " + tagId);
+            }
+            task.addTag(tags[tagId]);
+        }
+        return task;
+    }
+
+    private static void writeRecord(DataOutputStream out, Task task, Map<String, Integer> tagIds)
+            throws IOException {
+        byte type = task instanceof Deadline ? DEADLINE : task instanceof Event ? EVENT : TODO;
+        out.writeByte(type);
+        out.writeByte(task.isComplete() ? FLAG_COMPLETE : 0);
+        out.writeLong(task.getId());
+        writeString(out, task.getTitle());
+
+        out.writeShort(task.getTags().size());
+        for (String tag : task.getTags()) {
+            out.writeInt(tagIds.get(tag));
+        }
+
+        if (task instanceof Deadline) {
+            writeDateTime(out, ((Deadline) task).getDueDate());
+        } else if (task instanceof Event) {
+            writeDateTime(out, ((Event) task).getStartDate());
+            writeDateTime(out, ((Event) task).getEndDate());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new StorageException("Corrupted binary storage: bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,154 @@
+package momo.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+
+/**
+ * Parses the contents of a text task file in parallel.
+ * <p>
+ * The contents are split into chunks that end on a line break, and every chunk
+ * is parsed by {@link TaskLineParser} on a fork-join pool. The chunks are then
+ * joined back in file order, so each task keeps its position in the list.
+ * Small files are parsed as a single chunk on the calling thread.
+ * </p>
+ */
+final class ChunkedTaskLoader {
+    private static final int MIN_CHUNK_CHARS = 64 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ChunkedTaskLoader() {
+    }
+
+    /**
+     * A range of whole lines, parsed independently of the other chunks.
+     */
+    private static class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String content;
+        private final int start;
+        private final int end;
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private int lineCount;
+        private int failedLine = -1;
+        private String failure;
+
+        Chunk(String content, int start, int end) {
+            this.content = content;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            int lineStart = start;
+            while (lineStart < end) {
+                int lineEnd = content.indexOf('\n', lineStart);
+                if (lineEnd < 0 || lineEnd >= end) {
+                    lineEnd = end;
+                }
+
+                // After a bad line only the lines are counted, as the whole file is rejected anyway
+                String line = content.substring(lineStart, lineEnd).trim();
+                if (failure == null && !line.isEmpty()) {
+                    try {
+                        tasks.add(TaskLineParser.parse(line));
+                    } catch (StorageException err) {
+                        failedLine = lineCount;
+                        failure = err.getMessage();
+                    }
+                }
+                lineCount++;
+                lineStart = lineEnd + 1;
+            }
+        }
+    }
+
+    /**
+     * Parses every non-blank line of a text task file on the common fork-join pool.
+     *
+     * @param content Contents of the file.
+     * @return The parsed tasks, in file order.
+     * @throws StorageException If any line cannot be parsed. The message names the first
+     * bad line of every chunk that failed.
+     */
+    static ArrayList<Task> parse(String content) {
+        return parse(content, ForkJoinPool.commonPool(), MIN_CHUNK_CHARS);
+    }
+
+    /**
+     * Parses every non-blank line of a text task file on the given pool.
+     *
+     * @param content Contents of the file.
+     * @param pool Pool that parses the chunks.
+     * @param minChunkChars Smallest chunk worth handing to another thread, in characters.
+     * @return The parsed tasks, in file order.
+     * @throws StorageException If any line cannot be parsed.
+     */
+    static ArrayList<Task> parse(String content, ForkJoinPool pool, int minChunkChars) {
+        List<Chunk> chunks = split(content, pool.getParallelism() * CHUNKS_PER_THREAD, minChunkChars);
+        if (chunks.size() == 1) {
+            chunks.get(0).compute();
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            });
+        }
+        return join(chunks);
+    }
+
+    private static List<Chunk> split(String content, int maxChunks, int minChunkChars) {
+        int chunkCount = Math.max(1, Math.min(maxChunks, content.length() / Math.max(1, minChunkChars)));
+        int targetChars = content.length() / chunkCount;
+
+        List<Chunk> chunks = new ArrayList<>(chunkCount);
+        int start = 0;
+        while (start < content.length() || chunks.isEmpty()) {
+            int end = content.length();
+            if (chunks.size() < chunkCount - 1) {
+                int lineBreak = content.indexOf('\n', start + targetChars);
+                if (lineBreak >= 0) {
+                    end = lineBreak + 1;
+                }
+            }
+            chunks.add(new Chunk(content, start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static ArrayList<Task> join(List<Chunk> chunks) {
+        int total = 0;
+        StringBuilder failures = new StringBuilder();
+        int firstLine = 1;
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            total += chunk.tasks.size();
+            if (chunk.failure != null) {
+                failures.append(failures.length() == 0 ? "" : "; ")
+                        .append("chunk ").append(i + 1)
+                        .append(", line ").append(firstLine + chunk.failedLine)
+                        .append(": ").append(chunk.failure);
+            }
+            firstLine += chunk.lineCount;
+        }
+
+        if (failures.length() > 0) {
+            throw new StorageException("Corrupted storage file (" + failures + ")");
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        for (Chunk chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+        }
+        return tasks;
+    }
+}
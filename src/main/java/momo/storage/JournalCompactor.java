@@ -0,0 +1,107 @@
+package momo.storage;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+
+/**
+ * Periodically folds the tail of a {@link JournalStorage} into a fresh snapshot.
+ * <p>
+ * Compaction runs on a single background daemon thread. It seals the active segment,
+ * rebuilds the task list from the files on disk (never from the in-memory list), writes
+ * the snapshot and deletes the segments it covers. New records keep being appended to
+ * the next segment while this happens, so the input loop is never blocked.
+ * </p>
+ */
+public class JournalCompactor {
+    private static final long DEFAULT_INTERVAL_MILLIS = 30_000;
+    private static final int DEFAULT_MIN_RECORDS = 1_000;
+
+    private final JournalStorage journal;
+    private final long intervalMillis;
+    private final int minRecords;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructs a compactor with the default interval and threshold.
+     *
+     * @param journal The journal to compact.
+     */
+    public JournalCompactor(JournalStorage journal) {
+        this(journal, DEFAULT_INTERVAL_MILLIS, DEFAULT_MIN_RECORDS);
+    }
+
+    /**
+     * Constructs a compactor.
+     *
+     * @param journal The journal to compact.
+     * @param intervalMillis Delay between compaction checks, in milliseconds.
+     * @param minRecords Minimum number of records since the last snapshot before a compaction is worthwhile.
+     */
+    public JournalCompactor(JournalStorage journal, long intervalMillis, int minRecords) {
+        assert intervalMillis > 0 : "intervalMillis must be positive";
+        assert minRecords > 0 : "minRecords must be positive";
+        this.journal = journal;
+        this.intervalMillis = intervalMillis;
+        this.minRecords = minRecords;
+    }
+
+    /**
+     * Starts periodic compaction on a background thread. Calling this more than once has no effect.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "momo-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::compactQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic compaction. A compaction already in progress is allowed to finish.
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        executor = null;
+    }
+
+    /**
+     * Compacts the journal if enough records have accumulated since the last snapshot.
+     *
+     * @return {@code true} if a snapshot was written.
+     * @throws StorageException If the journal cannot be read or the snapshot cannot be written.
+     */
+    public boolean compact() {
+        synchronized (journal.getCompactionLock()) {
+            if (journal.getTailRecordCount() < minRecords) {
+                return false;
+            }
+
+            int generation = journal.sealActiveSegment();
+            ArrayList<Task> tasks = journal.loadGeneration(generation);
+            journal.writeSnapshot(generation, tasks);
+            journal.deleteObsolete(generation);
+            return true;
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (StorageException err) {
+            // Sealed segments are kept and still replayed on load; the next run retries
+        }
+    }
+}
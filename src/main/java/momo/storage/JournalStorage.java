@@ -0,0 +1,639 @@
+package momo.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+
+/**
+ * Persists tasks as an append-only journal of changes.
+ * <p>
+ * Every change to the task list is appended to the journal as one small
+ * record, so saving a change costs the same regardless of how many tasks there are.
+ * The task list is rebuilt on {@link #loadTasks()} by replaying the records in order.
+ * </p>
+ * <p>
+ * Record formats:
+ * <ul>
+ * <li>{@code A|<task storage line>} - task appended</li>
+ * <li>{@code D|#<id>} - task removed</li>
+ * <li>{@code M|#<id>} / {@code U|#<id>} - task marked / unmarked</li>
+ * <li>{@code G|#<id>|<tag>} / {@code R|#<id>|<tag>} - tag added / removed</li>
+ * </ul>
+ * Tasks are identified by their stable id. Journals written before tasks had ids
+ * use a 0-based position in place of {@code #<id>}, which is still replayed.
+ * </p>
+ * <p>
+ * The journal is split into numbered generations. Records are appended to the
+ * active segment ({@code <journal>} for generation 0, {@code <journal>.<n>} after that).
+ * A snapshot {@code <journal>.<n>.snapshot} holds the full task list as of the end of
+ * segment {@code n}, so loading reads the newest snapshot and replays only the segments
+ * written after it. Snapshots are produced by {@link JournalCompactor} or {@link #saveTasks(ArrayList)},
+ * and the one before the newest is kept with the segments after it as a fallback.
+ * </p>
+ */
+public class JournalStorage implements StorageService {
+    private static final String JOURNAL_PATH = "./data/momoTasks.journal";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    private final File baseFile;
+    private final StorageService legacyStorage;
+    private final Object compactionLock = new Object();
+    private BufferedWriter writer;
+    private int activeGeneration;
+    private int tailRecords;
+    /** Whether the last replay dropped a torn final record. */
+    private boolean isTailTorn;
+
+    /**
+     * Constructs a journal storage using the default journal path.
+     * <p>
+     * If no journal exists yet, tasks are imported from the text file used by {@link Storage}.
+     * </p>
+     */
+    public JournalStorage() {
+        this(JOURNAL_PATH, new Storage());
+    }
+
+    /**
+     * Constructs a journal storage backed by the given file.
+     *
+     * @param filePath Path of the journal file.
+     */
+    public JournalStorage(String filePath) {
+        this(filePath, null);
+    }
+
+    private JournalStorage(String filePath, StorageService legacyStorage) {
+        this.baseFile = new File(filePath);
+        this.legacyStorage = legacyStorage;
+    }
+
+    /**
+     * Loads tasks from the newest snapshot and replays the segments written after it.
+     * <p>
+     * A snapshot that cannot be read is set aside as {@code <snapshot>.corrupt} and the
+     * previous snapshot, which is kept for this, is loaded with the segments after it.
+     * A record torn by a crash mid-append is dropped if it is the final record of the
+     * last segment. Any other record that cannot be applied marks its segment as damaged:
+     * that segment and every later one are set aside as {@code <segment>.corrupt} rather
+     * than deleted, so their records can still be recovered by hand. In either case a
+     * fresh snapshot of the tasks recovered so far is then written.
+     * </p>
+     *
+     * @return {@code ArrayList} of tasks rebuilt from the journal.
+     * @throws StorageException If the journal cannot be read or rewritten, or a damaged file cannot be set aside.
+     */
+    @Override
+    public ArrayList<Task> loadTasks() {
+        TreeSet<Integer> segments = listGenerations(false);
+        TreeSet<Integer> snapshots = listGenerations(true);
+
+        if (segments.isEmpty() && snapshots.isEmpty()) {
+            ArrayList<Task> imported = legacyStorage == null ? new ArrayList<>() : legacyStorage.loadTasks();
+            saveTasks(imported);
+            return imported;
+        }
+
+        int snapshotGeneration = -1;
+        ArrayList<Task> taskList = new ArrayList<>();
+        for (int generation : snapshots.descendingSet()) {
+            try {
+                taskList = readSnapshot(generation);
+                snapshotGeneration = generation;
+                break;
+            } catch (StorageException err) {
+                setAside(snapshotFile(generation));
+            }
+        }
+        TreeSet<Integer> tail = new TreeSet<>(segments.tailSet(snapshotGeneration + 1));
+        boolean isRecovered = snapshotGeneration != (snapshots.isEmpty() ? -1 : snapshots.last());
+
+        Replay replay = new Replay(taskList);
+        synchronized (this) {
+            tailRecords = 0;
+            isTailTorn = false;
+            for (int generation : tail) {
+                try {
+                    tailRecords += replaySegment(replay, generation, generation == tail.last());
+                } catch (StorageException err) {
+                    for (int damaged : tail.tailSet(generation)) {
+                        setAside(segmentFile(damaged));
+                    }
+                    isRecovered = true;
+                    break;
+                }
+            }
+            isRecovered |= isTailTorn;
+            activeGeneration = tail.isEmpty() ? snapshotGeneration + 1 : tail.last();
+        }
+        taskList = replay.finish();
+
+        if (isRecovered) {
+            saveTasks(taskList);
+        }
+        return taskList;
+    }
+
+    /**
+     * Writes the given tasks as a new snapshot and discards the files it makes obsolete.
+     *
+     * @param tasks The tasks to be persisted.
+     * @throws StorageException If the snapshot cannot be written.
+     */
+    @Override
+    public void saveTasks(ArrayList<Task> tasks) {
+        synchronized (compactionLock) {
+            int generation = sealActiveSegment();
+            writeSnapshot(generation, tasks);
+            deleteObsolete(generation);
+        }
+    }
+
+    /**
+     * Appends a single record describing the change to the active segment.
+     *
+     * @param tasks The task list after the change was applied (unused).
+     * @param mutation The change that was applied.
+     * @throws StorageException If the record cannot be written.
+     */
+    @Override
+    public synchronized void record(List<Task> tasks, Mutation mutation) {
+        try {
+            BufferedWriter out = getWriter();
+            out.write(toRecord(mutation));
+            out.newLine();
+            out.flush();
+            tailRecords++;
+        } catch (IOException err) {
+            closeWriter();
+            throw new StorageException("Failed to append to journal file");
+        }
+    }
+
+    /**
+     * Appends one record per change to the active segment and flushes them together.
+     *
+     * @param tasks The task list after the changes were applied (unused).
+     * @param mutations The changes that were applied, in order.
+     * @throws StorageException If the records cannot be written.
+     */
+    @Override
+    public synchronized void recordAll(List<Task> tasks, List<Mutation> mutations) {
+        try {
+            BufferedWriter out = getWriter();
+            for (Mutation mutation : mutations) {
+                out.write(toRecord(mutation));
+                out.newLine();
+            }
+            out.flush();
+            tailRecords += mutations.size();
+        } catch (IOException err) {
+            closeWriter();
+            throw new StorageException("Failed to append to journal file");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Journal records carry everything needed to replay them.
+     * </p>
+     */
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    /**
+     * Returns the number of records written since the newest snapshot.
+     *
+     * @return Number of records a load would have to replay.
+     */
+    public synchronized int getTailRecordCount() {
+        return tailRecords;
+    }
+
+    /**
+     * Returns the lock held while snapshots are being written.
+     */
+    Object getCompactionLock() {
+        return compactionLock;
+    }
+
+    /**
+     * Closes the active segment so that later records go to a new one.
+     *
+     * @return Generation of the segment that was closed.
+     */
+    synchronized int sealActiveSegment() {
+        closeWriter();
+        int sealed = activeGeneration;
+        activeGeneration++;
+        tailRecords = 0;
+        return sealed;
+    }
+
+    /**
+     * Rebuilds the task list as of the end of the given generation.
+     * <p>
+     * Only sealed generations should be loaded, as the active segment may be written to concurrently.
+     * </p>
+     *
+     * @param generation The last generation to include.
+     * @return The tasks at that point of the journal.
+     * @throws StorageException If a snapshot or segment cannot be read or applied.
+     */
+    ArrayList<Task> loadGeneration(int generation) {
+        TreeSet<Integer> snapshots = new TreeSet<>(listGenerations(true).headSet(generation, true));
+        int snapshotGeneration = snapshots.isEmpty() ? -1 : snapshots.last();
+        ArrayList<Task> taskList = snapshotGeneration < 0 ? new ArrayList<>() : readSnapshot(snapshotGeneration);
+
+        Replay replay = new Replay(taskList);
+        for (int segment : listGenerations(false).subSet(snapshotGeneration, false, generation, true)) {
+            replaySegment(replay, segment, false);
+        }
+        return replay.finish();
+    }
+
+    /**
+     * Writes a snapshot for the given generation.
+     * <p>
+     * The snapshot is written through {@link AtomicFileWriter}, so a partially written
+     * snapshot is never picked up by {@link #loadTasks()}.
+     * </p>
+     *
+     * @param generation Generation covered by the snapshot.
+     * @param tasks The tasks as of the end of that generation.
+     * @throws StorageException If the snapshot cannot be written.
+     */
+    void writeSnapshot(int generation, List<Task> tasks) {
+        try {
+            AtomicFileWriter.write(snapshotFile(generation).toPath(), writer -> {
+                for (Task task : tasks) {
+                    writer.write(task.toStorageString());
+                    writer.newLine();
+                }
+            });
+        } catch (IOException err) {
+            throw new StorageException("Failed to write journal snapshot");
+        }
+    }
+
+    /**
+     * Deletes the files no longer needed once the snapshot of the given generation exists.
+     * <p>
+     * The previous snapshot and the segments after it are kept, so the journal can still
+     * be loaded if the newest snapshot turns out to be damaged. Everything older is deleted.
+     * </p>
+     *
+     * @param generation Generation of the newest snapshot.
+     */
+    void deleteObsolete(int generation) {
+        TreeSet<Integer> olderSnapshots = new TreeSet<>(listGenerations(true).headSet(generation, false));
+        if (olderSnapshots.isEmpty()) {
+            return;
+        }
+        int kept = olderSnapshots.last();
+        for (int segment : listGenerations(false).headSet(kept, true)) {
+            segmentFile(segment).delete();
+        }
+        for (int snapshot : olderSnapshots.headSet(kept, false)) {
+            snapshotFile(snapshot).delete();
+        }
+    }
+
+    /**
+     * Converts a mutation into its journal record.
+     *
+     * @param mutation The mutation to convert.
+     * @return The journal record without a trailing newline.
+     */
+    static String toRecord(Mutation mutation) {
+        switch (mutation.getType()) {
+        case ADD:
+            return "A|" + mutation.getPayload();
+        case DELETE:
+            return "D|#" + mutation.getTaskId();
+        case MARK:
+            return "M|#" + mutation.getTaskId();
+        case UNMARK:
+            return "U|#" + mutation.getTaskId();
+        case TAG:
+            return "G|#" + mutation.getTaskId() + "|" + TaskLineParser.escapeField(mutation.getPayload());
+        case UNTAG:
+            return "R|#" + mutation.getTaskId() + "|" + TaskLineParser.escapeField(mutation.getPayload());
+        default:
+            throw new StorageException("Unknown mutation type: " + mutation.getType());
+        }
+    }
+
+    /**
+     * Rebuilds a task list by applying journal records to it.
+     * <p>
+     * A removed task leaves a {@code null} tombstone instead of shifting the tasks after it,
+     * and tasks are found by id through a hash index, so every record applies in O(1)
+     * and a segment full of deletes replays in linear time. The tombstones are dropped in
+     * one pass by {@link #finish()}.
+     * </p>
+     */
+    private static final class Replay {
+        private final ArrayList<Task> taskList;
+        private final HashMap<Long, Integer> slots = new HashMap<>();
+        private int tombstones;
+
+        /**
+         * Starts a replay from the given tasks.
+         *
+         * @param taskList Tasks as of the start of the replay, in ascending id order; taken over by the replay.
+         */
+        Replay(ArrayList<Task> taskList) {
+            this.taskList = taskList;
+            rebuildSlots();
+        }
+
+        /**
+         * Applies a single journal record.
+         * <p>
+         * A record that cannot be applied leaves the tasks unchanged.
+         * </p>
+         *
+         * @param record Raw record read from the journal.
+         * @throws StorageException If the record is malformed or refers to a missing task.
+         */
+        void apply(String record) {
+            if (record.length() < 2 || record.charAt(1) != '|') {
+                throw new StorageException("Corrupted journal record: " + record);
+            }
+
+            char type = record.charAt(0);
+            String body = record.substring(2);
+
+            if (type == 'A') {
+                Task task = TaskLineParser.parse(body);
+                taskList.add(task);
+                slots.put(task.getId(), taskList.size() - 1);
+                return;
+            }
+
+            String[] tokens = body.split("\\|", -1);
+            int slot = tokens[0].startsWith("#") ? findById(tokens[0], record) : findByPosition(tokens[0], record);
+
+            switch (type) {
+            case 'D':
+                slots.remove(taskList.set(slot, null).getId());
+                tombstones++;
+                break;
+            case 'M':
+                taskList.get(slot).setComplete();
+                break;
+            case 'U':
+                taskList.get(slot).setIncomplete();
+                break;
+            case 'G':
+                taskList.get(slot).addTag(parseTag(tokens, record));
+                break;
+            case 'R':
+                taskList.get(slot).removeTag(parseTag(tokens, record));
+                break;
+            default:
+                throw new StorageException("Unknown journal record: " + record);
+            }
+        }
+
+        /**
+         * Drops the tombstones and returns the rebuilt tasks.
+         *
+         * @return The tasks in ascending id order.
+         */
+        ArrayList<Task> finish() {
+            compact();
+            return taskList;
+        }
+
+        private int findById(String token, String record) {
+            long id;
+            try {
+                id = Long.parseLong(token.substring(1));
+            } catch (NumberFormatException err) {
+                throw new StorageException("Corrupted journal record: " + record);
+            }
+
+            Integer slot = slots.get(id);
+            if (slot == null) {
+                throw new StorageException("Journal record refers to a missing task: " + record);
+            }
+            return slot;
+        }
+
+        private int findByPosition(String token, String record) {
+            compact(); // positions in older journals count only tasks that were not removed
+            try {
+                int index = Integer.parseInt(token);
+                if (index < 0 || index >= taskList.size()) {
+                    throw new StorageException("Journal record out of range: " + record);
+                }
+                return index;
+            } catch (NumberFormatException err) {
+                throw new StorageException("Corrupted journal record: " + record);
+            }
+        }
+
+        private void compact() {
+            if (tombstones == 0) {
+                return;
+            }
+            taskList.removeIf(Objects::isNull);
+            tombstones = 0;
+            rebuildSlots();
+        }
+
+        private void rebuildSlots() {
+            slots.clear();
+            for (int slot = 0; slot < taskList.size(); slot++) {
+                slots.put(taskList.get(slot).getId(), slot);
+            }
+        }
+
+        private static String parseTag(String[] tokens, String record) {
+            if (tokens.length < 2 || tokens[1].isBlank()) {
+                throw new StorageException("Corrupted journal record: " + record);
+            }
+            return TaskLineParser.unescapeField(tokens[1]);
+        }
+    }
+
+    /**
+     * Replays every record of a segment onto the task list.
+     * <p>
+     * If the final record of the last segment cannot be applied, it is taken to be torn
+     * by a crash mid-append: it is dropped and {@link #isTailTorn} is set.
+     * </p>
+     *
+     * @param replay The replay rebuilding the list.
+     * @param generation Generation of the segment to replay.
+     * @param isLastSegment Whether no segment was written after this one.
+     * @return Number of records applied.
+     * @throws StorageException If the segment cannot be read or contains any other record that cannot be applied.
+     */
+    private int replaySegment(Replay replay, int generation, boolean isLastSegment) {
+        File segment = segmentFile(generation);
+        if (!segment.exists()) {
+            return 0;
+        }
+
+        int applied = 0;
+        StorageException damage = null;
+        try (BufferedReader reader = new BufferedReader(new FileReader(segment))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (damage != null) {
+                    throw damage; // the bad record was not the last one, so it was not torn
+                }
+                try {
+                    replay.apply(line);
+                    applied++;
+                } catch (StorageException err) {
+                    damage = err;
+                }
+            }
+        } catch (IOException err) {
+            throw new StorageException("Failed to read journal file");
+        }
+
+        if (damage != null) {
+            if (!isLastSegment) {
+                throw damage;
+            }
+            isTailTorn = true;
+        }
+        return applied;
+    }
+
+    private ArrayList<Task> readSnapshot(int generation) {
+        ArrayList<Task> taskList = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(snapshotFile(generation)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                taskList.add(TaskLineParser.parse(line));
+            }
+        } catch (IOException err) {
+            throw new StorageException("Failed to read journal snapshot");
+        }
+        return taskList;
+    }
+
+    /**
+     * Lists the generations present on disk.
+     *
+     * @param isSnapshot {@code true} to list snapshots, {@code false} to list segments.
+     * @return Sorted set of generation numbers.
+     */
+    private TreeSet<Integer> listGenerations(boolean isSnapshot) {
+        TreeSet<Integer> generations = new TreeSet<>();
+        String baseName = baseFile.getName();
+        File directory = baseFile.getAbsoluteFile().getParentFile();
+        String[] names = directory == null ? null : directory.list();
+        if (names == null) {
+            return generations;
+        }
+
+        for (String name : names) {
+            if (!isSnapshot && name.equals(baseName)) {
+                generations.add(0);
+                continue;
+            }
+            if (!name.startsWith(baseName + ".")) {
+                continue;
+            }
+
+            String suffix = name.substring(baseName.length() + 1);
+            if (isSnapshot != suffix.endsWith(SNAPSHOT_SUFFIX)) {
+                continue;
+            }
+            if (isSnapshot) {
+                suffix = suffix.substring(0, suffix.length() - SNAPSHOT_SUFFIX.length());
+            }
+            try {
+                generations.add(Integer.parseInt(suffix));
+            } catch (NumberFormatException err) {
+                // Not a journal file (e.g. a leftover temporary file)
+            }
+        }
+        return generations;
+    }
+
+    /**
+     * Renames a damaged journal file to {@code <file>.corrupt}, which loading ignores.
+     *
+     * @throws StorageException If the file cannot be renamed.
+     */
+    private static void setAside(File file) {
+        Path path = file.toPath();
+        try {
+            Files.move(path, path.resolveSibling(path.getFileName() + CORRUPT_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException err) {
+            throw new StorageException("Failed to set aside damaged journal file " + file.getName());
+        }
+    }
+
+    private File segmentFile(int generation) {
+        if (generation == 0) {
+            return baseFile;
+        }
+        return new File(baseFile.getPath() + "." + generation);
+    }
+
+    private File snapshotFile(int generation) {
+        return new File(baseFile.getPath() + "." + generation + SNAPSHOT_SUFFIX);
+    }
+
+    private BufferedWriter getWriter() throws IOException {
+        if (writer == null) {
+            createParentDirectory();
+            writer = new BufferedWriter(new FileWriter(segmentFile(activeGeneration), true));
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException err) {
+            // Records are flushed as they are written, nothing is lost here
+        }
+        writer = null;
+    }
+
+    private void createParentDirectory() {
+        File parentDirectory = baseFile.getParentFile();
+        if (parentDirectory != null && !parentDirectory.exists()) {
+            parentDirectory.mkdirs();
+        }
+    }
+}
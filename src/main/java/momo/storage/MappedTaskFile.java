@@ -0,0 +1,241 @@
+package momo.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+
+/**
+ * Gives read-only random access to a binary task file through {@link FileChannel#map}.
+ * <p>
+ * Opening the file reads only the header, the tag dictionary and the trailing record index,
+ * so it takes the same time however many tasks the file holds. Each task is decoded straight
+ * from the mapped bytes when it is asked for, and the operating system pages in only the
+ * regions that are actually touched. Files larger than a single mapping are mapped in
+ * regions of 1 GiB on demand.
+ * </p>
+ * <p>
+ * A version 1 file has no record index, so one is built when the file is opened by
+ * walking the record lengths.
+ * </p>
+ */
+public final class MappedTaskFile implements Closeable {
+    private static final long REGION_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final MappedByteBuffer[] regions;
+    private final short version;
+    private final String[] tags;
+    private final int count;
+    private final LongBuffer offsets;
+
+    private MappedTaskFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.regions = new MappedByteBuffer[(int) ((fileSize + REGION_SIZE - 1) / REGION_SIZE)];
+
+        if (regions.length == 0) {
+            throw new StorageException("Not a Momo binary storage file");
+        }
+        ByteBuffer header = region(0).duplicate();
+        this.version = header.remaining() >= BinaryTaskCodec.VERSION_OFFSET + Short.BYTES
+                ? header.getShort(BinaryTaskCodec.VERSION_OFFSET)
+                : 0;
+        this.tags = BinaryTaskCodec.readHeader(header);
+        this.count = header.getInt();
+        if (count < 0) {
+            throw new StorageException("Corrupted binary storage: negative task count");
+        }
+
+        if (version == BinaryTaskCodec.VERSION_WITHOUT_INDEX) {
+            this.offsets = scanOffsets(header.position());
+        } else {
+            this.offsets = mapIndex();
+        }
+    }
+
+    /**
+     * Opens a binary task file for reading.
+     *
+     * @param filePath Path of the binary task file.
+     * @return The opened file.
+     * @throws StorageException If the file cannot be opened or is not a valid binary task file.
+     */
+    public static MappedTaskFile open(String filePath) {
+        return open(Path.of(filePath));
+    }
+
+    static MappedTaskFile open(Path path) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new MappedTaskFile(channel);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException err) {
+            closeQuietly(channel);
+            throw new StorageException("Failed to map binary storage file: " + err.getMessage());
+        } catch (StorageException err) {
+            closeQuietly(channel);
+            throw err;
+        }
+    }
+
+    /**
+     * Returns the number of tasks in the file.
+     *
+     * @return Number of tasks.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Decodes the task at the given position in the file.
+     *
+     * @param index Zero-based position of the task.
+     * @return The decoded task.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     * @throws StorageException If the record is corrupted.
+     */
+    public Task get(int index) {
+        Objects.checkIndex(index, count);
+        long offset = offsets.get(index);
+        try {
+            int length = bytesAt(offset, Integer.BYTES).getInt();
+            if (length < 0 || offset + Integer.BYTES + length > fileSize) {
+                throw new StorageException("Corrupted binary storage: bad length for record " + index);
+            }
+            ByteBuffer record = bytesAt(offset + Integer.BYTES, length);
+            Task task = BinaryTaskCodec.readRecord(record, tags, version);
+            if (record.hasRemaining()) {
+                throw new StorageException("Corrupted binary storage: bad length for record " + index);
+            }
+            return task;
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException err) {
+            throw new StorageException("Corrupted binary storage: " + err.getMessage());
+        } catch (IOException err) {
+            throw new StorageException("Failed to map binary storage file: " + err.getMessage());
+        }
+    }
+
+    /**
+     * Returns a read-only view of the file in which each task is decoded when it is accessed.
+     * <p>
+     * Tasks are not cached, so every access decodes a fresh copy.
+     * </p>
+     *
+     * @return List view of the tasks in the file.
+     */
+    public List<Task> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                return MappedTaskFile.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Decodes every task in the file.
+     *
+     * @return {@code ArrayList} of the tasks, in file order.
+     * @throws StorageException If any record is corrupted.
+     */
+    public ArrayList<Task> readAll() {
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(get(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Closes the underlying channel. Mapped regions are released once they are garbage collected.
+     */
+    @Override
+    public void close() {
+        closeQuietly(channel);
+    }
+
+    private LongBuffer mapIndex() throws IOException {
+        long indexOffset = bytesAt(fileSize - Long.BYTES, Long.BYTES).getLong();
+        long indexSize = (long) count * Long.BYTES;
+        if (indexOffset < 0 || indexOffset + indexSize + Long.BYTES != fileSize) {
+            throw new StorageException("Corrupted binary storage: bad record index");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexSize).asLongBuffer();
+    }
+
+    private LongBuffer scanOffsets(long firstRecord) throws IOException {
+        long[] scanned = new long[count];
+        long offset = firstRecord;
+        for (int i = 0; i < count; i++) {
+            scanned[i] = offset;
+            int length = bytesAt(offset, Integer.BYTES).getInt();
+            if (length < 0) {
+                throw new StorageException("Corrupted binary storage: bad length for record " + i);
+            }
+            offset += Integer.BYTES + length;
+        }
+        return LongBuffer.wrap(scanned);
+    }
+
+    /**
+     * Returns a buffer over the given byte range, positioned at its start.
+     * <p>
+     * The range is served from its mapped region when it lies within one, and is mapped on
+     * its own when it crosses a region boundary.
+     * </p>
+     */
+    private ByteBuffer bytesAt(long offset, int length) throws IOException {
+        if (offset < 0 || offset + length > fileSize) {
+            throw new BufferUnderflowException();
+        }
+
+        int regionIndex = (int) (offset / REGION_SIZE);
+        long regionStart = regionIndex * REGION_SIZE;
+        if (offset + length <= regionStart + REGION_SIZE) {
+            int start = (int) (offset - regionStart);
+            return region(regionIndex).duplicate().position(start).limit(start + length).slice();
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    private synchronized MappedByteBuffer region(int index) throws IOException {
+        if (regions[index] == null) {
+            long start = index * REGION_SIZE;
+            regions[index] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(REGION_SIZE, fileSize - start));
+        }
+        return regions[index];
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException err) {
+            // Nothing left to release
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package momo.storage;
+
+import momo.tasks.Task;
+
+/**
+ * Describes a single change made to the task list.
+ * <p>
+ * Mutations are handed to a {@link StorageService} so that implementations which
+ * persist changes incrementally (e.g. {@link JournalStorage}) can write one small
+ * record instead of the whole list. Tasks are identified by their stable id,
+ * so a mutation stays valid however the positions in the list shift.
+ * </p>
+ */
+public class Mutation {
+    /**
+     * Kinds of changes that can be recorded.
+     */
+    public enum Type {
+        /** A task was appended to the end of the list. */
+        ADD,
+        /** A task was removed from the list. */
+        DELETE,
+        /** A task was marked as completed. */
+        MARK,
+        /** A task was marked as incomplete. */
+        UNMARK,
+        /** A tag was added to a task. */
+        TAG,
+        /** A tag was removed from a task. */
+        UNTAG,
+    }
+
+    private final Type type;
+    private final long taskId;
+    private final String payload;
+
+    private Mutation(Type type, long taskId, String payload) {
+        this.type = type;
+        this.taskId = taskId;
+        this.payload = payload;
+    }
+
+    /**
+     * Creates a mutation for a task appended to the end of the list.
+     * <p>
+     * The task is serialized immediately so that later changes to the same task
+     * are recorded by their own mutations.
+     * </p>
+     *
+     * @param task The added task.
+     * @return The mutation.
+     */
+    public static Mutation add(Task task) {
+        return new Mutation(Type.ADD, task.getId(), task.toStorageString());
+    }
+
+    public static Mutation delete(long taskId) {
+        return new Mutation(Type.DELETE, taskId, null);
+    }
+
+    public static Mutation mark(long taskId) {
+        return new Mutation(Type.MARK, taskId, null);
+    }
+
+    public static Mutation unmark(long taskId) {
+        return new Mutation(Type.UNMARK, taskId, null);
+    }
+
+    public static Mutation tag(long taskId, String tag) {
+        return new Mutation(Type.TAG, taskId, tag);
+    }
+
+    public static Mutation untag(long taskId, String tag) {
+        return new Mutation(Type.UNTAG, taskId, tag);
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the id of the task that was changed.
+     *
+     * @return The stable id of the task.
+     */
+    public long getTaskId() {
+        return this.taskId;
+    }
+
+    /**
+     * Returns the data carried by this mutation.
+     *
+     * @return The storage line for {@link Type#ADD}, the tag for {@link Type#TAG} and
+     *         {@link Type#UNTAG}, otherwise {@code null}.
+     */
+    public String getPayload() {
+        return this.payload;
+    }
+}
@@ -0,0 +1,376 @@
+package momo.storage;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+
+/**
+ * Provides file-based persistence in which every task occupies a fixed-size slot,
+ * so a changed task can be rewritten in place.
+ * <p>
+ * The file starts with a header ({@code int magic}, {@code short version},
+ * {@code int slotSize}, {@code int count}) followed by {@code count} slots of
+ * {@code slotSize} bytes. A slot holds an {@code int} byte length and the UTF-8
+ * bytes of {@link Task#toStorageString()}; the rest of the slot is padding.
+ * </p>
+ * <p>
+ * Marking, unmarking and tagging rewrite one slot, adding a task writes one new
+ * slot, and deleting a task rewrites only the slots after it. The whole file is
+ * rewritten atomically, with the slot size doubled, only when a task no longer
+ * fits in its slot or the file does not exist yet. In-place writes are not
+ * atomic; the {@code <file>.bak} kept by the last full rewrite is loaded if the
+ * file turns out to be damaged.
+ * </p>
+ */
+public class SlottedStorage implements StorageService {
+    private static final String STORAGE_PATH = "./data/momoTasks.slots";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final int MAGIC = 0x4D4F4D53; // "MOMS"
+    private static final short VERSION = 1;
+    private static final int COUNT_OFFSET = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int HEADER_SIZE = COUNT_OFFSET + Integer.BYTES;
+    private static final int MIN_SLOT_SIZE = 128;
+
+    private final Path path;
+    /** Tasks in the order of the slots on disk, used to find moved tasks. */
+    private final ArrayList<Task> persisted = new ArrayList<>();
+    private int slotSize = MIN_SLOT_SIZE;
+
+    /**
+     * Constructs a slotted storage handler using the default storage path.
+     */
+    public SlottedStorage() {
+        this(STORAGE_PATH);
+    }
+
+    /**
+     * Constructs a slotted storage handler using the given storage path.
+     *
+     * @param filePath Path of the storage file.
+     */
+    public SlottedStorage(String filePath) {
+        this.path = Path.of(filePath);
+    }
+
+    /**
+     * Loads tasks from the storage file.
+     * <p>
+     * A missing file is treated as an empty task list. If the file cannot be decoded,
+     * the backup kept by the last full rewrite is loaded instead, and a file that
+     * cannot be recovered is set aside as {@code <file>.corrupt}.
+     * </p>
+     *
+     * @return {@code ArrayList} of tasks loaded from storage.
+     * @throws StorageException If a corrupted storage file cannot be set aside.
+     */
+    @Override
+    public synchronized ArrayList<Task> loadTasks() {
+        if (!Files.exists(path)) {
+            persisted.clear();
+            return new ArrayList<>();
+        }
+
+        try {
+            ArrayList<Task> tasks = readTasks(path);
+            track(tasks);
+            return tasks;
+        } catch (IOException | StorageException err) {
+            // Fall back to the previous generation below
+        }
+
+        Path backup = AtomicFileWriter.backupOf(path);
+        if (Files.exists(backup)) {
+            try {
+                ArrayList<Task> recovered = readTasks(backup);
+                setAsideCorruptedFile();
+                saveTasks(recovered);
+                return recovered;
+            } catch (IOException | StorageException err) {
+                // Both generations are unreadable
+            }
+        }
+
+        setAsideCorruptedFile();
+        persisted.clear();
+        return new ArrayList<>();
+    }
+
+    /**
+     * Rewrites the whole storage file atomically.
+     *
+     * @param tasks The tasks to be persisted.
+     * @throws StorageException If the file cannot be written.
+     */
+    @Override
+    public synchronized void saveTasks(ArrayList<Task> tasks) {
+        writeAll(tasks);
+    }
+
+    private void writeAll(List<Task> tasks) {
+        List<byte[]> records = new ArrayList<>(tasks.size());
+        int longest = 0;
+        for (Task task : tasks) {
+            byte[] record = encode(task);
+            records.add(record);
+            longest = Math.max(longest, record.length);
+        }
+        while (Integer.BYTES + longest > slotSize) {
+            slotSize *= 2;
+        }
+
+        try {
+            AtomicFileWriter.writeBinary(path, out -> {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(slotSize);
+                out.writeInt(records.size());
+                byte[] padding = new byte[slotSize];
+                for (byte[] record : records) {
+                    out.writeInt(record.length);
+                    out.write(record);
+                    out.write(padding, 0, slotSize - Integer.BYTES - record.length);
+                }
+            });
+        } catch (IOException err) {
+            throw new StorageException("Failed to save slotted storage file");
+        }
+        track(tasks);
+    }
+
+    /**
+     * Writes only the slots of tasks that are dirty, added, removed or moved.
+     * <p>
+     * Dirty tasks are rewritten in place. From the first position where the list no
+     * longer matches the file, every following slot is rewritten and the file is
+     * truncated to the new size.
+     * </p>
+     *
+     * @param tasks The current task list.
+     * @throws StorageException If the file cannot be written.
+     */
+    @Override
+    public synchronized void saveChanges(ArrayList<Task> tasks) {
+        writeChanges(tasks);
+    }
+
+    private void writeChanges(List<Task> tasks) {
+        int common = Math.min(tasks.size(), persisted.size());
+        int suffixFrom = common;
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < common; i++) {
+            Task task = tasks.get(i);
+            if (task != persisted.get(i)) {
+                suffixFrom = i;
+                break;
+            }
+            if (task.isDirty()) {
+                changed.add(i);
+            }
+        }
+        writeInPlace(tasks, changed, suffixFrom);
+    }
+
+    /**
+     * Writes the slots touched by a single change.
+     *
+     * @param tasks The task list after the change was applied.
+     * @param mutation The change that was applied.
+     * @throws StorageException If the file cannot be written.
+     */
+    @Override
+    public synchronized void record(List<Task> tasks, Mutation mutation) {
+        int slot = slotOf(mutation.getTaskId());
+        switch (mutation.getType()) {
+        case ADD:
+            if (persisted.size() != tasks.size() - 1) {
+                writeChanges(tasks);
+                return;
+            }
+            writeInPlace(tasks, List.of(), persisted.size());
+            break;
+        case DELETE:
+            if (slot < 0 || persisted.size() != tasks.size() + 1) {
+                writeChanges(tasks);
+                return;
+            }
+            writeInPlace(tasks, List.of(), slot);
+            break;
+        default:
+            if (slot < 0 || persisted.size() != tasks.size()) {
+                writeChanges(tasks);
+                return;
+            }
+            writeInPlace(tasks, List.of(slot), tasks.size());
+            break;
+        }
+    }
+
+    /**
+     * Writes the slots touched by several changes at once.
+     * <p>
+     * The slots are found by comparing the list with what is on disk, so only dirty tasks and
+     * the slots from the first added or removed task onwards are rewritten.
+     * </p>
+     *
+     * @param tasks The task list after all the changes were applied.
+     * @param mutations The changes that were applied, in order.
+     * @throws StorageException If the file cannot be written.
+     */
+    @Override
+    public synchronized void recordAll(List<Task> tasks, List<Mutation> mutations) {
+        writeChanges(tasks);
+    }
+
+    /**
+     * Finds the slot of a task by binary search, relying on tasks being kept in ascending id order.
+     *
+     * @return The slot, or {@code -1} if no persisted task has the id.
+     */
+    private int slotOf(long id) {
+        int low = 0;
+        int high = persisted.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = persisted.get(mid).getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rewrites the given slots and every slot from {@code suffixFrom} onwards.
+     * Falls back to a full rewrite when the file is missing or a record outgrows its slot.
+     */
+    private void writeInPlace(List<Task> tasks, List<Integer> changed, int suffixFrom) {
+        if (!Files.exists(path)) {
+            writeAll(tasks);
+            return;
+        }
+
+        int suffixLength = tasks.size() - suffixFrom;
+        List<byte[]> records = new ArrayList<>(changed.size() + suffixLength);
+        for (int i : changed) {
+            records.add(encode(tasks.get(i)));
+        }
+        for (int i = suffixFrom; i < tasks.size(); i++) {
+            records.add(encode(tasks.get(i)));
+        }
+        for (byte[] record : records) {
+            if (Integer.BYTES + record.length > slotSize) {
+                writeAll(tasks);
+                return;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            int next = 0;
+            for (int i : changed) {
+                writeSlot(channel, i, records.get(next++));
+            }
+            for (int i = suffixFrom; i < tasks.size(); i++) {
+                writeSlot(channel, i, records.get(next++));
+            }
+            if (tasks.size() != persisted.size()) {
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, tasks.size()), COUNT_OFFSET);
+                channel.truncate(slotOffset(tasks.size()));
+            }
+            channel.force(false);
+        } catch (IOException err) {
+            throw new StorageException("Failed to update slotted storage file");
+        }
+
+        for (int i : changed) {
+            tasks.get(i).clearDirty();
+        }
+        persisted.subList(Math.min(suffixFrom, persisted.size()), persisted.size()).clear();
+        for (int i = suffixFrom; i < tasks.size(); i++) {
+            persisted.add(tasks.get(i));
+            tasks.get(i).clearDirty();
+        }
+    }
+
+    /**
+     * Writes a record into its slot, padded to the full slot size so that a slot appended
+     * at the end of the file extends the file to its new length.
+     */
+    private void writeSlot(FileChannel channel, int index, byte[] record) throws IOException {
+        ByteBuffer slot = ByteBuffer.allocate(slotSize);
+        slot.putInt(record.length).put(record).rewind();
+        long position = slotOffset(index);
+        while (slot.hasRemaining()) {
+            position += channel.write(slot, position);
+        }
+    }
+
+    private long slotOffset(int index) {
+        return HEADER_SIZE + (long) index * slotSize;
+    }
+
+    private ArrayList<Task> readTasks(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new StorageException("Not a Momo slotted storage file");
+            }
+            int fileSlotSize = buffer.getInt();
+            int count = buffer.getInt();
+            if (fileSlotSize <= Integer.BYTES || count < 0
+                    || buffer.remaining() < (long) count * fileSlotSize) {
+                throw new StorageException("Corrupted slotted storage header");
+            }
+
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int start = HEADER_SIZE + i * fileSlotSize;
+                int length = buffer.getInt(start);
+                if (length < 0 || Integer.BYTES + length > fileSlotSize) {
+                    throw new StorageException("Corrupted slot " + i);
+                }
+                String line = new String(buffer.array(), start + Integer.BYTES, length, StandardCharsets.UTF_8);
+                tasks.add(TaskLineParser.parse(line));
+            }
+            slotSize = fileSlotSize;
+            return tasks;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException err) {
+            throw new StorageException("Corrupted slotted storage file");
+        }
+    }
+
+    private void track(List<Task> tasks) {
+        persisted.clear();
+        persisted.addAll(tasks);
+        for (Task task : tasks) {
+            task.clearDirty();
+        }
+    }
+
+    private static byte[] encode(Task task) {
+        return task.toStorageString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void setAsideCorruptedFile() {
+        try {
+            Files.move(path, path.resolveSibling(path.getFileName() + CORRUPT_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException err) {
+            throw new StorageException("Failed to set aside corrupted storage file.");
+        }
+    }
+}
@@ -1,20 +1,15 @@
 package momo.storage;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 
 import momo.exceptions.StorageException;
-import momo.tasks.Deadline;
-import momo.tasks.Event;
 import momo.tasks.Task;
-import momo.tasks.Todo;
 
 /**
  * Provides file-based persistence for task data and handles reading tasks from
@@ -28,9 +23,7 @@ import momo.tasks.Todo;
  */
 public class Storage implements StorageService {
     private static final String STORAGE_PATH = "./data/momoTasks.txt";
-    private static final String ESC_PIPE = "%7C";
-    private static final String ESC_COMMA = "%2C";
-    private static final String ESC_BACKSLASH = "%5C";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
 
     private final String filePath;
 
@@ -44,7 +37,21 @@ public class Storage implements StorageService {
      * @throws StorageException If the storage file cannot be created.
      */
     public Storage() {
-        this.filePath = STORAGE_PATH;
+        this(STORAGE_PATH);
+    }
+
+    /**
+     * Constructs a storage handler using the given storage path.
+     * <p>
+     * If the storage file (or its parent directory) does not exist, it will be
+     * automatically created.
+     * </p>
+     *
+     * @param filePath Path of the storage file.
+     * @throws StorageException If the storage file cannot be created.
+     */
+    public Storage(String filePath) {
+        this.filePath = filePath;
         // If programs run for the first time, the file is yet to be created
         // Create a file immediately
         File file = new File(filePath);
@@ -57,58 +64,73 @@ public class Storage implements StorageService {
      * Loads tasks from the storage file and returns them as a list.
      * <p>
      * Blank lines are ignored. Each non-blank line is parsed into a
-     * {@link Task}.
+     * {@link Task}; large files are parsed in chunks on several threads
+     * and the tasks keep their order in the file. If the storage file
+     * cannot be read, the previous generation kept by
+     * {@link #saveTasks(ArrayList)} is loaded instead.
+     * A file that cannot be recovered is set aside as {@code <file>.corrupt}
+     * rather than deleted.
      * </p>
      *
      * @return {@code ArrayList} of tasks loaded from storage.
-     * @throws StorageException If the storage file cannot be read or contains
-     * corrupted data.
+     * @throws StorageException If a corrupted storage file cannot be set aside.
      */
     @Override
     public ArrayList<Task> loadTasks() {
         File file = new File(filePath);
-        ArrayList<Task> taskList = new ArrayList<>();
-        boolean toReset = false;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) {
-                    continue;
-                }
-
-                taskList.add(parseTask(line));
-            }
+        try {
+            return readTasks(file);
         } catch (IOException | StorageException err) {
-            toReset = true; //Recreate the file
+            // Fall back to the previous generation below
+        }
+
+        File backup = AtomicFileWriter.backupOf(file.toPath()).toFile();
+        if (backup.exists()) {
+            try {
+                ArrayList<Task> recovered = readTasks(backup);
+                setAsideCorruptedFile(file);
+                saveTasks(recovered); // target is gone, so the good backup is left as is
+                return recovered;
+            } catch (IOException | StorageException err) {
+                // Both generations are unreadable
+            }
         }
 
-        if (toReset) {
-            return resetStorageFile(file);
-        }
+        return resetStorageFile(file);
+    }
 
-        return taskList;
+    private ArrayList<Task> readTasks(File file) throws IOException {
+        String content = new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset());
+        return ChunkedTaskLoader.parse(content);
     }
 
     private ArrayList<Task> resetStorageFile(File file) {
-        // Explicitly delete corrupted file
-        if (file.exists()) {
-            boolean deleted = file.delete();
-            if (!deleted) {
-                throw new StorageException("Failed to delete corrupted storage file.");
-            }
-        }
-
+        setAsideCorruptedFile(file);
         createFile(file);
         return new ArrayList<>();
     }
 
+    private void setAsideCorruptedFile(File file) {
+        if (!file.exists()) {
+            return;
+        }
+
+        try {
+            Files.move(file.toPath(), Path.of(filePath + CORRUPT_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException err) {
+            throw new StorageException("Failed to set aside corrupted storage file.");
+        }
+    }
+
     /**
      * Saves the given list of tasks to the storage file.
      * <p>
      * Each task is written on its own line using
-     * {@link Task#toStorageString()}.
+     * {@link Task#toStorageString()}. The tasks are written to a temporary
+     * file which is forced to disk and then renamed over the storage file,
+     * so a crash never leaves a half-written storage file behind. The
+     * previous contents are kept as {@code <file>.bak}.
      * </p>
      *
      * @param taskList {@code ArrayList} of tasks to persist to storage.
@@ -116,173 +138,18 @@ public class Storage implements StorageService {
      */
     @Override
     public void saveTasks(ArrayList<Task> taskList) {
-        File file = new File(filePath);
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            for (Task task : taskList) {
-                writer.write(task.toStorageString());
-                writer.newLine();
-            }
+        try {
+            AtomicFileWriter.write(Path.of(filePath), writer -> {
+                for (Task task : taskList) {
+                    writer.write(task.toStorageString());
+                    writer.newLine();
+                }
+            });
         } catch (IOException err) {
             throw new StorageException("Failed to save storage file");
         }
     }
 
-    /**
-     * Parses a single storage line into a concrete {@link Task}.
-     * <p>
-     * Expected format examples:
-     * <ul>
-     * <li>{@code T|<status>|<title>|<tag>}</li>
-     * <li>{@code D|<status>|<title>|<tag>|<dueDate>}</li>
-     * <li>{@code E|<status>|<title>|<tag>|<startDate>|<endDate>}</li>
-     * </ul>
-     * Date/time fields are parsed using {@link LocalDateTime}.
-     * </p>
-     *
-     * @param ptask Raw line read from storage.
-     * @return The reconstructed task.
-     * @throws StorageException If the line format is invalid or cannot be
-     * parsed.
-     */
-    private Task parseTask(String ptask) {
-        String[] tokens = ptask.split("\\|", -1); //Keep empty "" tag between ||
-
-        // Invalid task input
-        if (tokens.length < 4) {
-            throw new StorageException("Corrupted storage line: " + ptask);
-        }
-
-        // Get task type
-        String type = tokens[0];
-        String title = unescapeField(tokens[2]);
-
-        // Get task status
-        int status;
-        try {
-            status = Integer.parseInt(tokens[1]);
-        } catch (NumberFormatException err) {
-            throw new StorageException("Corrupted storage line: " + ptask);
-        }
-
-        //create new instance of task
-        Task task = createTask(type, tokens, title, ptask);
-
-        // Set task to complete if storage tag shows 1
-        if (status == 1) {
-            task.setComplete();
-        }
-
-        addTagsToTask(task, unescapeField(tokens[3]));
-        return task;
-    }
-
-    /**
-     * Creates a concrete {@link Task} instance based on the task type.
-     *
-     * <p>The task type is determined by the first token in the storage line:
-     * <ul>
-     *   <li>{@code "T"} → {@link Todo}</li>
-     *   <li>{@code "D"} → {@link Deadline}</li>
-     *   <li>{@code "E"} → {@link Event}</li>
-     * </ul>
-     * </p>
-     *
-     * @param type The task type identifier.
-     * @param tokens The tokenized storage line.
-     * @param title The task title extracted from storage.
-     * @param originalLine The original storage line for error reporting.
-     * @return A concrete {@link Task} corresponding to the given type.
-     * @throws StorageException If the task type is unknown or required fields are missing.
-     */
-    private Task createTask(String type, String[] tokens, String title, String originalLine) {
-        switch (type) {
-        case "T":
-            return createTodo(title);
-        case "D":
-            return createDeadline(tokens, title, originalLine);
-        case "E":
-            return createEvent(tokens, title, originalLine);
-        default:
-            throw new StorageException("Unknown task type: " + originalLine);
-        }
-    }
-
-    /**
-     * Creates a {@link Todo} task with the specified title.
-     *
-     * @param title The task title.
-     * @return A new {@link Todo} instance.
-     */
-    private Todo createTodo(String title) {
-        return new Todo(title);
-    }
-
-    /**
-     * Creates a {@link Deadline} task from the given storage tokens.
-     *
-     * @param tokens The tokenized storage line.
-     * @param title The task title.
-     * @param originalLine The original storage line for error reporting.
-     * @return A new {@link Deadline} instance.
-     * @throws StorageException If the deadline format is invalid or the date/time cannot be parsed.
-     */
-    private Task createDeadline(String[] tokens, String title, String originalLine) {
-        if (tokens.length < 5) {
-            throw new StorageException("Corrupted deadline line: " + originalLine);
-        }
-
-        try {
-            LocalDateTime dueDate = LocalDateTime.parse(tokens[4]);
-            return new Deadline(title, dueDate);
-        } catch (DateTimeParseException err) {
-            throw new StorageException("Corrupted deadline date/time: " + originalLine);
-        }
-    }
-
-    /**
-     * Creates an {@link Event} task from the given storage tokens.
-     *
-     * @param tokens The tokenized storage line.
-     * @param title The task title.
-     * @param originalLine The original storage line for error reporting.
-     * @return A new {@link Event} instance.
-     * @throws StorageException If the event format is invalid or date/time parsing fails.
-     */
-    private Task createEvent(String[] tokens, String title, String originalLine) {
-        if (tokens.length < 6) {
-            throw new StorageException("Corrupted event line: " + originalLine);
-        }
-
-        try {
-            LocalDateTime startDate = LocalDateTime.parse(tokens[4]);
-            LocalDateTime endDate = LocalDateTime.parse(tokens[5]);
-            return new Event(title, startDate, endDate);
-        } catch (DateTimeParseException err) {
-            throw new StorageException("Corrupted event date/time: " + originalLine);
-        }
-    }
-
-    /**
-     * Parses a comma-separated tag string and adds the tags to the specified task.
-     * Blank or null tag fields are ignored.
-     *
-     * @param task The task to which the tags will be added.
-     * @param tagField The comma-separated string containing tags.
-     */
-    private void addTagsToTask(Task task, String tagField) {
-        if (tagField == null || tagField.isBlank()) {
-            return;
-        }
-
-        String[] tags = tagField.split("\\s*,\\s*");
-        for (String i : tags) {
-            if (!i.isBlank()) {
-                task.addTag(i.trim());
-            }
-        }
-    }
-
     /**
      * Creates the storage file and its parent directory (if needed).
      *
@@ -304,20 +171,4 @@ public class Storage implements StorageService {
             throw new StorageException("Failed to create storage file");
         }
     }
-
-    /**
-     * Parses an unescape string and escapes certain special characters
-     *
-     * @param file The string to parse.
-     * @return An escaped string.
-     */
-    private String unescapeField(String s) {
-        if (s == null) {
-            return null;
-        }
-        // Reverse order of escapeField (backslash first)
-        return s.replace(ESC_BACKSLASH, "\\")
-                .replace(ESC_PIPE, "|")
-                .replace(ESC_COMMA, ",");
-    }
 }
@@ -0,0 +1,46 @@
+package momo.storage;
+
+import java.util.ArrayList;
+
+import momo.tasks.Task;
+
+/**
+ * Converts task files between the line-based format of {@link Storage} and the
+ * binary format of {@link BinaryStorage}.
+ * <p>
+ * Both formats store the type, title, completion status, tags and dates of every
+ * task, so a conversion in either direction loses nothing.
+ * </p>
+ */
+public final class StorageConverter {
+    private StorageConverter() {
+    }
+
+    /**
+     * Converts a text task file into a binary task file.
+     *
+     * @param textPath Path of the text file to read.
+     * @param binaryPath Path of the binary file to write.
+     * @return Number of tasks converted.
+     * @throws momo.exceptions.StorageException If either file cannot be accessed.
+     */
+    public static int textToBinary(String textPath, String binaryPath) {
+        ArrayList<Task> tasks = new Storage(textPath).loadTasks();
+        new BinaryStorage(binaryPath).saveTasks(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Converts a binary task file into a text task file.
+     *
+     * @param binaryPath Path of the binary file to read.
+     * @param textPath Path of the text file to write.
+     * @return Number of tasks converted.
+     * @throws momo.exceptions.StorageException If either file cannot be accessed.
+     */
+    public static int binaryToText(String binaryPath, String textPath) {
+        ArrayList<Task> tasks = new BinaryStorage(binaryPath).loadTasks();
+        new Storage(textPath).saveTasks(tasks);
+        return tasks.size();
+    }
+}
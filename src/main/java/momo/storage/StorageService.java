@@ -1,6 +1,7 @@
 package momo.storage;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import momo.tasks.Task;
 
@@ -26,4 +27,72 @@ public interface StorageService {
      * @param tasks The tasks to be persisted.
      */
     void saveTasks(ArrayList<Task> tasks);
+
+    /**
+     * Persists only the tasks that changed since they were last written.
+     * <p>
+     * Changed tasks are those reporting {@link Task#isDirty()}, plus any task
+     * added, removed or moved since the last write. The default implementation
+     * rewrites the whole list through {@link #saveTasks(ArrayList)}.
+     * Implementations that can update records in place should override this.
+     * </p>
+     *
+     * @param tasks The current task list.
+     */
+    default void saveChanges(ArrayList<Task> tasks) {
+        saveTasks(tasks);
+    }
+
+    /**
+     * Persists a single change to the task list.
+     * <p>
+     * The default implementation rewrites the whole list through
+     * {@link #saveTasks(ArrayList)}. Implementations that can store changes
+     * incrementally should override this.
+     * </p>
+     *
+     * @param tasks The task list after the change was applied; it must not be modified.
+     * @param mutation The change that was applied.
+     */
+    default void record(List<Task> tasks, Mutation mutation) {
+        saveTasks(toArrayList(tasks));
+    }
+
+    /**
+     * Persists several changes to the task list at once.
+     * <p>
+     * The default implementation rewrites the whole list once through
+     * {@link #saveTasks(ArrayList)}. Implementations that can store changes
+     * incrementally should override this to write all records in one go.
+     * </p>
+     *
+     * @param tasks The task list after all the changes were applied; it must not be modified.
+     * @param mutations The changes that were applied, in order.
+     */
+    default void recordAll(List<Task> tasks, List<Mutation> mutations) {
+        saveTasks(toArrayList(tasks));
+    }
+
+    /**
+     * Returns whether {@link #record(List, Mutation)} persists the mutation on its own,
+     * without reading the task list.
+     *
+     * @return {@code true} if mutations are stored incrementally.
+     */
+    default boolean isIncremental() {
+        return false;
+    }
+
+    /**
+     * Blocks until every change handed to this service so far has been written.
+     * <p>
+     * The default implementation does nothing, as writes are synchronous.
+     * </p>
+     */
+    default void flush() {
+    }
+
+    private static ArrayList<Task> toArrayList(List<Task> tasks) {
+        return tasks instanceof ArrayList ? (ArrayList<Task>) tasks : new ArrayList<>(tasks);
+    }
 }
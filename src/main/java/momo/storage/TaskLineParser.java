@@ -0,0 +1,241 @@
+package momo.storage;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Deadline;
+import momo.tasks.Event;
+import momo.tasks.Task;
+import momo.tasks.Todo;
+
+/**
+ * Decodes the line-based task format shared by the storage implementations.
+ * <p>
+ * A line is produced by {@link Task#toStorageString()} and is reconstructed
+ * here into the concrete {@link Task} subtype identified by its type marker.
+ * </p>
+ */
+final class TaskLineParser {
+    private static final String ESC_PIPE = "%7C";
+    private static final String ESC_COMMA = "%2C";
+    private static final String ESC_BACKSLASH = "%5C";
+
+    private TaskLineParser() {
+    }
+
+    /**
+     * Parses a single storage line into a concrete {@link Task}.
+     * <p>
+     * Expected format examples:
+     * <ul>
+     * <li>{@code T|<status>|<title>|<tag>[|<id>]}</li>
+     * <li>{@code D|<status>|<title>|<tag>|<dueDate>[|<id>]}</li>
+     * <li>{@code E|<status>|<title>|<tag>|<startDate>|<endDate>[|<id>]}</li>
+     * </ul>
+     * Date/time fields are parsed using {@link LocalDateTime}. The trailing id is
+     * absent in files written before tasks had ids.
+     * </p>
+     *
+     * @param ptask Raw line read from storage.
+     * @return The reconstructed task.
+     * @throws StorageException If the line format is invalid or cannot be
+     * parsed.
+     */
+    static Task parse(String ptask) {
+        String[] tokens = ptask.split("\\|", -1); //Keep empty "" tag between ||
+
+        // Invalid task input
+        if (tokens.length < 4) {
+            throw new StorageException("Corrupted storage line: " + ptask);
+        }
+
+        // Get task type
+        String type = tokens[0];
+        String title = unescapeField(tokens[2]);
+
+        // Get task status
+        int status;
+        try {
+            status = Integer.parseInt(tokens[1]);
+        } catch (NumberFormatException err) {
+            throw new StorageException("Corrupted storage line: " + ptask);
+        }
+
+        //create new instance of task
+        Task task = createTask(type, tokens, title, ptask);
+
+        // Set task to complete if storage tag shows 1
+        if (status == 1) {
+            task.setComplete();
+        }
+
+        addTagsToTask(task, unescapeField(tokens[3]));
+        setIdIfPresent(task, tokens, idPosition(type), ptask);
+        return task;
+    }
+
+    private static int idPosition(String type) {
+        switch (type) {
+        case "D":
+            return 5;
+        case "E":
+            return 6;
+        default:
+            return 4;
+        }
+    }
+
+    private static void setIdIfPresent(Task task, String[] tokens, int position, String originalLine) {
+        if (tokens.length <= position || tokens[position].isEmpty()) {
+            return;
+        }
+
+        try {
+            long id = Long.parseLong(tokens[position]);
+            if (id <= 0) {
+                throw new StorageException("Corrupted task id: " + originalLine);
+            }
+            task.setId(id);
+        } catch (NumberFormatException err) {
+            throw new StorageException("Corrupted task id: " + originalLine);
+        }
+    }
+
+    /**
+     * Creates a concrete {@link Task} instance based on the task type.
+     *
+     * <p>The task type is determined by the first token in the storage line:
+     * <ul>
+     *   <li>{@code "T"} → {@link Todo}</li>
+     *   <li>{@code "D"} → {@link Deadline}</li>
+     *   <li>{@code "E"} → {@link Event}</li>
+     * </ul>
+     * </p>
+     *
+     * @param type The task type identifier.
+     * @param tokens The tokenized storage line.
+     * @param title The task title extracted from storage.
+     * @param originalLine The original storage line for error reporting.
+     * @return A concrete {@link Task} corresponding to the given type.
+     * @throws StorageException If the task type is unknown or required fields are missing.
+     */
+    private static Task createTask(String type, String[] tokens, String title, String originalLine) {
+        switch (type) {
+        case "T":
+            return createTodo(title);
+        case "D":
+            return createDeadline(tokens, title, originalLine);
+        case "E":
+            return createEvent(tokens, title, originalLine);
+        default:
+            throw new StorageException("Unknown task type: " + originalLine);
+        }
+    }
+
+    /**
+     * Creates a {@link Todo} task with the specified title.
+     *
+     * @param title The task title.
+     * @return A new {@link Todo} instance.
+     */
+    private static Todo createTodo(String title) {
+        return new Todo(title);
+    }
+
+    /**
+     * Creates a {@link Deadline} task from the given storage tokens.
+     *
+     * @param tokens The tokenized storage line.
+     * @param title The task title.
+     * @param originalLine The original storage line for error reporting.
+     * @return A new {@link Deadline} instance.
+     * @throws StorageException If the deadline format is invalid or the date/time cannot be parsed.
+     */
+    private static Task createDeadline(String[] tokens, String title, String originalLine) {
+        if (tokens.length < 5) {
+            throw new StorageException("Corrupted deadline line: " + originalLine);
+        }
+
+        try {
+            LocalDateTime dueDate = LocalDateTime.parse(tokens[4]);
+            return new Deadline(title, dueDate);
+        } catch (DateTimeParseException err) {
+            throw new StorageException("Corrupted deadline date/time: " + originalLine);
+        }
+    }
+
+    /**
+     * Creates an {@link Event} task from the given storage tokens.
+     *
+     * @param tokens The tokenized storage line.
+     * @param title The task title.
+     * @param originalLine The original storage line for error reporting.
+     * @return A new {@link Event} instance.
+     * @throws StorageException If the event format is invalid or date/time parsing fails.
+     */
+    private static Task createEvent(String[] tokens, String title, String originalLine) {
+        if (tokens.length < 6) {
+            throw new StorageException("Corrupted event line: " + originalLine);
+        }
+
+        try {
+            LocalDateTime startDate = LocalDateTime.parse(tokens[4]);
+            LocalDateTime endDate = LocalDateTime.parse(tokens[5]);
+            return new Event(title, startDate, endDate);
+        } catch (DateTimeParseException err) {
+            throw new StorageException("Corrupted event date/time: " + originalLine);
+        }
+    }
+
+    /**
+     * Parses a comma-separated tag string and adds the tags to the specified task.
+     * Blank or null tag fields are ignored.
+     *
+     * @param task The task to which the tags will be added.
+     * @param tagField The comma-separated string containing tags.
+     */
+    private static void addTagsToTask(Task task, String tagField) {
+        if (tagField == null || tagField.isBlank()) {
+            return;
+        }
+
+        String[] tags = tagField.split("\\s*,\\s*");
+        for (String i : tags) {
+            if (!i.isBlank()) {
+                task.addTag(i.trim());
+            }
+        }
+    }
+
+    /**
+     * Escapes characters in a field that would otherwise clash with the storage delimiters.
+     *
+     * @param s The string to escape.
+     * @return An escaped string.
+     */
+    static String escapeField(String s) {
+        if (s == null) {
+            return null;
+        }
+        return s.replace("\\", ESC_BACKSLASH)
+                .replace("|", ESC_PIPE)
+                .replace(",", ESC_COMMA);
+    }
+
+    /**
+     * Parses an unescape string and escapes certain special characters
+     *
+     * @param file The string to parse.
+     * @return An escaped string.
+     */
+    static String unescapeField(String s) {
+        if (s == null) {
+            return null;
+        }
+        // Reverse order of escapeField (backslash first)
+        return s.replace(ESC_BACKSLASH, "\\")
+                .replace(ESC_PIPE, "|")
+                .replace(ESC_COMMA, ",");
+    }
+}
@@ -0,0 +1,312 @@
+package momo.storage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+
+/**
+ * Decorates a {@link StorageService} so that writes happen on a background thread.
+ * <p>
+ * Saves and mutations are queued and the call returns immediately. A single writer
+ * thread waits up to the flush interval for further writes to arrive and then persists
+ * the whole burst as one batch (group commit): consecutive mutations are handed to
+ * {@link StorageService#recordAll(List, List)} together, and a full save makes
+ * every write queued before it redundant.
+ * </p>
+ * <p>
+ * {@link #flush()} blocks until everything queued so far is written, and a shutdown hook
+ * drains the queue when the JVM exits. A failure on the writer thread is rethrown by
+ * the next call made on this service.
+ * </p>
+ */
+public class WriteBehindStorage implements StorageService {
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 20;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 1_000;
+
+    private final StorageService delegate;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final Object lock = new Object();
+    private final ArrayDeque<PendingWrite> queue = new ArrayDeque<>();
+    private final Thread writerThread;
+
+    private long enqueuedCount;
+    private long writtenCount;
+    private long flushTarget;
+    private boolean isClosed;
+    private StorageException failure;
+
+    /**
+     * A write waiting in the queue: either a single mutation or a copy of the full list.
+     */
+    private static class PendingWrite {
+        private final ArrayList<Task> copy;
+        private final List<Task> tasks;
+        private final Mutation mutation;
+
+        /** Creates a full save of a copy of the list. */
+        PendingWrite(ArrayList<Task> copy) {
+            this.copy = copy;
+            this.tasks = copy;
+            this.mutation = null;
+        }
+
+        /** Creates a mutation, with the list it was applied to. */
+        PendingWrite(List<Task> tasks, Mutation mutation) {
+            this.copy = null;
+            this.tasks = tasks;
+            this.mutation = mutation;
+        }
+
+        boolean isFullSave() {
+            return mutation == null;
+        }
+    }
+
+    /**
+     * Constructs a write-behind storage with the default flush interval and batch size.
+     *
+     * @param delegate The storage service that performs the actual writes.
+     */
+    public WriteBehindStorage(StorageService delegate) {
+        this(delegate, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a write-behind storage.
+     *
+     * @param delegate The storage service that performs the actual writes.
+     * @param flushIntervalMillis How long the writer waits for a burst of writes to complete, in milliseconds.
+     * @param maxBatchSize Maximum number of queued writes persisted in one batch.
+     */
+    public WriteBehindStorage(StorageService delegate, long flushIntervalMillis, int maxBatchSize) {
+        assert flushIntervalMillis >= 0 : "flushIntervalMillis must not be negative";
+        assert maxBatchSize > 0 : "maxBatchSize must be positive";
+        this.delegate = delegate;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+
+        this.writerThread = new Thread(this::runWriter, "momo-write-behind");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "momo-write-behind-drain"));
+    }
+
+    /**
+     * Loads tasks from the delegate once all queued writes have been persisted.
+     *
+     * @return {@code ArrayList} of tasks retrieved from storage.
+     */
+    @Override
+    public ArrayList<Task> loadTasks() {
+        flush();
+        return delegate.loadTasks();
+    }
+
+    /**
+     * Queues a copy of the list to be saved in full.
+     *
+     * @param tasks The tasks to be persisted.
+     * @throws StorageException If an earlier background write failed.
+     */
+    @Override
+    public void saveTasks(ArrayList<Task> tasks) {
+        enqueue(List.of(new PendingWrite(new ArrayList<>(tasks))));
+    }
+
+    /**
+     * Queues a mutation to be recorded.
+     * <p>
+     * If the delegate is not incremental, a copy of the list is queued instead so
+     * that the writer thread never reads the live list.
+     * </p>
+     *
+     * @param tasks The task list after the change was applied.
+     * @param mutation The change that was applied.
+     * @throws StorageException If an earlier background write failed.
+     */
+    @Override
+    public void record(List<Task> tasks, Mutation mutation) {
+        recordAll(tasks, List.of(mutation));
+    }
+
+    /**
+     * Queues several mutations to be recorded, in order.
+     * <p>
+     * If the delegate is not incremental, a single copy of the list is queued instead.
+     * </p>
+     *
+     * @param tasks The task list after the changes were applied.
+     * @param mutations The changes that were applied, in order.
+     * @throws StorageException If an earlier background write failed.
+     */
+    @Override
+    public void recordAll(List<Task> tasks, List<Mutation> mutations) {
+        if (!delegate.isIncremental()) {
+            enqueue(List.of(new PendingWrite(new ArrayList<>(tasks))));
+            return;
+        }
+        List<PendingWrite> writes = new ArrayList<>(mutations.size());
+        for (Mutation mutation : mutations) {
+            writes.add(new PendingWrite(tasks, mutation));
+        }
+        enqueue(writes);
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return delegate.isIncremental();
+    }
+
+    /**
+     * Blocks until every write queued before this call has been persisted.
+     *
+     * @throws StorageException If a background write failed or the writer thread stopped before persisting them.
+     */
+    @Override
+    public void flush() {
+        synchronized (lock) {
+            long target = enqueuedCount;
+            flushTarget = Math.max(flushTarget, target);
+            lock.notifyAll();
+
+            while (writtenCount < target && failure == null && writerThread.isAlive()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException err) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            throwIfFailed();
+            if (writtenCount < target && !writerThread.isAlive()) {
+                throw new StorageException("Background writer stopped before all changes were saved");
+            }
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Drains the queue and stops the writer thread. Later writes are rejected.
+     */
+    public void close() {
+        synchronized (lock) {
+            isClosed = true;
+            lock.notifyAll();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(List<PendingWrite> writes) {
+        synchronized (lock) {
+            throwIfFailed();
+            if (isClosed) {
+                throw new StorageException("Storage has already been closed");
+            }
+            queue.addAll(writes);
+            enqueuedCount += writes.size();
+            if (queue.size() == writes.size() || queue.size() >= maxBatchSize) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            List<PendingWrite> batch = takeBatch();
+            if (batch == null) {
+                return;
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (StorageException err) {
+                synchronized (lock) {
+                    failure = err;
+                }
+            } catch (RuntimeException err) {
+                synchronized (lock) {
+                    failure = new StorageException("Background write failed: " + err);
+                }
+            } finally {
+                synchronized (lock) {
+                    writtenCount += batch.size();
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for a burst of writes and removes it from the queue.
+     *
+     * @return The writes to persist, or {@code null} once the storage is closed and drained.
+     */
+    private List<PendingWrite> takeBatch() {
+        synchronized (lock) {
+            try {
+                while (queue.isEmpty() && !isClosed) {
+                    lock.wait();
+                }
+                if (queue.isEmpty()) {
+                    return null;
+                }
+
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                long remaining = flushIntervalMillis;
+                while (remaining > 0 && !isClosed && queue.size() < maxBatchSize
+                        && flushTarget <= writtenCount) {
+                    lock.wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            } catch (InterruptedException err) {
+                Thread.currentThread().interrupt();
+            }
+
+            List<PendingWrite> batch = new ArrayList<>();
+            while (!queue.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(queue.poll());
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Persists a batch, skipping every write made redundant by a later full save.
+     *
+     * @param batch Queued writes in the order they were made.
+     */
+    private void writeBatch(List<PendingWrite> batch) {
+        int start = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (batch.get(i).isFullSave()) {
+                delegate.saveTasks(batch.get(i).copy);
+                start = i + 1;
+                break;
+            }
+        }
+
+        if (start == batch.size()) {
+            return;
+        }
+
+        List<Mutation> mutations = new ArrayList<>();
+        for (PendingWrite write : batch.subList(start, batch.size())) {
+            mutations.add(write.mutation);
+        }
+        delegate.recordAll(batch.get(batch.size() - 1).tasks, mutations);
+    }
+}
@@ -0,0 +1,294 @@
+package momo.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import momo.exceptions.MomoException;
+import momo.storage.StorageService;
+
+/**
+ * A {@link TaskManager} that can be shared by several sessions at once, such as the
+ * GUI, the CLI and scripted clients.
+ * <p>
+ * Every change takes the write lock of a {@link StampedLock}, so changes are applied
+ * and recorded in storage one at a time, in one order that every session observes.
+ * Looking up the size of the list or a task by id is an optimistic read that takes no
+ * lock at all unless a change happens at the same moment. Listing reads the published
+ * {@link TaskSnapshot} and takes no lock either. Searches take the read lock, which any
+ * number of readers may hold together.
+ * </p>
+ * <p>
+ * A change addressed by position is looked up and applied under the same write lock,
+ * so it always acts on the task that was at that position. A change addressed by id
+ * fails with a {@link MomoException} if another session removed the task first.
+ * </p>
+ */
+public class ConcurrentTaskManager extends TaskManager {
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Constructs a concurrent task manager using the default storage implementation.
+     */
+    public ConcurrentTaskManager() {
+        super();
+    }
+
+    /**
+     * Constructs a concurrent task manager with a provided storage service.
+     *
+     * @param storage The storage service to use.
+     */
+    public ConcurrentTaskManager(StorageService storage) {
+        super(storage);
+    }
+
+    @Override
+    public void addTask(Task task) {
+        write(() -> {
+            super.addTask(task);
+            return null;
+        });
+    }
+
+    @Override
+    public Task removeTask(int i) {
+        return write(() -> super.removeTaskById(super.getTask(i).getId()));
+    }
+
+    @Override
+    public Task removeTaskById(long id) {
+        return write(() -> super.removeTaskById(requirePresent(id)));
+    }
+
+    @Override
+    public ArrayList<Task> removeTasksById(long[] ids) {
+        return write(() -> super.removeTasksById(requireAllPresent(ids)));
+    }
+
+    @Override
+    public Task markTask(int i) {
+        return write(() -> super.markTaskById(super.getTask(i).getId()));
+    }
+
+    @Override
+    public Task markTaskById(long id) {
+        return write(() -> super.markTaskById(requirePresent(id)));
+    }
+
+    @Override
+    public ArrayList<Task> markTasksById(long[] ids) {
+        return write(() -> super.markTasksById(requireAllPresent(ids)));
+    }
+
+    @Override
+    public Task unmarkTask(int i) {
+        return write(() -> super.unmarkTaskById(super.getTask(i).getId()));
+    }
+
+    @Override
+    public Task unmarkTaskById(long id) {
+        return write(() -> super.unmarkTaskById(requirePresent(id)));
+    }
+
+    @Override
+    public ArrayList<Task> unmarkTasksById(long[] ids) {
+        return write(() -> super.unmarkTasksById(requireAllPresent(ids)));
+    }
+
+    @Override
+    public Task tagTask(int i, String tag) {
+        return write(() -> super.tagTaskById(super.getTask(i).getId(), tag));
+    }
+
+    @Override
+    public Task tagTaskById(long id, String tag) {
+        return write(() -> super.tagTaskById(requirePresent(id), tag));
+    }
+
+    @Override
+    public ArrayList<Task> tagTasksById(long[] ids, List<String> tags) {
+        return write(() -> super.tagTasksById(requireAllPresent(ids), tags));
+    }
+
+    @Override
+    public Task untagTask(int i, String tag) {
+        return write(() -> super.untagTaskById(super.getTask(i).getId(), tag));
+    }
+
+    @Override
+    public Task untagTaskById(long id, String tag) {
+        return write(() -> super.untagTaskById(requirePresent(id), tag));
+    }
+
+    @Override
+    public ArrayList<Task> untagTasksById(long[] ids, String tag) {
+        return write(() -> super.untagTasksById(requireAllPresent(ids), tag));
+    }
+
+    @Override
+    public void save() {
+        write(() -> {
+            super.save();
+            return null;
+        });
+    }
+
+    @Override
+    public void beginBatch() {
+        write(() -> {
+            super.beginBatch();
+            return null;
+        });
+    }
+
+    @Override
+    public void commitBatch() {
+        write(() -> {
+            super.commitBatch();
+            return null;
+        });
+    }
+
+    @Override
+    public void endBatch() {
+        write(() -> {
+            super.endBatch();
+            return null;
+        });
+    }
+
+    @Override
+    public int getBatchedChangeCount() {
+        return readOptimistically(super::getBatchedChangeCount);
+    }
+
+    @Override
+    public Task getTask(int i) {
+        return readOptimistically(() -> super.getTask(i));
+    }
+
+    @Override
+    public Task getTaskById(long id) {
+        return readOptimistically(() -> super.getTaskById(id));
+    }
+
+    @Override
+    public int getTaskListSize() {
+        return readOptimistically(super::getTaskListSize);
+    }
+
+    @Override
+    public ArrayList<Task> findTasksByTitle(String keyword) {
+        return read(() -> super.findTasksByTitle(keyword));
+    }
+
+    @Override
+    public ArrayList<Task> findTasksByTag(String keyword) {
+        return read(() -> super.findTasksByTag(keyword));
+    }
+
+    @Override
+    public ArrayList<Task> findTasksByAllTags(List<String> tags) {
+        return read(() -> super.findTasksByAllTags(tags));
+    }
+
+    @Override
+    public ArrayList<Task> findTasksByAnyTag(List<String> tags) {
+        return read(() -> super.findTasksByAnyTag(tags));
+    }
+
+    @Override
+    public ArrayList<Task> findTasks(Query query) {
+        return read(() -> super.findTasks(query));
+    }
+
+    @Override
+    public ArrayList<Task> findEventsBetween(LocalDateTime from, LocalDateTime to) {
+        return read(() -> super.findEventsBetween(from, to));
+    }
+
+    @Override
+    public ArrayList<Task> findEventsOverlapping(Event event) {
+        return read(() -> super.findEventsOverlapping(event));
+    }
+
+    @Override
+    public ArrayList<TimeSlot> findFreeSlots(LocalDateTime from, LocalDateTime to, Duration minLength) {
+        return read(() -> super.findFreeSlots(from, to, minLength));
+    }
+
+    @Override
+    public ArrayList<Task> findUpcomingDeadlines(LocalDateTime now, int limit) {
+        return read(() -> super.findUpcomingDeadlines(now, limit));
+    }
+
+    @Override
+    public ArrayList<Task> findOverdueDeadlines(LocalDateTime now) {
+        return read(() -> super.findOverdueDeadlines(now));
+    }
+
+    private long requirePresent(long id) {
+        if (super.getTaskById(id) == null) {
+            throw new MomoException("Eeek >.<! Task #" + id + " was just removed in another session");
+        }
+        return id;
+    }
+
+    /**
+     * Checks that every task is still there before any of them is changed, so a bulk
+     * change is applied to all of the tasks or to none.
+     */
+    private long[] requireAllPresent(long[] ids) {
+        for (long id : ids) {
+            requirePresent(id);
+        }
+        return ids;
+    }
+
+    private <T> T write(Supplier<T> action) {
+        long stamp = lock.writeLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private <T> T read(Supplier<T> query) {
+        long stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a short query without locking, and again under the read lock if a change
+     * happened at the same time.
+     * <p>
+     * A query overlapping a change may see the indexes half-updated, and may even fail,
+     * so its result or failure only counts if no change happened meanwhile.
+     * </p>
+     */
+    private <T> T readOptimistically(Supplier<T> query) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = query.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException err) {
+                if (lock.validate(stamp)) {
+                    throw err;
+                }
+            }
+        }
+        return read(query);
+    }
+}
@@ -29,16 +29,21 @@ public class Deadline extends Task {
         this.dueDate = dueDate;
     }
 
+    public LocalDateTime getDueDate() {
+        return this.dueDate;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * This implementation prefixes the base task storage format with {@code "D"} to identify the task as deadline
-     * and appends the due date/time value.
+     * and appends the due date/time value, followed by the id field if an id has been assigned.
      * </p>
      */
     @Override
     public String toStorageString() {
-        return (TASK_SYMBOL + super.toStorageString() + "|" + this.dueDate.toString());
+        return (TASK_SYMBOL + super.toStorageString() + "|" + this.dueDate.toString()
+                + getStorageIdField());
     }
 
     /**
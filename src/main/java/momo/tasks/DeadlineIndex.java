@@ -0,0 +1,170 @@
+package momo.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Deadlines ordered by due date/time, so the next or overdue ones can be listed without
+ * sorting the task list.
+ * <p>
+ * The index is a concurrent skip list keyed by due date/time and task id, so readers
+ * may walk it while it is being updated. Finding the first deadline due at or after a
+ * moment takes O(log n), and each further result is the next entry of the list.
+ * Incomplete deadlines are also kept in a list of their own, and {@link TaskManager}
+ * moves a deadline in or out of it when it is marked or unmarked.
+ * </p>
+ */
+final class DeadlineIndex {
+    private final ConcurrentSkipListMap<DueKey, Deadline> deadlines = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<DueKey, Deadline> allDeadlines = new ConcurrentSkipListMap<>();
+
+    /**
+     * Position of a deadline in the index: due date/time, ties broken by id.
+     */
+    private static final class DueKey implements Comparable<DueKey> {
+        private final LocalDateTime dueDate;
+        private final long id;
+
+        DueKey(LocalDateTime dueDate, long id) {
+            this.dueDate = dueDate;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(DueKey other) {
+            int cmp = dueDate.compareTo(other.dueDate);
+            return cmp != 0 ? cmp : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Indexes a task if it is a deadline, as incomplete only while it is not marked done.
+     *
+     * @param task The added or updated task.
+     */
+    void update(Task task) {
+        if (!(task instanceof Deadline)) {
+            return;
+        }
+        Deadline deadline = (Deadline) task;
+        allDeadlines.put(keyOf(deadline), deadline);
+        if (deadline.isComplete()) {
+            deadlines.remove(keyOf(deadline));
+        } else {
+            deadlines.put(keyOf(deadline), deadline);
+        }
+    }
+
+    /**
+     * Removes a task from the index if it is a deadline.
+     *
+     * @param task The removed task.
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline) {
+            deadlines.remove(keyOf((Deadline) task));
+            allDeadlines.remove(keyOf((Deadline) task));
+        }
+    }
+
+    /**
+     * Rebuilds the index from scratch.
+     *
+     * @param tasks Every task to index; {@code null} entries are skipped.
+     */
+    void rebuild(Iterable<Task> tasks) {
+        deadlines.clear();
+        allDeadlines.clear();
+        for (Task task : tasks) {
+            if (task != null) {
+                update(task);
+            }
+        }
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Returns the number of deadlines, completed or not.
+     */
+    int sizeOfAll() {
+        return allDeadlines.size();
+    }
+
+    /**
+     * Returns the deadlines due within a period, both ends inclusive.
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @param isIncompleteOnly Whether to leave out completed deadlines.
+     * @return Deadlines due in the period, soonest first.
+     */
+    ArrayList<Task> findDueBetween(LocalDateTime from, LocalDateTime to, boolean isIncompleteOnly) {
+        return new ArrayList<>(dueBetween(from, to, isIncompleteOnly).values());
+    }
+
+    /**
+     * Counts the deadlines due within a period, both ends inclusive, up to a limit.
+     * <p>
+     * Counting stops at the limit, so checking whether a period holds fewer than a few
+     * deadlines stays cheap however many are due in it.
+     * </p>
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @param isIncompleteOnly Whether to leave out completed deadlines.
+     * @param limit Count at which to stop.
+     * @return The number of deadlines due in the period, or {@code limit} if there are more.
+     */
+    int countDueBetween(LocalDateTime from, LocalDateTime to, boolean isIncompleteOnly, int limit) {
+        int count = 0;
+        for (DueKey ignored : dueBetween(from, to, isIncompleteOnly).keySet()) {
+            if (++count >= limit) {
+                break;
+            }
+        }
+        return Math.min(count, limit);
+    }
+
+    private ConcurrentNavigableMap<DueKey, Deadline> dueBetween(LocalDateTime from, LocalDateTime to,
+            boolean isIncompleteOnly) {
+        ConcurrentSkipListMap<DueKey, Deadline> index = isIncompleteOnly ? deadlines : allDeadlines;
+        return index.subMap(new DueKey(from, Long.MIN_VALUE), true, new DueKey(to, Long.MAX_VALUE), true);
+    }
+
+    /**
+     * Returns the first incomplete deadlines due at or after a moment.
+     *
+     * @param now The moment to count from.
+     * @param limit Maximum number of deadlines to return.
+     * @return Up to {@code limit} deadlines, soonest first.
+     */
+    ArrayList<Task> findUpcoming(LocalDateTime now, int limit) {
+        ArrayList<Task> results = new ArrayList<>(Math.min(limit, 16));
+        for (Deadline deadline : deadlines.tailMap(new DueKey(now, Long.MIN_VALUE)).values()) {
+            if (results.size() == limit) {
+                break;
+            }
+            results.add(deadline);
+        }
+        return results;
+    }
+
+    /**
+     * Returns every incomplete deadline due before a moment.
+     *
+     * @param now The moment to compare against.
+     * @return Overdue deadlines, longest overdue first.
+     */
+    ArrayList<Task> findOverdue(LocalDateTime now) {
+        return new ArrayList<>(deadlines.headMap(new DueKey(now, Long.MIN_VALUE)).values());
+    }
+
+    private static DueKey keyOf(Deadline deadline) {
+        return new DueKey(deadline.getDueDate(), deadline.getId());
+    }
+}
@@ -33,17 +33,26 @@ public class Event extends Task {
         this.endDate = endDate;
     }
 
+    public LocalDateTime getStartDate() {
+        return this.startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return this.endDate;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * This implementation prefixes the base task storage format with {@code "E"} to identify the task as event
-     * and appends the start and end date/time values {@code <startDate>|<endDate>}.
+     * and appends the start and end date/time values {@code <startDate>|<endDate>}, followed by the id field
+     * if an id has been assigned.
      * </p>
      */
     @Override
     public String toStorageString() {
         return (TASK_SYMBOL + super.toStorageString() + "|"
-                + this.startDate.toString() + "|" + this.endDate.toString());
+                + this.startDate.toString() + "|" + this.endDate.toString() + getStorageIdField());
     }
 
     /**
@@ -0,0 +1,270 @@
+package momo.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Interval tree over events, answering which events overlap a period of time.
+ * <p>
+ * Events are kept in a treap ordered by start date/time (ties broken by id), and every
+ * node also records the latest end date/time in its subtree. A query skips every subtree
+ * whose latest end is before the period and every right subtree starting after it, so it
+ * runs in O(log n + k) expected time for k results. Node priorities are derived from
+ * task ids, which keeps the tree balanced in expectation without a random source.
+ * </p>
+ */
+final class EventIntervalTree {
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private final Event event;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Event event) {
+            this.event = event;
+            this.priority = TreapPriority.of(event.getId());
+            this.maxEnd = event.getEndDate();
+        }
+    }
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event The event to add.
+     */
+    void add(Event event) {
+        root = insert(root, new Node(event));
+        size++;
+    }
+
+    /**
+     * Removes an event from the tree.
+     *
+     * @param event The event to remove.
+     * @return {@code true} if the event was in the tree.
+     */
+    boolean remove(Event event) {
+        int before = size;
+        root = delete(root, event);
+        return size < before;
+    }
+
+    /**
+     * Removes every event and adds the events among the given tasks.
+     *
+     * @param tasks Tasks to index; {@code null} entries and non-events are skipped.
+     */
+    void rebuild(Iterable<Task> tasks) {
+        root = null;
+        size = 0;
+        for (Task task : tasks) {
+            if (task instanceof Event) {
+                add((Event) task);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the events that overlap the given period, both ends inclusive.
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @return Overlapping events ordered by start date/time.
+     */
+    ArrayList<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Event> results = new ArrayList<>();
+        collect(root, from, to, results);
+        return results;
+    }
+
+    /**
+     * Returns the events starting within the given period, both ends inclusive.
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @return Events starting in the period ordered by start date/time.
+     */
+    ArrayList<Event> findStartingBetween(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Event> results = new ArrayList<>();
+        collectStarting(root, from, to, results, Integer.MAX_VALUE);
+        return results;
+    }
+
+    /**
+     * Counts the events starting within the given period, up to a limit.
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @param limit Count at which to stop.
+     * @return The number of events starting in the period, or {@code limit} if there are more.
+     */
+    int countStartingBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        return collectStarting(root, from, to, null, limit);
+    }
+
+    /**
+     * Counts the events that overlap the given period, up to a limit.
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @param limit Count at which to stop.
+     * @return The number of overlapping events, or {@code limit} if there are more.
+     */
+    int countOverlapping(LocalDateTime from, LocalDateTime to, int limit) {
+        int[] count = new int[1];
+        count(root, from, to, count, limit);
+        return Math.min(count[0], limit);
+    }
+
+    /**
+     * Walks the events starting in a period in order, adding them to {@code results} if it
+     * is not {@code null}, and stops once {@code limit} have been seen.
+     *
+     * @return The number of events seen, at most {@code limit}.
+     */
+    private static int collectStarting(Node node, LocalDateTime from, LocalDateTime to, ArrayList<Event> results,
+            int limit) {
+        int seen = 0;
+        while (node != null && seen < limit) {
+            LocalDateTime start = node.event.getStartDate();
+            if (start.isBefore(from)) {
+                node = node.right;
+            } else if (start.isAfter(to)) {
+                node = node.left;
+            } else {
+                seen += collectStarting(node.left, from, to, results, limit - seen);
+                if (seen < limit) {
+                    if (results != null) {
+                        results.add(node.event);
+                    }
+                    seen++;
+                }
+                node = node.right;
+            }
+        }
+        return seen;
+    }
+
+    private static void count(Node node, LocalDateTime from, LocalDateTime to, int[] count, int limit) {
+        while (node != null && count[0] < limit && !node.maxEnd.isBefore(from)) {
+            count(node.left, from, to, count, limit);
+            if (node.event.getStartDate().isAfter(to)) {
+                return;
+            }
+            if (!node.event.getEndDate().isBefore(from)) {
+                count[0]++;
+            }
+            node = node.right;
+        }
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, ArrayList<Event> results) {
+        while (node != null && !node.maxEnd.isBefore(from)) {
+            collect(node.left, from, to, results);
+            if (node.event.getStartDate().isAfter(to)) {
+                return; // everything to the right starts even later
+            }
+            if (!node.event.getEndDate().isBefore(from)) {
+                results.add(node.event);
+            }
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+
+        if (compare(added.event, node.event) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, Event event) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(event, node.event);
+        if (cmp < 0) {
+            node.left = delete(node.left, event);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, event);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = node.event.getEndDate();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(Event a, Event b) {
+        int cmp = a.getStartDate().compareTo(b.getStartDate());
+        return cmp != 0 ? cmp : Long.compare(a.getId(), b.getId());
+    }
+}
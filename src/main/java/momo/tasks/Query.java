@@ -0,0 +1,308 @@
+package momo.tasks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A filter over tasks, built as a tree of conditions joined by and, or and not.
+ * <p>
+ * A query can test any task on its own with {@link #matches(Task)}, but
+ * {@link TaskManager#findTasks(Query)} hands it to a planner that reads its conditions
+ * to pick the most selective index to start from, so most of the list is never visited.
+ * </p>
+ */
+public abstract class Query {
+    /**
+     * Returns whether a task satisfies this query.
+     *
+     * @param task The task to test.
+     * @return {@code true} if the task matches.
+     */
+    public abstract boolean matches(Task task);
+
+    /**
+     * Returns a query matched by tasks that match every one of the given queries.
+     *
+     * @param parts The queries that must all match.
+     * @return The query.
+     */
+    public static Query allOf(List<Query> parts) {
+        return parts.size() == 1 ? parts.get(0) : new And(parts);
+    }
+
+    /**
+     * Returns a query matched by tasks that match at least one of the given queries.
+     *
+     * @param parts The queries of which any may match.
+     * @return The query.
+     */
+    public static Query anyOf(List<Query> parts) {
+        return parts.size() == 1 ? parts.get(0) : new Or(parts);
+    }
+
+    /**
+     * Returns a query matched by tasks that do not match the given query.
+     *
+     * @param part The query to negate.
+     * @return The query.
+     */
+    public static Query not(Query part) {
+        return new Not(part);
+    }
+
+    /**
+     * Returns a query matched by tasks carrying a tag.
+     *
+     * @param tag The tag, compared exactly.
+     * @return The query.
+     */
+    public static Query tag(String tag) {
+        return new Tag(tag);
+    }
+
+    /**
+     * Returns a query matched by tasks whose title contains a keyword, ignoring case.
+     *
+     * @param keyword The keyword.
+     * @return The query.
+     */
+    public static Query title(String keyword) {
+        return new Title(keyword.toLowerCase());
+    }
+
+    /**
+     * Returns a query matched by tasks of one type.
+     *
+     * @param type {@link Todo}, {@link Deadline} or {@link Event}.
+     * @return The query.
+     */
+    public static Query type(Class<? extends Task> type) {
+        return new Type(type);
+    }
+
+    /**
+     * Returns a query matched by completed or by incomplete tasks.
+     *
+     * @param isComplete Whether matching tasks are completed.
+     * @return The query.
+     */
+    public static Query done(boolean isComplete) {
+        return new Done(isComplete);
+    }
+
+    /**
+     * Returns a query matched by deadlines due within a period, both ends inclusive.
+     *
+     * @param from Start of the period, or {@code null} for no start.
+     * @param to End of the period, or {@code null} for no end.
+     * @return The query.
+     */
+    public static Query due(LocalDateTime from, LocalDateTime to) {
+        return new Dated(DateField.DUE, from, to);
+    }
+
+    /**
+     * Returns a query matched by events starting within a period, both ends inclusive.
+     *
+     * @param from Start of the period, or {@code null} for no start.
+     * @param to End of the period, or {@code null} for no end.
+     * @return The query.
+     */
+    public static Query starts(LocalDateTime from, LocalDateTime to) {
+        return new Dated(DateField.START, from, to);
+    }
+
+    /**
+     * Returns a query matched by events ending within a period, both ends inclusive.
+     *
+     * @param from Start of the period, or {@code null} for no start.
+     * @param to End of the period, or {@code null} for no end.
+     * @return The query.
+     */
+    public static Query ends(LocalDateTime from, LocalDateTime to) {
+        return new Dated(DateField.END, from, to);
+    }
+
+    /**
+     * Returns a rough relative cost of {@link #matches(Task)}, used to test cheap conditions first.
+     */
+    abstract int cost();
+
+    static final class And extends Query {
+        final List<Query> parts;
+
+        And(List<Query> parts) {
+            this.parts = List.copyOf(parts);
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            for (Query part : parts) {
+                if (!part.matches(task)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int cost() {
+            return parts.stream().mapToInt(Query::cost).sum();
+        }
+    }
+
+    static final class Or extends Query {
+        final List<Query> parts;
+
+        Or(List<Query> parts) {
+            this.parts = List.copyOf(parts);
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            for (Query part : parts) {
+                if (part.matches(task)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int cost() {
+            return parts.stream().mapToInt(Query::cost).sum();
+        }
+    }
+
+    static final class Not extends Query {
+        final Query part;
+
+        Not(Query part) {
+            this.part = part;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return !part.matches(task);
+        }
+
+        @Override
+        int cost() {
+            return part.cost();
+        }
+    }
+
+    static final class Tag extends Query {
+        final String tag;
+
+        Tag(String tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return task.hasTag(tag);
+        }
+
+        @Override
+        int cost() {
+            return 2;
+        }
+    }
+
+    static final class Title extends Query {
+        final String lowerCaseKeyword;
+
+        Title(String lowerCaseKeyword) {
+            this.lowerCaseKeyword = lowerCaseKeyword;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return task.containsLowerCaseKeyword(lowerCaseKeyword);
+        }
+
+        @Override
+        int cost() {
+            return 4;
+        }
+    }
+
+    static final class Type extends Query {
+        final Class<? extends Task> type;
+
+        Type(Class<? extends Task> type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return type.isInstance(task);
+        }
+
+        @Override
+        int cost() {
+            return 1;
+        }
+    }
+
+    static final class Done extends Query {
+        final boolean isComplete;
+
+        Done(boolean isComplete) {
+            this.isComplete = isComplete;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return task.isComplete() == isComplete;
+        }
+
+        @Override
+        int cost() {
+            return 1;
+        }
+    }
+
+    /**
+     * Date/time of a task that a {@link Dated} query compares.
+     */
+    enum DateField {
+        DUE, START, END
+    }
+
+    static final class Dated extends Query {
+        final DateField field;
+        final LocalDateTime from;
+        final LocalDateTime to;
+
+        Dated(DateField field, LocalDateTime from, LocalDateTime to) {
+            assert from == null || to == null || !to.isBefore(from) : "Period must not end before it starts";
+            this.field = field;
+            this.from = from == null ? LocalDateTime.MIN : from;
+            this.to = to == null ? LocalDateTime.MAX : to;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            LocalDateTime value = valueOf(task);
+            return value != null && !value.isBefore(from) && !value.isAfter(to);
+        }
+
+        private LocalDateTime valueOf(Task task) {
+            switch (field) {
+            case DUE:
+                return task instanceof Deadline ? ((Deadline) task).getDueDate() : null;
+            case START:
+                return task instanceof Event ? ((Event) task).getStartDate() : null;
+            default:
+                return task instanceof Event ? ((Event) task).getEndDate() : null;
+            }
+        }
+
+        @Override
+        int cost() {
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package momo.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Chooses how to run a {@link Query} against the indexes of a {@link TaskManager}.
+ * <p>
+ * The conditions that a query joins with and are each matched against the indexes: a
+ * tag against the tag index, a title keyword against the trigram index, a due date
+ * range against the deadline index, a start or end date range against the event
+ * interval tree, and a type against the event tree or deadline index. An or qualifies
+ * if every one of its branches does. Each candidate index reports how many tasks it
+ * would return, counting no further than the best found so far, and the smallest one
+ * is read. The other conditions are then checked on just those tasks, cheapest first.
+ * If no index would return fewer tasks than the list holds, the list is scanned.
+ * </p>
+ */
+final class QueryPlanner {
+    private final TagIndex tagIndex;
+    private final TitleIndex titleIndex;
+    private final EventIntervalTree eventIndex;
+    private final DeadlineIndex deadlineIndex;
+
+    QueryPlanner(TagIndex tagIndex, TitleIndex titleIndex, EventIntervalTree eventIndex,
+            DeadlineIndex deadlineIndex) {
+        this.tagIndex = tagIndex;
+        this.titleIndex = titleIndex;
+        this.eventIndex = eventIndex;
+        this.deadlineIndex = deadlineIndex;
+    }
+
+    /**
+     * A chosen way of running a query: where its candidates come from and what they are checked against.
+     */
+    static final class Plan {
+        private final AccessPath access;
+        private final Query filter;
+
+        private Plan(AccessPath access, Query filter) {
+            this.access = access;
+            this.filter = filter;
+        }
+
+        /**
+         * Returns a short description of the plan, e.g. {@code tag index #cs}.
+         */
+        String describe() {
+            return access == null ? "full scan" : access.describe();
+        }
+
+        /**
+         * Runs the plan.
+         *
+         * @param allTasks Every task, in list order; used only by a full scan, and
+         *     {@code null} entries are skipped.
+         * @return The matching tasks in list order.
+         */
+        ArrayList<Task> run(List<Task> allTasks) {
+            Collection<? extends Task> candidates = access == null ? allTasks : access.fetch();
+            ArrayList<Task> results = new ArrayList<>();
+            for (Task task : candidates) {
+                if (task != null && (filter == null || filter.matches(task))) {
+                    results.add(task);
+                }
+            }
+            if (access != null && !access.isInIdOrder()) {
+                results.sort(Comparator.comparingLong(Task::getId));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * An index lookup that yields every task matching one condition, and possibly a few more.
+     */
+    private abstract static class AccessPath {
+        /**
+         * Returns how many tasks {@link #fetch()} would return, or {@code limit} if at least that many.
+         */
+        abstract int estimate(int limit);
+
+        abstract Collection<? extends Task> fetch();
+
+        abstract String describe();
+
+        /** Returns whether {@link #fetch()} returns only tasks matching the condition. */
+        boolean isExact() {
+            return true;
+        }
+
+        boolean isInIdOrder() {
+            return false;
+        }
+    }
+
+    /**
+     * Plans a query.
+     *
+     * @param query The query to run.
+     * @param taskCount Number of tasks in the list, the cost of a full scan.
+     * @return The plan.
+     */
+    Plan plan(Query query, int taskCount) {
+        List<Query> conjuncts = new ArrayList<>();
+        flatten(query, conjuncts);
+        boolean isIncompleteOnly = conjuncts.stream()
+                .anyMatch(part -> part instanceof Query.Done && !((Query.Done) part).isComplete);
+
+        AccessPath best = null;
+        Query bestConjunct = null;
+        int bestEstimate = taskCount;
+        // Date ranges are counted entry by entry up to the best so far, so count them last
+        List<Query> byEstimateCost = new ArrayList<>(conjuncts);
+        byEstimateCost.sort(Comparator.comparingInt(part -> part instanceof Query.Dated || part instanceof Query.Or
+                ? 1 : 0));
+        for (Query conjunct : byEstimateCost) {
+            if (bestEstimate == 0) {
+                break;
+            }
+            AccessPath path = pathFor(conjunct, isIncompleteOnly);
+            if (path == null) {
+                continue;
+            }
+            int estimate = path.estimate(bestEstimate);
+            if (estimate < bestEstimate) {
+                best = path;
+                bestConjunct = conjunct;
+                bestEstimate = estimate;
+            }
+        }
+
+        List<Query> remaining = new ArrayList<>(conjuncts);
+        if (best != null && best.isExact()) {
+            remaining.remove(bestConjunct);
+        }
+        remaining.sort(Comparator.comparingInt(Query::cost));
+        return new Plan(best, remaining.isEmpty() ? null : Query.allOf(remaining));
+    }
+
+    private static void flatten(Query query, List<Query> conjuncts) {
+        if (query instanceof Query.And) {
+            for (Query part : ((Query.And) query).parts) {
+                flatten(part, conjuncts);
+            }
+        } else {
+            conjuncts.add(query);
+        }
+    }
+
+    /**
+     * Returns the index lookup for one condition, or {@code null} if no index covers it.
+     */
+    private AccessPath pathFor(Query condition, boolean isIncompleteOnly) {
+        if (condition instanceof Query.Tag) {
+            return tagPath(((Query.Tag) condition).tag);
+        } else if (condition instanceof Query.Title) {
+            return titlePath(((Query.Title) condition).lowerCaseKeyword);
+        } else if (condition instanceof Query.Dated) {
+            return datePath((Query.Dated) condition, isIncompleteOnly);
+        } else if (condition instanceof Query.Type) {
+            return typePath(((Query.Type) condition).type, isIncompleteOnly);
+        } else if (condition instanceof Query.Or) {
+            List<AccessPath> branches = new ArrayList<>();
+            for (Query part : ((Query.Or) condition).parts) {
+                AccessPath branch = pathFor(part, isIncompleteOnly);
+                if (branch == null) {
+                    return null;
+                }
+                branches.add(branch);
+            }
+            return unionPath(branches);
+        }
+        return null;
+    }
+
+    private AccessPath tagPath(String tag) {
+        return new AccessPath() {
+            @Override
+            int estimate(int limit) {
+                return Math.min(tagIndex.count(tag), limit);
+            }
+
+            @Override
+            Collection<? extends Task> fetch() {
+                return tagIndex.findAll(List.of(tag));
+            }
+
+            @Override
+            String describe() {
+                return "tag index #" + tag;
+            }
+
+            @Override
+            boolean isInIdOrder() {
+                return true;
+            }
+        };
+    }
+
+    private AccessPath titlePath(String lowerCaseKeyword) {
+        if (titleIndex.estimate(lowerCaseKeyword) < 0) {
+            return null;
+        }
+        return new AccessPath() {
+            @Override
+            int estimate(int limit) {
+                return Math.min(titleIndex.estimate(lowerCaseKeyword), limit);
+            }
+
+            @Override
+            Collection<? extends Task> fetch() {
+                return titleIndex.candidates(lowerCaseKeyword);
+            }
+
+            @Override
+            String describe() {
+                return "title index \"" + lowerCaseKeyword + "\"";
+            }
+
+            @Override
+            boolean isExact() {
+                return false; // trigrams may occur apart
+            }
+
+            @Override
+            boolean isInIdOrder() {
+                return true;
+            }
+        };
+    }
+
+    private AccessPath datePath(Query.Dated condition, boolean isIncompleteOnly) {
+        LocalDateTime from = condition.from;
+        LocalDateTime to = condition.to;
+        switch (condition.field) {
+        case DUE:
+            return dueDatePath(from, to, isIncompleteOnly, "due date index");
+        case START:
+            return new AccessPath() {
+                @Override
+                int estimate(int limit) {
+                    return eventIndex.countStartingBetween(from, to, limit);
+                }
+
+                @Override
+                Collection<? extends Task> fetch() {
+                    return eventIndex.findStartingBetween(from, to);
+                }
+
+                @Override
+                String describe() {
+                    return "event index by start";
+                }
+            };
+        default:
+            return new AccessPath() {
+                @Override
+                int estimate(int limit) {
+                    return eventIndex.countOverlapping(from, to, limit);
+                }
+
+                @Override
+                Collection<? extends Task> fetch() {
+                    return eventIndex.findOverlapping(from, to);
+                }
+
+                @Override
+                String describe() {
+                    return "event index by overlap";
+                }
+
+                @Override
+                boolean isExact() {
+                    return false; // also returns events that end after the period
+                }
+            };
+        }
+    }
+
+    private AccessPath typePath(Class<? extends Task> type, boolean isIncompleteOnly) {
+        if (type == Deadline.class) {
+            return dueDatePath(LocalDateTime.MIN, LocalDateTime.MAX, isIncompleteOnly, "deadline index");
+        } else if (type == Event.class) {
+            return new AccessPath() {
+                @Override
+                int estimate(int limit) {
+                    return Math.min(eventIndex.size(), limit);
+                }
+
+                @Override
+                Collection<? extends Task> fetch() {
+                    return eventIndex.findStartingBetween(LocalDateTime.MIN, LocalDateTime.MAX);
+                }
+
+                @Override
+                String describe() {
+                    return "event index";
+                }
+            };
+        }
+        return null;
+    }
+
+    private AccessPath dueDatePath(LocalDateTime from, LocalDateTime to, boolean isIncompleteOnly,
+            String description) {
+        return new AccessPath() {
+            @Override
+            int estimate(int limit) {
+                if (from.equals(LocalDateTime.MIN) && to.equals(LocalDateTime.MAX)) {
+                    return Math.min(isIncompleteOnly ? deadlineIndex.size() : deadlineIndex.sizeOfAll(), limit);
+                }
+                return deadlineIndex.countDueBetween(from, to, isIncompleteOnly, limit);
+            }
+
+            @Override
+            Collection<? extends Task> fetch() {
+                return deadlineIndex.findDueBetween(from, to, isIncompleteOnly);
+            }
+
+            @Override
+            String describe() {
+                return isIncompleteOnly ? description + " (incomplete)" : description;
+            }
+        };
+    }
+
+    private static AccessPath unionPath(List<AccessPath> branches) {
+        return new AccessPath() {
+            @Override
+            int estimate(int limit) {
+                int total = 0;
+                for (AccessPath branch : branches) {
+                    total += branch.estimate(limit - total);
+                    if (total >= limit) {
+                        return limit;
+                    }
+                }
+                return total;
+            }
+
+            @Override
+            Collection<? extends Task> fetch() {
+                TreeMap<Long, Task> merged = new TreeMap<>();
+                for (AccessPath branch : branches) {
+                    for (Task task : branch.fetch()) {
+                        merged.put(task.getId(), task);
+                    }
+                }
+                return merged.values();
+            }
+
+            @Override
+            String describe() {
+                StringBuilder description = new StringBuilder("union of ");
+                for (int i = 0; i < branches.size(); i++) {
+                    description.append(i == 0 ? "" : ", ").append(branches.get(i).describe());
+                }
+                return description.toString();
+            }
+
+            @Override
+            boolean isExact() {
+                return branches.stream().allMatch(AccessPath::isExact);
+            }
+
+            @Override
+            boolean isInIdOrder() {
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package momo.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inverted index from each tag to the tasks carrying it.
+ * <p>
+ * The tasks of a tag are kept ordered by id, which is also their order in the list,
+ * so a lookup returns results in list order in time proportional to their number.
+ * The index is updated by {@link TaskManager} whenever a task or tag is added or removed.
+ * </p>
+ */
+final class TagIndex {
+    private final Map<String, TreeMap<Long, Task>> tasksByTag = new HashMap<>();
+
+    /**
+     * Indexes every tag of a task.
+     *
+     * @param task The task to index.
+     */
+    void addAll(Task task) {
+        for (String tag : task.getTags()) {
+            add(task, tag);
+        }
+    }
+
+    /**
+     * Indexes a task under one tag.
+     *
+     * @param task The tagged task.
+     * @param tag The tag.
+     */
+    void add(Task task, String tag) {
+        tasksByTag.computeIfAbsent(tag, t -> new TreeMap<>()).put(task.getId(), task);
+    }
+
+    /**
+     * Removes a task from under one tag.
+     *
+     * @param task The untagged task.
+     * @param tag The tag.
+     */
+    void remove(Task task, String tag) {
+        TreeMap<Long, Task> tasks = tasksByTag.get(tag);
+        if (tasks == null) {
+            return;
+        }
+        tasks.remove(task.getId());
+        if (tasks.isEmpty()) {
+            tasksByTag.remove(tag);
+        }
+    }
+
+    /**
+     * Removes a task from under every one of its tags.
+     *
+     * @param task The removed task.
+     */
+    void removeAll(Task task) {
+        for (String tag : task.getTags()) {
+            remove(task, tag);
+        }
+    }
+
+    /**
+     * Rebuilds the index from scratch.
+     *
+     * @param tasks Every task to index; {@code null} entries are skipped.
+     */
+    void rebuild(List<Task> tasks) {
+        tasksByTag.clear();
+        for (Task task : tasks) {
+            if (task != null) {
+                addAll(task);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tasks carrying a tag.
+     *
+     * @param tag The tag.
+     * @return The number of tasks.
+     */
+    int count(String tag) {
+        TreeMap<Long, Task> tasks = tasksByTag.get(tag);
+        return tasks == null ? 0 : tasks.size();
+    }
+
+    /**
+     * Returns the tasks carrying every one of the given tags.
+     * <p>
+     * Only the tasks of the rarest tag are visited; each is checked against the other tags.
+     * </p>
+     *
+     * @param tags Tags that must all be present.
+     * @return Matching tasks in list order.
+     */
+    ArrayList<Task> findAll(Collection<String> tags) {
+        List<TreeMap<Long, Task>> postings = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            TreeMap<Long, Task> tasks = tasksByTag.get(tag);
+            if (tasks == null) {
+                return new ArrayList<>();
+            }
+            postings.add(tasks);
+        }
+        if (postings.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        postings.sort(Comparator.comparingInt(Map::size));
+        ArrayList<Task> results = new ArrayList<>();
+        for (Map.Entry<Long, Task> entry : postings.get(0).entrySet()) {
+            boolean isMatch = true;
+            for (int i = 1; i < postings.size() && isMatch; i++) {
+                isMatch = postings.get(i).containsKey(entry.getKey());
+            }
+            if (isMatch) {
+                results.add(entry.getValue());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the tasks carrying at least one of the given tags.
+     *
+     * @param tags Tags of which any may be present.
+     * @return Matching tasks in list order, each listed once.
+     */
+    ArrayList<Task> findAny(Collection<String> tags) {
+        TreeMap<Long, Task> merged = new TreeMap<>();
+        for (String tag : tags) {
+            TreeMap<Long, Task> tasks = tasksByTag.get(tag);
+            if (tasks != null) {
+                merged.putAll(tasks);
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
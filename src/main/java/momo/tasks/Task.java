@@ -1,7 +1,8 @@
 package momo.tasks;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -11,6 +12,10 @@ import java.util.stream.Collectors;
  * implementations (e.g., todo, deadline, event). It also provides simple
  * serialization support via {@link #toStorageString()}.
  * </p>
+ * <p>
+ * Status and tags may be read by one thread while another changes them, so
+ * they are held in volatile fields and a concurrent set.
+ * </p>
  */
 public class Task {
     private static final int COMPLETE_STATUS = 1;
@@ -22,8 +27,11 @@ public class Task {
     private static final String ESC_COMMA = "%2C";
 
     private final String title;
-    private boolean isComplete;
+    private final String lowerCaseTitle;
+    private volatile boolean isComplete;
     private final Set<String> tags;
+    private volatile boolean isDirty;
+    private long id;
 
     /**
      * Constructs a new task with the given title.
@@ -34,14 +42,65 @@ public class Task {
         assert title != null : "title is null";
         assert !title.isBlank() : "title must not be blank";
         this.title = title;
+        this.lowerCaseTitle = title.toLowerCase();
         this.isComplete = false;
-        this.tags = new HashSet<>();
+        this.tags = ConcurrentHashMap.newKeySet();
+        this.isDirty = true; // not persisted yet
+    }
+
+    /**
+     * Returns the stable id of this task.
+     *
+     * @return The id, or {@code 0} if none has been assigned yet.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets the stable id of this task.
+     * <p>
+     * Ids are assigned by {@link TaskManager} when a task is added, and restored
+     * by storage when a task is loaded. They never change afterwards.
+     * </p>
+     *
+     * @param id A positive id.
+     */
+    public void setId(long id) {
+        assert id > 0 : "id must be positive";
+        this.id = id;
     }
 
     public String getStatusIcon() {
         return (this.isComplete ? COMPLETE_SYMBOL : INCOMPLETE_SYMBOL);
     }
 
+    public String getTitle() {
+        return this.title;
+    }
+
+    /**
+     * Returns the title in lower case, computed once when the task is created.
+     *
+     * @return The lower-cased title.
+     */
+    public String getLowerCaseTitle() {
+        return this.lowerCaseTitle;
+    }
+
+    public boolean isComplete() {
+        return this.isComplete;
+    }
+
+    /**
+     * Returns the tags of this task.
+     *
+     * @return A read-only view of the tags.
+     */
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(this.tags);
+    }
+
     /**
      * Checks whether the task title contains the specified keyword.
      * <p>
@@ -52,17 +111,52 @@ public class Task {
      * @return {@code true} if the title contains the keyword, otherwise {@code false}.
      */
     public boolean containsKeyword(String keyword) {
-        return this.title.toLowerCase().contains(keyword.toLowerCase());
+        return containsLowerCaseKeyword(keyword.toLowerCase());
+    }
+
+    /**
+     * Checks whether the task title contains a keyword that is already in lower case.
+     * <p>
+     * Lets a search lower-case its keyword once rather than once per task.
+     * </p>
+     *
+     * @param lowerCaseKeyword The lower-cased keyword to search for.
+     * @return {@code true} if the title contains the keyword, ignoring case, otherwise {@code false}.
+     */
+    public boolean containsLowerCaseKeyword(String lowerCaseKeyword) {
+        return this.lowerCaseTitle.contains(lowerCaseKeyword);
     }
 
     public void setComplete() {
+        this.isDirty |= !this.isComplete;
         this.isComplete = true;
     }
 
     public void setIncomplete() {
+        this.isDirty |= this.isComplete;
         this.isComplete = false;
     }
 
+    /**
+     * Returns whether this task has changed since it was last persisted.
+     * <p>
+     * A new task starts out dirty. Storage implementations that write only
+     * changed records call {@link #clearDirty()} once the task is written.
+     * </p>
+     *
+     * @return {@code true} if the task has unsaved changes.
+     */
+    public boolean isDirty() {
+        return this.isDirty;
+    }
+
+    /**
+     * Marks this task as persisted.
+     */
+    public void clearDirty() {
+        this.isDirty = false;
+    }
+
     /**
      * Adds a tag to this task.
      *
@@ -71,7 +165,7 @@ public class Task {
     public void addTag(String tag) {
         assert tag != null : "tag is null";
         assert !tag.isBlank() : "tag must not be blank";
-        this.tags.add(tag);
+        this.isDirty |= this.tags.add(tag);
     }
 
     /**
@@ -80,7 +174,7 @@ public class Task {
      * @param tag The tag to be removed.
      */
     public void removeTag(String tag) {
-        this.tags.remove(tag);
+        this.isDirty |= this.tags.remove(tag);
     }
 
     /**
@@ -113,6 +207,15 @@ public class Task {
         return ("|" + status + "|" + safeTitle + "|" + safeTags);
     }
 
+    /**
+     * Returns the trailing id field of the storage format.
+     *
+     * @return {@code |<id>}, or an empty string if no id has been assigned.
+     */
+    protected String getStorageIdField() {
+        return this.id == 0 ? "" : "|" + this.id;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,87 @@
+package momo.tasks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * Reads the task list a chunk at a time, so a long list can be shown or sent without
+ * holding more than one chunk of it.
+ * <p>
+ * A cursor walks one {@link TaskSnapshot}, so positions and the total stay consistent
+ * however the list changes while it is read. To carry on from where a cursor stopped on
+ * a later version of the list, pass {@link #getLastId()} to
+ * {@link TaskManager#openCursorAfter(long)}; as ids never change, this picks up at the
+ * right task even if earlier ones were deleted in between.
+ * </p>
+ */
+public final class TaskCursor {
+    private final TaskSnapshot tasks;
+    private Iterator<Task> iterator;
+    private int position;
+    private long lastId;
+
+    /**
+     * Creates a cursor over a snapshot.
+     *
+     * @param tasks The snapshot to read.
+     * @param from 0-based position of the first task to read.
+     */
+    TaskCursor(TaskSnapshot tasks, int from) {
+        this.tasks = tasks;
+        seek(from);
+    }
+
+    /**
+     * Moves the cursor to a position, in O(log n).
+     *
+     * @param position 0-based position of the next task to read.
+     * @throws IndexOutOfBoundsException If the position is negative or past the end of the list.
+     */
+    public void seek(int position) {
+        this.iterator = tasks.iterator(position);
+        this.position = position;
+    }
+
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    /**
+     * Reads the next tasks.
+     *
+     * @param max Largest number of tasks to read.
+     * @return Up to {@code max} tasks in list order; empty once the end is reached.
+     */
+    public ArrayList<Task> next(int max) {
+        assert max > 0 : "Chunk size must be positive";
+        ArrayList<Task> chunk = new ArrayList<>(Math.min(max, tasks.size() - position));
+        while (chunk.size() < max && iterator.hasNext()) {
+            Task task = iterator.next();
+            chunk.add(task);
+            lastId = task.getId();
+        }
+        position += chunk.size();
+        return chunk;
+    }
+
+    /**
+     * Returns the 0-based position of the next task to read.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of tasks in the list being read.
+     */
+    public int getTotal() {
+        return tasks.size();
+    }
+
+    /**
+     * Returns the id of the last task read, or 0 if none has been read yet.
+     */
+    public long getLastId() {
+        return lastId;
+    }
+}
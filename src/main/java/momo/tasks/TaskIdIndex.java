@@ -0,0 +1,151 @@
+package momo.tasks;
+
+import java.util.Arrays;
+
+/**
+ * Maps task ids to slot numbers without boxing, using open addressing with linear probing.
+ * <p>
+ * Ids must be positive; {@code 0} marks an empty bucket. Removal shifts later entries of
+ * the probe sequence back, so lookups never need tombstone buckets.
+ * </p>
+ */
+final class TaskIdIndex {
+    private static final int MIN_CAPACITY = 16;
+    private static final int NOT_FOUND = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    TaskIdIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    TaskIdIndex(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the slot mapped to the given id.
+     *
+     * @param id Task id.
+     * @return The slot, or {@code -1} if the id is not present.
+     */
+    int get(long id) {
+        int mask = keys.length - 1;
+        for (int i = hash(id) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return values[i];
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Maps the given id to a slot, replacing any earlier mapping.
+     *
+     * @param id Positive task id.
+     * @param slot Slot of the task.
+     */
+    void put(long id, int slot) {
+        assert id > 0 : "id must be positive";
+        if (2 * (size + 1) > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(id) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == id) {
+                values[i] = slot;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        values[i] = slot;
+        size++;
+    }
+
+    /**
+     * Removes the mapping for the given id.
+     *
+     * @param id Task id.
+     * @return The slot that was mapped, or {@code -1} if the id was not present.
+     */
+    int remove(long id) {
+        int mask = keys.length - 1;
+        int i = hash(id) & mask;
+        while (keys[i] != id) {
+            if (keys[i] == 0) {
+                return NOT_FOUND;
+            }
+            i = (i + 1) & mask;
+        }
+
+        int removed = values[i];
+        size--;
+
+        // Shift back every later entry that would otherwise become unreachable
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every mapping, keeping room for the expected number of entries.
+     *
+     * @param expectedSize Number of entries about to be added.
+     */
+    void clear(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity == keys.length) {
+            Arrays.fill(keys, 0);
+        } else {
+            allocate(capacity);
+        }
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,32 +1,81 @@
 package momo.tasks;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
-import momo.storage.Storage;
+import momo.storage.JournalCompactor;
+import momo.storage.JournalStorage;
+import momo.storage.Mutation;
 import momo.storage.StorageService;
+import momo.storage.WriteBehindStorage;
 
 /**
  * Manages an in-memory list of tasks and coordinates persistence through a
  * {@link StorageService}. Provides task management operations such as add, remove, and retrieval.
  * <p>
- * Tasks are loaded from storage upon construction and automatically saved
- * after changes are made.
+ * Tasks are loaded from storage upon construction and every change is
+ * recorded in storage as it is made.
+ * </p>
+ * <p>
+ * Every task has a stable id, and tasks can be addressed either by their position
+ * in the list or by id. Ids are looked up in a primitive hash index. Removing a
+ * task leaves a tombstone instead of shifting the tasks after it. Positions are
+ * resolved through the snapshot below, which skips tombstones, so tombstones are only
+ * compacted in one pass once they make up a quarter of the list.
+ * </p>
+ * <p>
+ * An inverted tag index and a trigram title index are kept up to date with
+ * every change, so searches do not scan the whole list. Events are also kept
+ * in an interval tree, so time-range and overlap queries only visit matching events,
+ * and deadlines are kept sorted by due date/time. A {@link Query} combining several
+ * conditions starts from whichever of these indexes narrows it down the most.
+ * </p>
+ * <p>
+ * Every add or remove also publishes a new immutable {@link TaskSnapshot} of the list,
+ * which readers can take and iterate without locking while the list keeps changing.
+ * </p>
+ * <p>
+ * Between {@link #beginBatch()} and {@link #endBatch()}, changes are held in memory and
+ * written to storage together, which suits scripts that make many changes in a row.
  * </p>
  */
 public class TaskManager {
     private final StorageService storage;
+    /** Tasks in ascending id order; a removed task leaves a {@code null} tombstone until compaction. */
     private final ArrayList<Task> taskList;
+    private final TaskIdIndex idIndex = new TaskIdIndex();
+    private final TagIndex tagIndex = new TagIndex();
+    private final TitleIndex titleIndex = new TitleIndex();
+    private final EventIntervalTree eventIndex = new EventIntervalTree();
+    private final DeadlineIndex deadlineIndex = new DeadlineIndex();
+    private final QueryPlanner planner = new QueryPlanner(tagIndex, titleIndex, eventIndex, deadlineIndex);
+    private volatile TaskSnapshot snapshot = TaskSnapshot.empty();
+    /** Number of changes made since the tasks were loaded. */
+    private volatile long version;
+    /** Changes not yet handed to storage while batching, or {@code null} when not batching. */
+    private ArrayList<Mutation> batch;
+    private int batchedChanges;
+    private int tombstones;
+    private long nextId = 1;
 
     /**
      * Constructs a task manager using the default storage implementation.
      * <p>
-     * Existing tasks are loaded from storage into memory.
+     * Existing tasks are loaded from storage into memory. From then on changes
+     * are written to the journal by a background writer, and the journal is
+     * compacted in the background.
      * </p>
      */
     public TaskManager() {
-        this.storage = new Storage();
+        JournalStorage journal = new JournalStorage();
+        this.storage = new WriteBehindStorage(journal);
         this.taskList = storage.loadTasks(); // load from file into memory
+        assignMissingIds();
+        new JournalCompactor(journal).start();
     }
 
     /**
@@ -40,17 +89,64 @@ public class TaskManager {
     public TaskManager(StorageService storage) {
         this.storage = storage;
         this.taskList = storage.loadTasks();
+        assignMissingIds();
     }
 
     /**
-     * Adds a task to the task list and saves the updated list to storage.
+     * Indexes the loaded tasks by id.
+     * <p>
+     * Tasks loaded from files written before tasks had ids, or whose ids are not in
+     * ascending order, are given fresh ids in list order and saved once.
+     * </p>
+     */
+    private void assignMissingIds() {
+        boolean isOrdered = true;
+        long previous = 0;
+        for (Task task : taskList) {
+            if (task.getId() <= previous) {
+                isOrdered = false;
+                break;
+            }
+            previous = task.getId();
+        }
+
+        if (!isOrdered) {
+            previous = 0;
+            for (Task task : taskList) {
+                task.setId(++previous);
+            }
+        }
+
+        nextId = previous + 1;
+        rebuildIndex();
+        tagIndex.rebuild(taskList);
+        titleIndex.rebuild(taskList);
+        eventIndex.rebuild(taskList);
+        deadlineIndex.rebuild(taskList);
+        snapshot = TaskSnapshot.of(taskList);
+        if (!isOrdered) {
+            storage.saveTasks(taskList);
+        }
+    }
+
+    /**
+     * Adds a task to the task list, assigns it the next id and records the change in storage.
      *
      * @param task The task to add.
      */
     public void addTask(Task task) {
         assert task != null : "Task added should not be null";
+        task.setId(nextId++);
         taskList.add(task);
-        storage.saveTasks(taskList); //Autosave after every task add
+        idIndex.put(task.getId(), taskList.size() - 1);
+        tagIndex.addAll(task);
+        titleIndex.add(task);
+        if (task instanceof Event) {
+            eventIndex.add((Event) task);
+        }
+        deadlineIndex.update(task);
+        snapshot = snapshot.with(task);
+        record(Mutation.add(task)); //Autosave after every task add
     }
 
     /**
@@ -60,45 +156,465 @@ public class TaskManager {
      * @return The removed task.
      */
     public Task removeTask(int i) {
-        assert i >= 0 && i < taskList.size() : "Index out of bounds";
-        Task removedTask = taskList.remove(i);
-        storage.saveTasks(taskList);
+        return removeTaskById(getTask(i).getId());
+    }
+
+    /**
+     * Removes and returns the task with the specified id.
+     * <p>
+     * The task is replaced by a tombstone, so no other task is moved. Tombstones are
+     * dropped in one pass once they make up a quarter of the list.
+     * </p>
+     *
+     * @param id Id of the task to remove.
+     * @return The removed task.
+     */
+    public Task removeTaskById(long id) {
+        Task removedTask = remove(id);
+        snapshot = snapshot.without(id);
+        record(Mutation.delete(id));
         return removedTask;
     }
 
+    /**
+     * Removes the tasks with the specified ids and records the changes in storage together.
+     * <p>
+     * Each task is replaced by a tombstone, and tombstones are dropped in one pass once
+     * they make up a quarter of the list. When many tasks are removed, the snapshot is also
+     * rebuilt in one pass instead of being updated task by task.
+     * </p>
+     *
+     * @param ids Distinct ids of the tasks to remove.
+     * @return The removed tasks, in the order of the ids.
+     */
+    public ArrayList<Task> removeTasksById(long[] ids) {
+        ArrayList<Task> removed = new ArrayList<>(ids.length);
+        ArrayList<Mutation> mutations = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            removed.add(remove(id));
+            mutations.add(Mutation.delete(id));
+        }
+
+        int size = taskList.size() - tombstones;
+        if ((long) ids.length * (Long.SIZE - Long.numberOfLeadingZeros(size)) > size) {
+            snapshot = TaskSnapshot.of(taskList);
+        } else {
+            for (long id : ids) {
+                snapshot = snapshot.without(id);
+            }
+        }
+        recordAll(mutations);
+        return removed;
+    }
+
+    /**
+     * Marks the task at the specified index as completed and records the change in storage.
+     *
+     * @param i Index of the task to mark.
+     * @return The updated task.
+     */
+    public Task markTask(int i) {
+        return markTaskById(getTask(i).getId());
+    }
+
+    /**
+     * Marks the task with the specified id as completed and records the change in storage.
+     *
+     * @param id Id of the task to mark.
+     * @return The updated task.
+     */
+    public Task markTaskById(long id) {
+        Task task = mark(id);
+        record(Mutation.mark(id));
+        return task;
+    }
+
+    /**
+     * Marks the tasks with the specified ids as completed and records the changes in storage together.
+     *
+     * @param ids Ids of the tasks to mark.
+     * @return The updated tasks, in the order of the ids.
+     */
+    public ArrayList<Task> markTasksById(long[] ids) {
+        ArrayList<Task> marked = new ArrayList<>(ids.length);
+        ArrayList<Mutation> mutations = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            marked.add(mark(id));
+            mutations.add(Mutation.mark(id));
+        }
+        recordAll(mutations);
+        return marked;
+    }
+
+    /**
+     * Marks the task at the specified index as incomplete and records the change in storage.
+     *
+     * @param i Index of the task to unmark.
+     * @return The updated task.
+     */
+    public Task unmarkTask(int i) {
+        return unmarkTaskById(getTask(i).getId());
+    }
+
+    /**
+     * Marks the task with the specified id as incomplete and records the change in storage.
+     *
+     * @param id Id of the task to unmark.
+     * @return The updated task.
+     */
+    public Task unmarkTaskById(long id) {
+        Task task = unmark(id);
+        record(Mutation.unmark(id));
+        return task;
+    }
+
+    /**
+     * Marks the tasks with the specified ids as incomplete and records the changes in storage together.
+     *
+     * @param ids Ids of the tasks to unmark.
+     * @return The updated tasks, in the order of the ids.
+     */
+    public ArrayList<Task> unmarkTasksById(long[] ids) {
+        ArrayList<Task> unmarked = new ArrayList<>(ids.length);
+        ArrayList<Mutation> mutations = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            unmarked.add(unmark(id));
+            mutations.add(Mutation.unmark(id));
+        }
+        recordAll(mutations);
+        return unmarked;
+    }
+
+    /**
+     * Adds a tag to the task at the specified index and records the change in storage.
+     *
+     * @param i Index of the task to tag.
+     * @param tag The tag to add.
+     * @return The updated task.
+     */
+    public Task tagTask(int i, String tag) {
+        return tagTaskById(getTask(i).getId(), tag);
+    }
+
+    /**
+     * Adds a tag to the task with the specified id and records the change in storage.
+     *
+     * @param id Id of the task to tag.
+     * @param tag The tag to add.
+     * @return The updated task.
+     */
+    public Task tagTaskById(long id, String tag) {
+        Task task = tag(id, tag);
+        record(Mutation.tag(id, tag));
+        return task;
+    }
+
+    /**
+     * Adds tags to the tasks with the specified ids and records the changes in storage together.
+     *
+     * @param ids Ids of the tasks to tag.
+     * @param tags The tags to add to each task.
+     * @return The updated tasks, in the order of the ids.
+     */
+    public ArrayList<Task> tagTasksById(long[] ids, List<String> tags) {
+        ArrayList<Task> tagged = new ArrayList<>(ids.length);
+        ArrayList<Mutation> mutations = new ArrayList<>(ids.length * tags.size());
+        for (long id : ids) {
+            Task task = null;
+            for (String tag : tags) {
+                task = tag(id, tag);
+                mutations.add(Mutation.tag(id, tag));
+            }
+            tagged.add(task);
+        }
+        recordAll(mutations);
+        return tagged;
+    }
+
+    /**
+     * Removes a tag from the task at the specified index and records the change in storage.
+     *
+     * @param i Index of the task to untag.
+     * @param tag The tag to remove.
+     * @return The updated task.
+     */
+    public Task untagTask(int i, String tag) {
+        return untagTaskById(getTask(i).getId(), tag);
+    }
+
+    /**
+     * Removes a tag from the task with the specified id and records the change in storage.
+     *
+     * @param id Id of the task to untag.
+     * @param tag The tag to remove.
+     * @return The updated task.
+     */
+    public Task untagTaskById(long id, String tag) {
+        Task task = untag(id, tag);
+        record(Mutation.untag(id, tag));
+        return task;
+    }
+
+    /**
+     * Removes a tag from the tasks with the specified ids and records the changes in storage together.
+     *
+     * @param ids Ids of the tasks to untag.
+     * @param tag The tag to remove.
+     * @return The updated tasks, in the order of the ids.
+     */
+    public ArrayList<Task> untagTasksById(long[] ids, String tag) {
+        ArrayList<Task> untagged = new ArrayList<>(ids.length);
+        ArrayList<Mutation> mutations = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            untagged.add(untag(id, tag));
+            mutations.add(Mutation.untag(id, tag));
+        }
+        recordAll(mutations);
+        return untagged;
+    }
+
     /**
      * Returns the task at the specified index.
+     * <p>
+     * The position is resolved in O(log n) through the snapshot, which holds no tombstones.
+     * </p>
      *
      * @param i Index of the task to retrieve.
      * @return The task at the given index.
      */
     public Task getTask(int i) {
-        assert i >= 0 && i < taskList.size() : "Index out of bounds";
-        return taskList.get(i);
+        return snapshot.get(i);
+    }
+
+    /**
+     * Returns the task with the specified id.
+     *
+     * @param id Id of the task to retrieve.
+     * @return The task, or {@code null} if no task has the id.
+     */
+    public Task getTaskById(long id) {
+        return findById(id);
+    }
+
+    /**
+     * Returns a number that changes whenever any task is added, removed or changed.
+     * <p>
+     * Clients polling the task list can compare it to skip fetching an unchanged list.
+     * </p>
+     *
+     * @return The number of changes made since the tasks were loaded.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the latest snapshot of the task list.
+     * <p>
+     * This takes no lock and no copy. The snapshot never changes, so it can be iterated
+     * while tasks are added or removed, even from other threads.
+     * </p>
+     *
+     * @return The latest snapshot.
+     */
+    public TaskSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Opens a cursor at the start of the latest snapshot of the task list.
+     * <p>
+     * Like {@link #snapshot()}, this takes no lock, and the cursor keeps reading the list
+     * as it was when it was opened.
+     * </p>
+     *
+     * @return The cursor.
+     */
+    public TaskCursor openCursor() {
+        return new TaskCursor(snapshot, 0);
+    }
+
+    /**
+     * Opens a cursor on the latest snapshot at the first task whose id is greater than the given one.
+     * <p>
+     * This resumes reading after the last task an earlier cursor returned, see
+     * {@link TaskCursor#getLastId()}.
+     * </p>
+     *
+     * @param id Id of the last task already read, or 0 to start at the beginning.
+     * @return The cursor.
+     */
+    public TaskCursor openCursorAfter(long id) {
+        TaskSnapshot tasks = snapshot;
+        return new TaskCursor(tasks, tasks.countIdsUpTo(id));
+    }
+
+    /**
+     * Returns every task in list order.
+     *
+     * @return A new arraylist of tasks, copied from the current snapshot.
+     */
+    public ArrayList<Task> getTasks() {
+        TaskSnapshot tasks = snapshot;
+        ArrayList<Task> copy = new ArrayList<>(tasks.size());
+        tasks.forEach(copy::add);
+        return copy;
     }
 
     /**
      * Returns an array of the tasks whose title contains the searched keyword
+     * <p>
+     * The comparison is case-insensitive. Keywords of three or more characters are
+     * narrowed down through the title index, so only candidate titles are checked.
+     * </p>
      *
      * @return A new arraylist of tasks.
      */
     public ArrayList<Task> findTasksByTitle(String keyword) {
-        ArrayList<Task> searchResults = taskList.stream()
-                .filter(task -> task.containsKeyword(keyword))
+        String lowerCaseKeyword = keyword.toLowerCase();
+        List<Task> candidates = titleIndex.candidates(lowerCaseKeyword);
+        ArrayList<Task> searchResults = (candidates == null ? taskList : candidates).stream()
+                .filter(task -> task != null && task.containsLowerCaseKeyword(lowerCaseKeyword))
                 .collect(Collectors.toCollection(ArrayList::new));
         return searchResults;
     }
 
     /**
      * Returns an array of the tasks whose tag contains the searched keyword
+     * <p>
+     * Tasks are looked up in the tag index, so the cost depends only on the number of results.
+     * </p>
      *
      * @return A new arraylist of tasks.
      */
     public ArrayList<Task> findTasksByTag(String keyword) {
-        ArrayList<Task> searchResults = taskList.stream()
-                .filter(task -> task.hasTag(keyword))
-                .collect(Collectors.toCollection(ArrayList::new));
-        return searchResults;
+        return tagIndex.findAll(List.of(keyword));
+    }
+
+    /**
+     * Returns the tasks carrying every one of the given tags.
+     *
+     * @param tags Tags that must all be present.
+     * @return A new arraylist of tasks, in list order.
+     */
+    public ArrayList<Task> findTasksByAllTags(List<String> tags) {
+        return tagIndex.findAll(tags);
+    }
+
+    /**
+     * Returns the tasks carrying at least one of the given tags.
+     *
+     * @param tags Tags of which any may be present.
+     * @return A new arraylist of tasks, in list order.
+     */
+    public ArrayList<Task> findTasksByAnyTag(List<String> tags) {
+        return tagIndex.findAny(tags);
+    }
+
+    /**
+     * Returns the tasks matching a query.
+     * <p>
+     * The query is planned against the indexes first, so only the tasks of its most
+     * selective indexed condition are checked; the list is scanned only if no index helps.
+     * </p>
+     *
+     * @param query The query to run.
+     * @return A new arraylist of tasks, in list order.
+     */
+    public ArrayList<Task> findTasks(Query query) {
+        return planQuery(query).run(taskList);
+    }
+
+    /**
+     * Returns how {@link #findTasks(Query)} would run a query.
+     *
+     * @param query The query to plan.
+     * @return The plan.
+     */
+    QueryPlanner.Plan planQuery(Query query) {
+        return planner.plan(query, taskList.size() - tombstones);
+    }
+
+    /**
+     * Returns the events that take place at any time within the given period.
+     * <p>
+     * An event matches if it overlaps the period at all, both ends inclusive.
+     * </p>
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @return A new arraylist of events, ordered by start date/time.
+     */
+    public ArrayList<Task> findEventsBetween(LocalDateTime from, LocalDateTime to) {
+        assert !to.isBefore(from) : "Period must not end before it starts";
+        return new ArrayList<>(eventIndex.findOverlapping(from, to));
+    }
+
+    /**
+     * Returns the other events whose time overlaps the given event.
+     *
+     * @param event The event to check.
+     * @return A new arraylist of events, ordered by start date/time.
+     */
+    public ArrayList<Task> findEventsOverlapping(Event event) {
+        ArrayList<Task> overlapping = new ArrayList<>(eventIndex.findOverlapping(event.getStartDate(),
+                event.getEndDate()));
+        overlapping.remove(event);
+        return overlapping;
+    }
+
+    /**
+     * Returns the windows within a period that no event takes up.
+     * <p>
+     * Only the events overlapping the period are taken from the interval tree. They come
+     * in start order, so one sweep that tracks the latest end seen so far finds the gaps.
+     * </p>
+     *
+     * @param from Start of the period.
+     * @param to End of the period.
+     * @param minLength Shortest window worth returning.
+     * @return A new arraylist of free windows, earliest first.
+     */
+    public ArrayList<TimeSlot> findFreeSlots(LocalDateTime from, LocalDateTime to, Duration minLength) {
+        ArrayList<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Event event : eventIndex.findOverlapping(from, to)) {
+            addSlotIfLongEnough(slots, freeFrom, event.getStartDate(), minLength);
+            if (event.getEndDate().isAfter(freeFrom)) {
+                freeFrom = event.getEndDate();
+            }
+        }
+        addSlotIfLongEnough(slots, freeFrom, to, minLength);
+        return slots;
+    }
+
+    private static void addSlotIfLongEnough(ArrayList<TimeSlot> slots, LocalDateTime start, LocalDateTime end,
+            Duration minLength) {
+        if (end.isAfter(start) && Duration.between(start, end).compareTo(minLength) >= 0) {
+            slots.add(new TimeSlot(start, end));
+        }
+    }
+
+    /**
+     * Returns the incomplete deadlines that are next due.
+     *
+     * @param now The moment to count from; deadlines due before it are overdue, not upcoming.
+     * @param limit Maximum number of deadlines to return.
+     * @return A new arraylist of deadlines, soonest first.
+     */
+    public ArrayList<Task> findUpcomingDeadlines(LocalDateTime now, int limit) {
+        assert limit > 0 : "Limit must be positive";
+        return deadlineIndex.findUpcoming(now, limit);
+    }
+
+    /**
+     * Returns the incomplete deadlines that are already past due.
+     *
+     * @param now The moment to compare against.
+     * @return A new arraylist of deadlines, longest overdue first.
+     */
+    public ArrayList<Task> findOverdueDeadlines(LocalDateTime now) {
+        return deadlineIndex.findOverdue(now);
     }
 
     /**
@@ -107,13 +623,210 @@ public class TaskManager {
      * @return Size of the task list.
      */
     public int getTaskListSize() {
-        return taskList.size();
+        return taskList.size() - tombstones;
     }
 
     /**
-     * Saves the current task list to storage.
+     * Saves the changes made to the task list since it was last written to storage.
      */
     public void save() {
-        storage.saveTasks(taskList);
+        compact();
+        storage.saveChanges(taskList);
+        if (batch != null) {
+            batch = new ArrayList<>(); // already written by the save
+            batchedChanges = 0;
+        }
+    }
+
+    /**
+     * Blocks until every change made so far has been written to storage.
+     */
+    public void flush() {
+        storage.flush();
+    }
+
+    /**
+     * Starts holding changes in memory instead of recording each one in storage as it is made.
+     * <p>
+     * The held changes are written together by {@link #commitBatch()} or {@link #endBatch()}.
+     * Changes made before either is called are lost if the application stops.
+     * </p>
+     */
+    public void beginBatch() {
+        if (batch == null) {
+            batch = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Writes the changes held since the batch began or was last committed, in one go.
+     * <p>
+     * Tombstones are dropped first, so storage that falls back to rewriting the whole
+     * list never sees them.
+     * </p>
+     */
+    public void commitBatch() {
+        writeBatch();
+    }
+
+    /**
+     * Writes the held changes and goes back to recording each change as it is made.
+     */
+    public void endBatch() {
+        try {
+            writeBatch();
+        } finally {
+            batch = null;
+            batchedChanges = 0;
+        }
+    }
+
+    /**
+     * Returns the number of changes held in the current batch.
+     *
+     * @return Number of changes not yet written, or 0 when not batching.
+     */
+    public int getBatchedChangeCount() {
+        return batchedChanges;
+    }
+
+    /**
+     * Records a change in storage, or holds it if a batch is open.
+     * <p>
+     * Storage that is not incremental rewrites the whole list for a batch anyway, so for
+     * it a batch only counts its changes.
+     * </p>
+     */
+    private void record(Mutation mutation) {
+        version++; // changes are made one at a time, so this needs no atomic update
+        if (batch != null) {
+            if (storage.isIncremental()) {
+                batch.add(mutation);
+            }
+            batchedChanges++;
+            return;
+        }
+        storage.record(listForStorage(), mutation);
+    }
+
+    /**
+     * Records several changes in storage at once, or holds them if a batch is open.
+     */
+    private void recordAll(List<Mutation> mutations) {
+        if (mutations.isEmpty()) {
+            return;
+        }
+        version += mutations.size();
+        if (batch != null) {
+            if (storage.isIncremental()) {
+                batch.addAll(mutations);
+            }
+            batchedChanges += mutations.size();
+            return;
+        }
+        storage.recordAll(listForStorage(), mutations);
+    }
+
+    /**
+     * Hands the changes held in the current batch to storage.
+     */
+    private void writeBatch() {
+        if (batch == null || batchedChanges == 0) {
+            return;
+        }
+        compact();
+        storage.recordAll(taskList, batch);
+        batch = new ArrayList<>();
+        batchedChanges = 0;
+    }
+
+    /**
+     * Returns the task list to hand to storage, which never holds tombstones.
+     * <p>
+     * Storage that reads the list is handed the list itself, compacted. Incremental storage
+     * does not read it, so tombstones are left for later and it is handed the snapshot
+     * instead; as that never changes, a background writer may also keep it.
+     * </p>
+     */
+    private List<Task> listForStorage() {
+        if (storage.isIncremental()) {
+            return snapshot.asList();
+        }
+        compact();
+        return taskList;
+    }
+
+    // By-id and query methods call private helpers rather than other public methods, so a
+    // subclass that wraps public methods in a non-reentrant lock can delegate to them.
+    private Task findById(long id) {
+        int slot = idIndex.get(id);
+        return slot < 0 ? null : taskList.get(slot);
+    }
+
+    /**
+     * Replaces a task with a tombstone and drops it from every index but the snapshot.
+     */
+    private Task remove(long id) {
+        int slot = idIndex.remove(id);
+        assert slot >= 0 : "No task with id " + id;
+        Task removedTask = taskList.set(slot, null);
+        tombstones++;
+        if (tombstones > taskList.size() / 4) {
+            compact();
+        }
+        tagIndex.removeAll(removedTask);
+        titleIndex.remove(removedTask);
+        if (removedTask instanceof Event) {
+            eventIndex.remove((Event) removedTask);
+        }
+        deadlineIndex.remove(removedTask);
+        return removedTask;
+    }
+
+    private Task mark(long id) {
+        Task task = findById(id);
+        task.setComplete();
+        deadlineIndex.update(task);
+        return task;
+    }
+
+    private Task unmark(long id) {
+        Task task = findById(id);
+        task.setIncomplete();
+        deadlineIndex.update(task);
+        return task;
+    }
+
+    private Task tag(long id, String tag) {
+        Task task = findById(id);
+        task.addTag(tag);
+        tagIndex.add(task, tag);
+        return task;
+    }
+
+    private Task untag(long id, String tag) {
+        Task task = findById(id);
+        task.removeTag(tag);
+        tagIndex.remove(task, tag);
+        return task;
+    }
+
+    /**
+     * Drops every tombstone in one pass and re-indexes the remaining tasks.
+     */
+    private void compact() {
+        if (tombstones == 0) {
+            return;
+        }
+        taskList.removeIf(Objects::isNull);
+        tombstones = 0;
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+        idIndex.clear(taskList.size());
+        for (int slot = 0; slot < taskList.size(); slot++) {
+            idIndex.put(taskList.get(slot).getId(), slot);
+        }
     }
 }
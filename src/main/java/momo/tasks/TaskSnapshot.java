@@ -0,0 +1,348 @@
+package momo.tasks;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable version of the task list, in list order.
+ * <p>
+ * {@link TaskManager} publishes a new snapshot whenever a task is added or removed, and a
+ * reader that holds on to one keeps seeing exactly those tasks however the list changes
+ * afterwards. Snapshots are persistent treaps ordered by id: adding or removing a task
+ * copies only the O(log n) nodes on its path and shares the rest with the previous
+ * version, so publishing one is cheap. Each node counts the tasks below it, so a task
+ * can be looked up by position in O(log n).
+ * </p>
+ * <p>
+ * Only the collection is frozen; marking or tagging a task changes the task itself,
+ * which every snapshot containing it will show.
+ * </p>
+ */
+public final class TaskSnapshot implements Iterable<Task> {
+    private static final TaskSnapshot EMPTY = new TaskSnapshot(null);
+
+    private final Node root;
+
+    private static final class Node {
+        private final Task task;
+        private final Node left;
+        private final Node right;
+        private final int size;
+
+        Node(Task task, Node left, Node right) {
+            this.task = task;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+
+        long id() {
+            return task.getId();
+        }
+
+        int priority() {
+            return TreapPriority.of(task.getId());
+        }
+    }
+
+    private TaskSnapshot(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the snapshot holding no tasks.
+     *
+     * @return The empty snapshot.
+     */
+    public static TaskSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a snapshot from tasks in ascending id order in O(n).
+     *
+     * @param tasks Tasks ordered by id; {@code null} entries are skipped.
+     * @return The snapshot.
+     */
+    static TaskSnapshot of(List<Task> tasks) {
+        return new TaskSnapshot(build(tasks));
+    }
+
+    /**
+     * Returns a snapshot that also holds the given task.
+     *
+     * @param task A task whose id is not in this snapshot.
+     * @return The new snapshot; this one is unchanged.
+     */
+    TaskSnapshot with(Task task) {
+        return new TaskSnapshot(insert(root, task));
+    }
+
+    /**
+     * Returns a snapshot without the task with the given id.
+     *
+     * @param id Id of the task to leave out.
+     * @return The new snapshot, or this one if it has no such task.
+     */
+    TaskSnapshot without(long id) {
+        Node newRoot = remove(root, id);
+        return newRoot == root ? this : new TaskSnapshot(newRoot);
+    }
+
+    /**
+     * Returns the number of tasks in this snapshot.
+     *
+     * @return Number of tasks.
+     */
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the task at a position of this snapshot.
+     *
+     * @param i 0-based position.
+     * @return The task at that position.
+     * @throws IndexOutOfBoundsException If the position is outside this snapshot.
+     */
+    public Task get(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size());
+        }
+
+        Node node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (i < leftSize) {
+                node = node.left;
+            } else if (i > leftSize) {
+                i -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.task;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tasks whose id is at most the given one, which is also the
+     * position of the first task after that id.
+     *
+     * @param id The id to compare against; it need not be in this snapshot.
+     * @return Number of tasks with an id up to and including {@code id}.
+     */
+    public int countIdsUpTo(long id) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.id() <= id) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a read-only {@code List} view of this snapshot.
+     * <p>
+     * Looking up a position takes O(log n), and iterating takes O(1) amortised per task.
+     * </p>
+     *
+     * @return The view; like the snapshot, it never changes.
+     */
+    public List<Task> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Task get(int i) {
+                return TaskSnapshot.this.get(i);
+            }
+
+            @Override
+            public int size() {
+                return TaskSnapshot.this.size();
+            }
+
+            @Override
+            public Iterator<Task> iterator() {
+                return TaskSnapshot.this.iterator();
+            }
+        };
+    }
+
+    /**
+     * Iterates over the tasks of this snapshot in list order.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new InOrderIterator(root, 0);
+    }
+
+    /**
+     * Iterates over the tasks of this snapshot in list order, starting at a position.
+     * <p>
+     * Finding the starting task takes O(log n), so a page deep into a large snapshot is
+     * reached without walking the tasks before it.
+     * </p>
+     *
+     * @param from 0-based position of the first task to return.
+     * @return The iterator.
+     * @throws IndexOutOfBoundsException If the position is negative or past the end of this snapshot.
+     */
+    public Iterator<Task> iterator(int from) {
+        if (from < 0 || from > size()) {
+            throw new IndexOutOfBoundsException("Index " + from + " out of bounds for size " + size());
+        }
+        return new InOrderIterator(root, from);
+    }
+
+    /**
+     * In-order walk that keeps the nodes still to be returned on a stack, so each step
+     * takes O(1) amortised time and O(log n) space.
+     */
+    private static final class InOrderIterator implements Iterator<Task> {
+        private final ArrayDeque<Node> path = new ArrayDeque<>();
+        private Node next;
+
+        InOrderIterator(Node root, int skip) {
+            // Push every node at or after the starting position on the way down to it;
+            // below them, only the subtrees not pushed are still to be visited
+            Node node = root;
+            while (node != null) {
+                int leftSize = sizeOf(node.left);
+                if (skip <= leftSize) {
+                    path.push(node);
+                    node = node.left;
+                } else {
+                    skip -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null || !path.isEmpty();
+        }
+
+        @Override
+        public Task next() {
+            while (next != null) {
+                path.push(next);
+                next = next.left;
+            }
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node node = path.pop();
+            next = node.right;
+            return node.task;
+        }
+    }
+
+    private static Node insert(Node node, Task task) {
+        if (node == null) {
+            return new Node(task, null, null);
+        }
+
+        if (task.getId() < node.id()) {
+            Node left = insert(node.left, task);
+            if (left.priority() > node.priority()) { // rotate right
+                return new Node(left.task, left.left, new Node(node.task, left.right, node.right));
+            }
+            return new Node(node.task, left, node.right);
+        }
+
+        Node right = insert(node.right, task);
+        if (right.priority() > node.priority()) { // rotate left
+            return new Node(right.task, new Node(node.task, node.left, right.left), right.right);
+        }
+        return new Node(node.task, node.left, right);
+    }
+
+    private static Node remove(Node node, long id) {
+        if (node == null) {
+            return null;
+        }
+
+        if (id < node.id()) {
+            Node left = remove(node.left, id);
+            return left == node.left ? node : new Node(node.task, left, node.right);
+        }
+        if (id > node.id()) {
+            Node right = remove(node.right, id);
+            return right == node.right ? node : new Node(node.task, node.left, right);
+        }
+        return merge(node.left, node.right);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority() > right.priority()) {
+            return new Node(left.task, left.left, merge(left.right, right));
+        }
+        return new Node(right.task, merge(left, right.left), right.right);
+    }
+
+    /**
+     * Builds the treap of sorted tasks with the usual stack-based Cartesian tree construction,
+     * on mutable nodes that are then frozen bottom-up.
+     */
+    private static Node build(List<Task> tasks) {
+        ArrayList<BuildNode> spine = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task == null) {
+                continue;
+            }
+            BuildNode added = new BuildNode(task);
+            BuildNode lastPopped = null;
+            while (!spine.isEmpty() && spine.get(spine.size() - 1).priority < added.priority) {
+                lastPopped = spine.remove(spine.size() - 1);
+            }
+            added.left = lastPopped;
+            if (!spine.isEmpty()) {
+                spine.get(spine.size() - 1).right = added;
+            }
+            spine.add(added);
+        }
+        return spine.isEmpty() ? null : freeze(spine.get(0));
+    }
+
+    private static final class BuildNode {
+        private final Task task;
+        private final int priority;
+        private BuildNode left;
+        private BuildNode right;
+
+        BuildNode(Task task) {
+            this.task = task;
+            this.priority = TreapPriority.of(task.getId());
+        }
+    }
+
+    private static Node freeze(BuildNode node) {
+        if (node == null) {
+            return null;
+        }
+        return new Node(node.task, freeze(node.left), freeze(node.right));
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,47 @@
+package momo.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Represents a window of time that is not taken up by any event.
+ */
+public final class TimeSlot {
+    private static final DateTimeFormatter DATE_TIME_PATTERN = DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm");
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * Constructs a time slot.
+     *
+     * @param start Start of the slot.
+     * @param end End of the slot, after {@code start}.
+     */
+    public TimeSlot(LocalDateTime start, LocalDateTime end) {
+        assert end.isAfter(start) : "Slot must end after it starts";
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public Duration getDuration() {
+        return Duration.between(start, end);
+    }
+
+    /**
+     * Returns the slot as {@code "<start> to <end>"}.
+     */
+    @Override
+    public String toString() {
+        return start.format(DATE_TIME_PATTERN) + " to " + end.format(DATE_TIME_PATTERN);
+    }
+}
@@ -0,0 +1,204 @@
+package momo.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index over lower-cased task titles, used to narrow down substring searches.
+ * <p>
+ * Every run of three characters in a title maps to the tasks whose title contains it.
+ * A keyword can only occur in titles that contain all of its trigrams, so a search
+ * intersects those postings and only the surviving candidates have to be checked with
+ * {@link Task#containsLowerCaseKeyword(String)}. Postings are kept ordered by id, which
+ * is also list order. Keywords shorter than three characters have no trigrams and are
+ * not narrowed down.
+ * </p>
+ */
+final class TitleIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Posting> postings = new HashMap<>();
+
+    /**
+     * Tasks containing one trigram, in ascending id order.
+     */
+    private static class Posting {
+        private Task[] tasks = new Task[2];
+        private int size;
+
+        void add(Task task) {
+            int at;
+            if (size == 0 || tasks[size - 1].getId() < task.getId()) {
+                at = size; // new tasks have the highest id, so they usually go last
+            } else {
+                at = search(task.getId());
+                if (at >= 0) {
+                    return;
+                }
+                at = -at - 1;
+            }
+            if (size == tasks.length) {
+                tasks = Arrays.copyOf(tasks, size * 2);
+            }
+            System.arraycopy(tasks, at, tasks, at + 1, size - at);
+            tasks[at] = task;
+            size++;
+        }
+
+        void remove(Task task) {
+            int at = search(task.getId());
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(tasks, at + 1, tasks, at, size - at - 1);
+            tasks[--size] = null;
+        }
+
+        boolean contains(long id) {
+            return search(id) >= 0;
+        }
+
+        private int search(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = tasks[mid].getId();
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    /**
+     * Indexes the title of a task.
+     *
+     * @param task The task to index.
+     */
+    void add(Task task) {
+        String title = task.getLowerCaseTitle();
+        for (int i = 0; i + GRAM_LENGTH <= title.length(); i++) {
+            postings.computeIfAbsent(gramAt(title, i), g -> new Posting()).add(task);
+        }
+    }
+
+    /**
+     * Removes the title of a task from the index.
+     *
+     * @param task The removed task.
+     */
+    void remove(Task task) {
+        String title = task.getLowerCaseTitle();
+        for (int i = 0; i + GRAM_LENGTH <= title.length(); i++) {
+            long gram = gramAt(title, i);
+            Posting posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(task);
+                if (posting.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index from scratch.
+     *
+     * @param tasks Every task to index; {@code null} entries are skipped.
+     */
+    void rebuild(List<Task> tasks) {
+        postings.clear();
+        for (Task task : tasks) {
+            if (task != null) {
+                add(task);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose title contains every trigram of the keyword.
+     * <p>
+     * The candidates still have to be checked, as the trigrams may occur apart.
+     * </p>
+     *
+     * @param lowerCaseKeyword Lower-cased search keyword.
+     * @return Candidate tasks in list order, or {@code null} if the keyword is too short to narrow down.
+     */
+    ArrayList<Task> candidates(String lowerCaseKeyword) {
+        if (lowerCaseKeyword.length() < GRAM_LENGTH) {
+            return null;
+        }
+
+        List<Posting> matched = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseKeyword.length(); i++) {
+            Posting posting = postings.get(gramAt(lowerCaseKeyword, i));
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            if (!matched.contains(posting)) {
+                matched.add(posting);
+            }
+        }
+
+        matched.sort(Comparator.comparingInt(posting -> posting.size));
+        Posting rarest = matched.get(0);
+        ArrayList<Task> candidates = new ArrayList<>();
+        for (int t = 0; t < rarest.size; t++) {
+            Task task = rarest.tasks[t];
+            boolean isCandidate = true;
+            for (int p = 1; p < matched.size() && isCandidate; p++) {
+                isCandidate = matched.get(p).contains(task.getId());
+            }
+            if (isCandidate) {
+                candidates.add(task);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns an upper bound on the number of candidates for a keyword, without collecting them.
+     *
+     * @param lowerCaseKeyword Lower-cased search keyword.
+     * @return The size of the rarest posting among the keyword's trigrams, or -1 if the
+     *     keyword is too short to narrow down.
+     */
+    int estimate(String lowerCaseKeyword) {
+        if (lowerCaseKeyword.length() < GRAM_LENGTH) {
+            return -1;
+        }
+
+        int rarest = Integer.MAX_VALUE;
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseKeyword.length(); i++) {
+            Posting posting = postings.get(gramAt(lowerCaseKeyword, i));
+            if (posting == null) {
+                return 0;
+            }
+            rarest = Math.min(rarest, posting.size);
+        }
+        return rarest;
+    }
+
+    /**
+     * Packs the trigram at a position into a key.
+     * <p>
+     * The packed characters are multiplied by an odd constant, which keeps keys distinct
+     * but spreads them over the bits {@link Long#hashCode()} folds together; otherwise
+     * trigrams that differ only in where their bits land collide in the hash map.
+     * </p>
+     */
+    private static long gramAt(String s, int i) {
+        long packed = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        return packed * 0x9E3779B97F4A7C15L;
+    }
+}
@@ -23,12 +23,12 @@ public class Todo extends Task {
      * {@inheritDoc}
      * <p>
      * This implementation prefixes the base task storage format with {@code "T"}
-     * to identify the task as a todo.
+     * to identify the task as a todo, followed by the id field if an id has been assigned.
      * </p>
      */
     @Override
     public String toStorageString() {
-        return (TASK_SYMBOL + super.toStorageString());
+        return (TASK_SYMBOL + super.toStorageString() + getStorageIdField());
     }
 
     /**
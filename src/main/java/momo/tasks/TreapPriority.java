@@ -0,0 +1,26 @@
+package momo.tasks;
+
+/**
+ * Derives treap node priorities from task ids.
+ * <p>
+ * Ids are handed out in ascending order, so they are scrambled with a multiplicative hash
+ * before use. This keeps a treap balanced in expectation without a random source, and gives
+ * a task the same priority in every tree it is placed in.
+ * </p>
+ */
+final class TreapPriority {
+    private TreapPriority() {
+    }
+
+    /**
+     * Returns the treap priority of a task.
+     *
+     * @param id Id of the task.
+     * @return The priority; a larger value places the node nearer the root.
+     */
+    static int of(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        return (int) (h ^ (h >>> 32));
+    }
+}
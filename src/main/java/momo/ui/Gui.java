@@ -3,7 +3,9 @@ package momo.ui;
 import java.util.ArrayList;
 
 import momo.tasks.Task;
+import momo.tasks.TaskCursor;
 import momo.tasks.TaskManager;
+import momo.tasks.TimeSlot;
 
 /**
  * UI implementation for GUI mode that captures output instead of printing.
@@ -78,15 +80,31 @@ public class Gui extends Ui {
     }
 
     /**
-     * Displays the full list of tasks.
+     * Displays the full list of tasks, each followed by its id.
      *
      * @param taskManager Task manager containing the tasks to display.
      */
     @Override
     public void showTaskList(TaskManager taskManager) {
+        showTaskList(taskManager.openCursor(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Displays up to a number of tasks from a cursor, numbered by their position in the list.
+     *
+     * @param cursor Cursor positioned at the first task to display.
+     * @param count Largest number of tasks to display.
+     */
+    @Override
+    public void showTaskList(TaskCursor cursor, int count) {
         appendLine("Time to get productive!");
-        for (int i = 1; i <= taskManager.getTaskListSize(); i++) {
-            appendLine(i + "." + taskManager.getTask(i - 1).toString());
+        int first = cursor.getPosition();
+        int shown = 0;
+        for (Task task : cursor.next(count)) {
+            appendLine(first + ++shown + "." + task.toString() + " #" + task.getId());
+        }
+        if (first > 0 || cursor.hasNext()) {
+            appendLine(describeRange(first, shown, cursor.getTotal()));
         }
     }
 
@@ -125,6 +143,20 @@ public class Gui extends Ui {
         appendLine("Now you have " + size + " tasks in the list.");
     }
 
+    /**
+     * Displays a confirmation message after a command changed several tasks at once.
+     *
+     * @param message Message describing the change.
+     * @param tasks The changed tasks.
+     */
+    @Override
+    public void showTasksChanged(String message, ArrayList<Task> tasks) {
+        appendLine(message);
+        for (Task task : tasks) {
+            appendLine(task.toString());
+        }
+    }
+
     /**
      * Displays a list of tasks that match a search query.
      *
@@ -142,6 +174,36 @@ public class Gui extends Ui {
         }
     }
 
+    /**
+     * Displays the windows of time that no event takes up.
+     *
+     * @param slots The free windows.
+     */
+    @Override
+    public void showFreeSlots(ArrayList<TimeSlot> slots) {
+        if (slots.isEmpty()) {
+            appendLine("No free time found :(");
+        } else {
+            appendLine("You are free at these times:");
+            for (int i = 0; i < slots.size(); i++) {
+                appendLine("-" + slots.get(i).toString());
+            }
+        }
+    }
+
+    /**
+     * Displays the existing events that clash with a newly added event.
+     *
+     * @param conflicts The overlapping events.
+     */
+    @Override
+    public void showEventConflicts(ArrayList<Task> conflicts) {
+        appendLine("Heads up! This event clashes with:");
+        for (int i = 0; i < conflicts.size(); i++) {
+            appendLine("-" + conflicts.get(i).toString());
+        }
+    }
+
     /**
      * Displays a confirmation message after a tag is added to a task.
      *
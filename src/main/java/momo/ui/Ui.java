@@ -4,12 +4,17 @@ import java.util.ArrayList;
 import java.util.Scanner;
 
 import momo.tasks.Task;
+import momo.tasks.TaskCursor;
 import momo.tasks.TaskManager;
+import momo.tasks.TimeSlot;
 
 /**
  * User interface component for input and output operations. Handles all user interaction for the chatbot.
  */
 public class Ui {
+    /** Number of tasks on a page of {@code list} when no size is given. */
+    public static final int PAGE_SIZE = 50;
+
     private static final String LOGO = " /\\_/\\\n"
                                         +
                                        "( o.o )\n"
@@ -17,6 +22,8 @@ public class Ui {
                                        " > ^ <";
 
     private static final String LINE = "==============================";
+    /** Number of tasks read from a cursor and printed at a time. */
+    private static final int CHUNK_SIZE = 256;
     private final Scanner scanner = new Scanner(System.in);
 
     /**
@@ -60,19 +67,55 @@ public class Ui {
     }
 
     /**
-     * Displays the full list of tasks.
+     * Displays the full list of tasks, each followed by its id.
+     * <p>
+     * The tasks are read from a cursor and printed a chunk at a time, so even a very
+     * long list is never held in memory as text.
+     * </p>
      *
      * @param taskManager Task manager containing the tasks to display.
      */
     public void showTaskList(TaskManager taskManager) {
+        showTaskList(taskManager.openCursor(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Displays up to a number of tasks from a cursor, numbered by their position in the list.
+     * <p>
+     * If the tasks shown are not the whole list, a closing line tells which part of it they are.
+     * </p>
+     *
+     * @param cursor Cursor positioned at the first task to display.
+     * @param count Largest number of tasks to display.
+     */
+    public void showTaskList(TaskCursor cursor, int count) {
         System.out.println(LINE);
         System.out.println("Time to get productive!");
-        for (int i = 1; i <= taskManager.getTaskListSize(); i++) {
-            System.out.println(i + "." + taskManager.getTask(i - 1).toString());
+        int first = cursor.getPosition();
+        int shown = 0;
+        while (shown < count && cursor.hasNext()) {
+            StringBuilder lines = new StringBuilder();
+            for (Task task : cursor.next(Math.min(CHUNK_SIZE, count - shown))) {
+                lines.append(first + ++shown).append('.').append(task).append(" #").append(task.getId())
+                        .append(System.lineSeparator());
+            }
+            System.out.print(lines);
+        }
+        if (first > 0 || cursor.hasNext()) {
+            System.out.println(describeRange(first, shown, cursor.getTotal()));
         }
         System.out.println(LINE);
     }
 
+    /**
+     * Describes which part of the list a page of tasks is, e.g. "Showing tasks 51-100 of 1000."
+     */
+    static String describeRange(int first, int shown, int total) {
+        return shown == 0
+                ? "No tasks past number " + first + " of " + total + "."
+                : "Showing tasks " + (first + 1) + "-" + (first + shown) + " of " + total + ".";
+    }
+
     /**
      * Displays a confirmation message for a completed task.
      *
@@ -111,6 +154,21 @@ public class Ui {
         System.out.println(LINE);
     }
 
+    /**
+     * Displays a confirmation message after a command changed several tasks at once.
+     *
+     * @param message Message describing the change.
+     * @param tasks The changed tasks.
+     */
+    public void showTasksChanged(String message, ArrayList<Task> tasks) {
+        System.out.println(LINE);
+        System.out.println(message);
+        for (Task task : tasks) {
+            System.out.println(task.toString());
+        }
+        System.out.println(LINE);
+    }
+
     /**
      * Displays a list of tasks that match a search query.
      *
@@ -123,6 +181,37 @@ public class Ui {
         }
     }
 
+    /**
+     * Displays the windows of time that no event takes up.
+     *
+     * @param slots The free windows.
+     */
+    public void showFreeSlots(ArrayList<TimeSlot> slots) {
+        System.out.println(LINE);
+        if (slots.isEmpty()) {
+            System.out.println("No free time found :(");
+        } else {
+            System.out.println("You are free at these times:");
+            for (int i = 0; i < slots.size(); i++) {
+                System.out.println((i + 1) + "." + slots.get(i).toString());
+            }
+        }
+        System.out.println(LINE);
+    }
+
+    /**
+     * Displays the existing events that clash with a newly added event.
+     *
+     * @param conflicts The overlapping events.
+     */
+    public void showEventConflicts(ArrayList<Task> conflicts) {
+        System.out.println("Heads up! This event clashes with:");
+        for (int i = 0; i < conflicts.size(); i++) {
+            System.out.println((i + 1) + "." + conflicts.get(i).toString());
+        }
+        System.out.println(LINE);
+    }
+
     /**
      * Displays a confirmation message after a tag is added to a task.
      *
@@ -0,0 +1,117 @@
+package momo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import momo.storage.Mutation;
+import momo.storage.StorageService;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.tasks.Todo;
+
+public class BatchRunnerTest {
+    private RecordingStorage storage;
+    private TaskManager taskManager;
+    private ByteArrayOutputStream report;
+
+    /**
+     * Incremental storage that remembers how changes were handed to it.
+     */
+    private static class RecordingStorage implements StorageService {
+        private int singleRecords;
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private boolean isRemovedTaskSeen;
+
+        @Override
+        public ArrayList<Task> loadTasks() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveTasks(ArrayList<Task> tasks) {
+        }
+
+        @Override
+        public void record(List<Task> tasks, Mutation mutation) {
+            singleRecords++;
+        }
+
+        @Override
+        public void recordAll(List<Task> tasks, List<Mutation> mutations) {
+            batchSizes.add(mutations.size());
+            isRemovedTaskSeen |= tasks.contains(null);
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return true;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        storage = new RecordingStorage();
+        taskManager = new TaskManager(storage);
+        report = new ByteArrayOutputStream();
+    }
+
+    private BatchRunner.Summary run(String script, int flushEvery) throws IOException {
+        PrintStream out = new PrintStream(report, true, StandardCharsets.UTF_8);
+        return new BatchRunner(taskManager, flushEvery, out).run(new BufferedReader(new StringReader(script)));
+    }
+
+    @Test
+    public void run_mixedScript_reportsFailuresAndWritesOnce() throws IOException {
+        BatchRunner.Summary summary = run("todo a\nmark 9\n\ntodo b\nbogus\nmark 1\n", 0);
+
+        assertEquals(3, summary.getSucceededCount(), "Valid commands should succeed");
+        assertEquals(2, summary.getFailedCount(), "Invalid commands should fail");
+        assertEquals(2, taskManager.getTaskListSize(), "Both todos should be added");
+        assertEquals(0, storage.singleRecords, "No change should be recorded on its own");
+        assertEquals(List.of(3), storage.batchSizes, "All changes should be written together at the end");
+
+        String output = report.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("line 2: "), "Failure should name its line: " + output);
+        assertTrue(output.contains("line 5: "), "Failure should name its line: " + output);
+        assertTrue(output.contains("3 succeeded, 2 failed"), "Summary should be reported: " + output);
+    }
+
+    @Test
+    public void run_flushEvery_writesEveryNCommands() throws IOException {
+        run("todo a\ntodo b\ntodo c\ntodo d\ntodo e\n", 2);
+
+        assertEquals(List.of(2, 2, 1), storage.batchSizes, "Changes should be written every 2 commands");
+    }
+
+    @Test
+    public void run_bye_stopsScriptAndEndsBatch() throws IOException {
+        BatchRunner.Summary summary = run("todo a\nbye\ntodo b\n", 0);
+
+        assertEquals(2, summary.getSucceededCount(), "Commands after bye should not run");
+        assertEquals(1, taskManager.getTaskListSize(), "Only the todo before bye should be added");
+
+        taskManager.addTask(new Todo("after"));
+        assertEquals(1, storage.singleRecords, "Changes after the script should be recorded one by one");
+    }
+
+    @Test
+    public void run_deleteThenCommit_handsStorageListWithoutRemovedTasks() throws IOException {
+        run("todo a\ntodo b\ntodo c\ntodo d\ndelete 1\n", 0);
+
+        assertEquals(List.of(5), storage.batchSizes, "All changes should be written together at the end");
+        assertFalse(storage.isRemovedTaskSeen, "Storage should never be handed a removed task's tombstone");
+    }
+}
@@ -1,27 +1,39 @@
 package momo.parser;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDateTime;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import momo.commands.BetweenCommand;
 import momo.commands.Command;
 import momo.commands.DeadlineCommand;
 import momo.commands.DeleteCommand;
 import momo.commands.EventCommand;
 import momo.commands.ExitCommand;
+import momo.commands.FilterCommand;
 import momo.commands.FindCommand;
+import momo.commands.FreeCommand;
 import momo.commands.ListCommand;
 import momo.commands.MarkCommand;
+import momo.commands.OverdueCommand;
+import momo.commands.OverlapsCommand;
 import momo.commands.TagCommand;
 import momo.commands.TodoCommand;
 import momo.commands.UnmarkCommand;
 import momo.commands.UntagCommand;
+import momo.commands.UpcomingCommand;
 import momo.exceptions.InvalidArgumentException;
 import momo.exceptions.InvalidCommandException;
 import momo.exceptions.InvalidDateTimeException;
 import momo.exceptions.MomoException;
+import momo.tasks.Deadline;
+import momo.tasks.Query;
+import momo.tasks.Todo;
 
 
 public class ParserTest {
@@ -65,6 +77,20 @@ public class ParserTest {
         assertTrue(c instanceof ListCommand, "Expected ListCommand for input with extra spaces");
     }
 
+    @Test
+    public void parse_keywordInAnyCase_returnsCommand() throws MomoException {
+        assertTrue(parser.parse("LiSt") instanceof ListCommand, "Expected keywords to ignore case");
+        assertTrue(parser.parse("\tlist\n") instanceof ListCommand, "Expected tabs and newlines to be whitespace");
+    }
+
+    @Test
+    public void parse_listPage_returnsListCommand() throws MomoException {
+        for (String input : new String[] {"list --page 3", "list --size 20", "list --page 3 --size 50",
+            "list --size 1000 --page 1"}) {
+            assertTrue(parser.parse(input) instanceof ListCommand, "Expected ListCommand for input: " + input);
+        }
+    }
+
     //Invalid input
     @Test
     public void parse_listWithExtraArgs_throwsInvalidArgument() {
@@ -72,6 +98,15 @@ public class ParserTest {
                 "Expected InvalidArgumentException when list has extra arguments");
     }
 
+    @Test
+    public void parse_listInvalidPage_throwsInvalidArgument() {
+        for (String input : new String[] {"list --page", "list --page 0", "list --page two", "list --size 1001",
+            "list --page 1 --page 2", "list --page 1 --size", "list --size 0"}) {
+            assertThrows(InvalidArgumentException.class, () -> parser.parse(input),
+                    "Expected InvalidArgumentException for input: " + input);
+        }
+    }
+
     //-------Bye-------
     //Valid input
     @Test
@@ -108,6 +143,36 @@ public class ParserTest {
                 "Expected InvalidArgumentException when mark has wrong formatted arguments");
     }
 
+    @Test
+    public void parse_markTaskId_returnsMarkCommand() throws MomoException {
+        Command c = parser.parse("mark #12");
+        assertTrue(c instanceof MarkCommand, "Expected MarkCommand for input: mark #12");
+    }
+
+    @Test
+    public void parse_markInvalidTaskId_throwsInvalidArgument() {
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("mark #0"),
+                "Expected InvalidArgumentException when the task id is not positive");
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("mark #"),
+                "Expected InvalidArgumentException when the task id is missing");
+    }
+
+    @Test
+    public void parse_bulkSelection_returnsCommand() throws MomoException {
+        assertTrue(parser.parse("mark 1-500") instanceof MarkCommand, "Expected MarkCommand for a range");
+        assertTrue(parser.parse("delete 3,7,9-20") instanceof DeleteCommand, "Expected DeleteCommand for a list");
+        assertTrue(parser.parse("tag 1-100,#7 urgent") instanceof TagCommand, "Expected TagCommand for a range");
+    }
+
+    @Test
+    public void parse_invalidSelection_throwsInvalidArgument() {
+        for (String input : new String[] {"mark 5-3", "mark 1-", "unmark 1,", "delete 1,,2", "tag 1-x urgent",
+            "untag #3-5 urgent"}) {
+            assertThrows(InvalidArgumentException.class, () -> parser.parse(input),
+                    "Expected InvalidArgumentException for input: " + input);
+        }
+    }
+
     //------Unmark-----
     //Valid input
     @Test
@@ -211,6 +276,16 @@ public class ParserTest {
                 "Expected InvalidDateTimeException for invalid deadline date");
     }
 
+    @Test
+    public void parse_deadlineLeapDay_checksYear() throws MomoException {
+        assertTrue(parser.parse("deadline submit report /by 2028-02-29") instanceof DeadlineCommand,
+                "Expected 29 February to be valid in a leap year");
+        assertThrows(InvalidDateTimeException.class, () -> parser.parse("deadline submit report /by 2026-02-29"),
+                "Expected InvalidDateTimeException for 29 February outside a leap year");
+        assertThrows(InvalidDateTimeException.class, () -> parser.parse("deadline submit report /by 2026-04-31"),
+                "Expected InvalidDateTimeException for a day past the end of the month");
+    }
+
     @Test
     public void parse_deadlineInvalidTime_throwsInvalidDateTime() {
         assertThrows(InvalidDateTimeException.class, () -> parser.parse("deadline submit report /by 2026-02-01 2460"),
@@ -243,6 +318,18 @@ public class ParserTest {
         assertTrue(c instanceof EventCommand, "Expected EventCommand for valid date-time event");
     }
 
+    @Test
+    public void parse_eventWithCheckFlag_returnsEventCommand() throws MomoException {
+        Command c = parser.parse("event party /from 2026-02-01 0900 /to 2026-02-01 1100 /check");
+        assertTrue(c instanceof EventCommand, "Expected EventCommand for event with /check");
+    }
+
+    @Test
+    public void parse_eventCheckFlagOnly_throwsInvalidArgument() {
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("event party /check"),
+                "Expected InvalidArgumentException when /check is given without /from and /to");
+    }
+
     //Invalid input
     @Test
     public void parse_eventEmptyTask_throwsInvalidArgument() {
@@ -322,7 +409,21 @@ public class ParserTest {
         assertTrue(c instanceof FindCommand, "Expected FindCommand for input: find #very Important Tag");
     }
 
+    @Test
+    public void parse_findSeveralTags_returnsFindCommand() throws MomoException {
+        assertTrue(parser.parse("find #school #cs2103t") instanceof FindCommand,
+                "Expected FindCommand for input: find #school #cs2103t");
+        assertTrue(parser.parse("find #school or #home") instanceof FindCommand,
+                "Expected FindCommand for input: find #school or #home");
+    }
+
     // Invalid input
+    @Test
+    public void parse_findMixedTagConnectives_throwsInvalidArgument() {
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("find #a or #b #c"),
+                "Expected InvalidArgumentException when 'or' is mixed with plain tags");
+    }
+
     @Test
     public void parse_findMissingKeyword_throwsInvalidArgument() {
         assertThrows(InvalidArgumentException.class, () -> parser.parse("find"),
@@ -355,6 +456,12 @@ public class ParserTest {
         assertTrue(c instanceof TagCommand, "Expected TagCommand for input: tag 1 school");
     }
 
+    @Test
+    public void parse_tagTaskId_returnsTagCommand() throws MomoException {
+        Command c = parser.parse("tag #7 school");
+        assertTrue(c instanceof TagCommand, "Expected TagCommand for input: tag #7 school");
+    }
+
     @Test
     public void parse_tagMultipleTags_returnsTagCommand() throws MomoException {
         Command c = parser.parse("tag 2 work,urgent,cs");
@@ -436,4 +543,144 @@ public class ParserTest {
         assertThrows(InvalidArgumentException.class, () -> parser.parse("untag one school"),
                 "Expected InvalidArgumentException when untag index is not an integer");
     }
+
+    //-------BETWEEN / OVERLAPS-------
+    // Valid input
+    @Test
+    public void parse_betweenDatesAndTimes_returnsBetweenCommand() throws MomoException {
+        for (String input : new String[] {"between 2026-03-01 2026-03-07", "between 2026-03-01 0900 2026-03-01",
+            "between 2026-03-01 2026-03-02 1800", "between 2026-03-01 0900 2026-03-01 1800"}) {
+            Command c = parser.parse(input);
+            assertTrue(c instanceof BetweenCommand, "Expected BetweenCommand for input: " + input);
+        }
+    }
+
+    @Test
+    public void parse_overlapsValid_returnsOverlapsCommand() throws MomoException {
+        assertTrue(parser.parse("overlaps 2") instanceof OverlapsCommand, "Expected OverlapsCommand for index");
+        assertTrue(parser.parse("overlaps #7") instanceof OverlapsCommand, "Expected OverlapsCommand for id");
+    }
+
+    // Invalid input
+    @Test
+    public void parse_betweenMissingEnd_throwsInvalidArgument() {
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("between 2026-03-01 0900"),
+                "Expected InvalidArgumentException when between has no end");
+    }
+
+    @Test
+    public void parse_betweenEndBeforeStart_throwsInvalidArgument() {
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("between 2026-03-02 2026-03-01"),
+                "Expected InvalidArgumentException when the period ends before it starts");
+    }
+
+    @Test
+    public void parse_betweenBadDate_throwsInvalidDateTime() {
+        assertThrows(InvalidDateTimeException.class, () -> parser.parse("between 2026-13-01 2026-03-01"),
+                "Expected InvalidDateTimeException when a date is invalid");
+    }
+
+    @Test
+    public void parse_overlapsNonIntegerIndex_throwsInvalidArgument() {
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("overlaps one"),
+                "Expected InvalidArgumentException when overlaps index is not an integer");
+    }
+
+    //-------UPCOMING / OVERDUE-------
+    // Valid input
+    @Test
+    public void parse_upcomingWithAndWithoutCount_returnsUpcomingCommand() throws MomoException {
+        assertTrue(parser.parse("upcoming") instanceof UpcomingCommand, "Expected UpcomingCommand without count");
+        assertTrue(parser.parse("upcoming 10") instanceof UpcomingCommand, "Expected UpcomingCommand with count");
+    }
+
+    @Test
+    public void parse_overdue_returnsOverdueCommand() throws MomoException {
+        assertTrue(parser.parse("overdue") instanceof OverdueCommand, "Expected OverdueCommand for input: overdue");
+    }
+
+    // Invalid input
+    @Test
+    public void parse_upcomingInvalidCount_throwsInvalidArgument() {
+        for (String input : new String[] {"upcoming 0", "upcoming ten", "upcoming 1 2"}) {
+            assertThrows(InvalidArgumentException.class, () -> parser.parse(input),
+                    "Expected InvalidArgumentException for input: " + input);
+        }
+    }
+
+    @Test
+    public void parse_overdueExtraArgs_throwsInvalidArgument() {
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("overdue 1"),
+                "Expected InvalidArgumentException when overdue has extra args");
+    }
+
+    //-------FREE-------
+    // Valid input
+    @Test
+    public void parse_freeDayOrRange_returnsFreeCommand() throws MomoException {
+        for (String input : new String[] {"free 2026-03-03 30m", "free 2026-03-03 2h", "free 2026-03-03 1H30M",
+            "free 2026-03-03 2026-03-05 45m"}) {
+            assertTrue(parser.parse(input) instanceof FreeCommand, "Expected FreeCommand for input: " + input);
+        }
+    }
+
+    // Invalid input
+    @Test
+    public void parse_freeInvalidDuration_throwsInvalidArgument() {
+        for (String input : new String[] {"free 2026-03-03", "free 2026-03-03 0m", "free 2026-03-03 90",
+            "free 2026-03-03 m", "free 2026-03-05 2026-03-03 1h"}) {
+            assertThrows(InvalidArgumentException.class, () -> parser.parse(input),
+                    "Expected InvalidArgumentException for input: " + input);
+        }
+    }
+
+    @Test
+    public void parse_freeInvalidDate_throwsInvalidDateTime() {
+        assertThrows(InvalidDateTimeException.class, () -> parser.parse("free tomorrow 1h"),
+                "Expected InvalidDateTimeException when the date is invalid");
+    }
+
+    //-------FILTER-------
+    // Valid input
+    @Test
+    public void parse_filter_returnsFilterCommand() throws MomoException {
+        for (String input : new String[] {"filter #cs", "filter essay", "filter \"lab report\" is:undone",
+            "filter type:deadline due:2026-03-01..2026-03-07", "filter (#cs or #ma) and not is:done",
+            "filter start:..2026-03-01 OR end:2026-03-05..", "filter re:meeting"}) {
+            assertTrue(parser.parse(input) instanceof FilterCommand, "Expected FilterCommand for input: " + input);
+        }
+    }
+
+    @Test
+    public void parseQuery_notBindsTighterThanAndThanOr() throws MomoException {
+        Query query = parser.parseQuery("#a or #b not is:done");
+        Todo tagged = new Todo("x");
+        tagged.addTag("b");
+        tagged.setComplete();
+        Deadline due = new Deadline("submit essay", LocalDateTime.of(2026, 3, 1, 23, 59));
+        due.addTag("a");
+        due.setComplete();
+
+        assertFalse(query.matches(tagged), "#b with is:done should not match");
+        assertTrue(query.matches(due), "#a should match whatever the status");
+        assertTrue(parser.parseQuery("type:deadline due:2026-03-01 \"SUBMIT essay\"").matches(due),
+                "Expected a whole-day range and a phrase to match");
+    }
+
+    // Invalid input
+    @Test
+    public void parse_filterInvalidQuery_throwsInvalidArgument() {
+        for (String input : new String[] {"filter", "filter (#cs", "filter #cs)", "filter #", "filter type:note",
+            "filter is:maybe", "filter #cs or", "filter due:..", "filter \"essay",
+            "filter due:2026-03-07..2026-03-01"}) {
+            assertThrows(InvalidArgumentException.class, () -> parser.parse(input),
+                    "Expected InvalidArgumentException for input: " + input);
+        }
+    }
+
+    @Test
+    public void parse_filterInvalidDate_throwsInvalidDateTime() {
+        assertThrows(InvalidDateTimeException.class, () -> parser.parse("filter due:2026-02-30"),
+                "Expected InvalidDateTimeException when a date is invalid");
+    }
 }
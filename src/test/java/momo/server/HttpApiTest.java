@@ -0,0 +1,135 @@
+package momo.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import momo.exceptions.StorageException;
+import momo.storage.StorageService;
+import momo.tasks.ConcurrentTaskManager;
+import momo.tasks.Task;
+import momo.tasks.Todo;
+
+public class HttpApiTest {
+    private static class StubStorage implements StorageService {
+        @Override
+        public ArrayList<Task> loadTasks() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveTasks(ArrayList<Task> tasks) {
+        }
+    }
+
+    private static class FailingStorage extends StubStorage {
+        @Override
+        public void saveTasks(ArrayList<Task> tasks) {
+            throw new StorageException("Disk is full");
+        }
+    }
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void addListMarkDelete_returnJson() throws Exception {
+        ConcurrentTaskManager tm = new ConcurrentTaskManager(new StubStorage());
+        try (HttpApi api = new HttpApi(tm, 0)) {
+            String base = "http://127.0.0.1:" + api.getPort() + "/tasks";
+
+            HttpResponse<String> added = send(HttpRequest.newBuilder(URI.create(base))
+                    .POST(HttpRequest.BodyPublishers.ofString("deadline submit \"ip\" /by 2026-03-01 2359")));
+            assertEquals(201, added.statusCode(), added.body());
+            assertEquals("{\"id\":1,\"type\":\"deadline\",\"title\":\"submit \\\"ip\\\"\",\"done\":false,"
+                    + "\"tags\":[],\"by\":\"2026-03-01T23:59\"}", added.body(), "Added task should be JSON");
+            send(HttpRequest.newBuilder(URI.create(base)).POST(HttpRequest.BodyPublishers.ofString("todo read")));
+
+            HttpResponse<String> marked = send(HttpRequest.newBuilder(URI.create(base + "/2/mark"))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            assertTrue(marked.body().contains("\"done\":true"), marked.body());
+
+            HttpResponse<String> found = send(HttpRequest.newBuilder(URI.create(base + "?q=read")));
+            assertEquals("[{\"id\":2,\"type\":\"todo\",\"title\":\"read\",\"done\":true,\"tags\":[]}]",
+                    found.body(), "Search should list matches");
+
+            assertEquals(200, send(HttpRequest.newBuilder(URI.create(base + "/1")).DELETE()).statusCode());
+            assertEquals(404, send(HttpRequest.newBuilder(URI.create(base + "/1")).DELETE()).statusCode());
+            assertEquals(1, tm.getTaskListSize(), "Deleted task should be gone");
+        }
+    }
+
+    @Test
+    public void list_unchangedSinceEtag_returnsNotModified() throws Exception {
+        ConcurrentTaskManager tm = new ConcurrentTaskManager(new StubStorage());
+        try (HttpApi api = new HttpApi(tm, 0)) {
+            URI tasks = URI.create("http://127.0.0.1:" + api.getPort() + "/tasks");
+            HttpResponse<String> first = send(HttpRequest.newBuilder(tasks));
+            String etag = first.headers().firstValue("ETag").orElseThrow();
+            assertEquals("[]", first.body(), "Empty list should be an empty array");
+
+            assertEquals(304, send(HttpRequest.newBuilder(tasks).header("If-None-Match", etag)).statusCode(),
+                    "Unchanged list should not be sent again");
+
+            tm.addTask(new Todo("read"));
+            HttpResponse<String> changed = send(HttpRequest.newBuilder(tasks).header("If-None-Match", etag));
+            assertEquals(200, changed.statusCode(), "Changed list should be sent");
+            assertTrue(changed.body().contains("\"read\""), changed.body());
+        }
+    }
+
+    @Test
+    public void badRequests_returnErrorJson() throws Exception {
+        try (HttpApi api = new HttpApi(new ConcurrentTaskManager(new StubStorage()), 0)) {
+            String base = "http://127.0.0.1:" + api.getPort() + "/tasks";
+            HttpResponse<String> notAnAdd = send(HttpRequest.newBuilder(URI.create(base))
+                    .POST(HttpRequest.BodyPublishers.ofString("list")));
+            assertEquals(400, notAnAdd.statusCode());
+            assertTrue(notAnAdd.body().startsWith("{\"error\":"), notAnAdd.body());
+
+            assertEquals(404, send(HttpRequest.newBuilder(URI.create(base + "/abc/mark"))
+                    .POST(HttpRequest.BodyPublishers.noBody())).statusCode());
+        }
+    }
+
+    @Test
+    public void addEventWithCheck_returnsConflicts() throws Exception {
+        try (HttpApi api = new HttpApi(new ConcurrentTaskManager(new StubStorage()), 0)) {
+            String base = "http://127.0.0.1:" + api.getPort() + "/tasks";
+            send(HttpRequest.newBuilder(URI.create(base)).POST(HttpRequest.BodyPublishers.ofString(
+                    "event lecture /from 2026-03-03 1400 /to 2026-03-03 1600")));
+
+            HttpResponse<String> added = send(HttpRequest.newBuilder(URI.create(base))
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "event meeting /from 2026-03-03 1500 /to 2026-03-03 1700 /check")));
+
+            assertEquals(201, added.statusCode(), added.body());
+            assertEquals("{\"id\":2,\"type\":\"event\",\"title\":\"meeting\",\"done\":false,\"tags\":[],"
+                    + "\"from\":\"2026-03-03T15:00\",\"to\":\"2026-03-03T17:00\",\"conflicts\":["
+                    + "{\"id\":1,\"type\":\"event\",\"title\":\"lecture\",\"done\":false,\"tags\":[],"
+                    + "\"from\":\"2026-03-03T14:00\",\"to\":\"2026-03-03T16:00\"}]}",
+                    added.body(), "Clashing events should be returned with the added event");
+        }
+    }
+
+    @Test
+    public void storageFailure_returnsServerError() throws Exception {
+        try (HttpApi api = new HttpApi(new ConcurrentTaskManager(new FailingStorage()), 0)) {
+            HttpResponse<String> added = send(HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + api.getPort() + "/tasks"))
+                    .POST(HttpRequest.BodyPublishers.ofString("todo read")));
+            assertEquals(500, added.statusCode(), "A failed write is not the client's fault");
+            assertEquals("{\"error\":\"Disk is full\"}", added.body());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package momo.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+
+import momo.storage.StorageService;
+import momo.tasks.ConcurrentTaskManager;
+import momo.tasks.Task;
+
+public class MomoServerTest {
+    private static final int CLIENTS = 64;
+    private static final int TASKS_PER_CLIENT = 20;
+
+    private static class StubStorage implements StorageService {
+        @Override
+        public ArrayList<Task> loadTasks() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveTasks(ArrayList<Task> tasks) {
+        }
+    }
+
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            readResponse(); // welcome
+        }
+
+        String send(String command) throws IOException {
+            out.println(command);
+            return readResponse();
+        }
+
+        private String readResponse() throws IOException {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty()) {
+                response.append(line).append("\n");
+            }
+            return response.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void concurrentSessions_shareOneTaskList() throws Exception {
+        ConcurrentTaskManager tm = new ConcurrentTaskManager(new StubStorage());
+        try (MomoServer server = new MomoServer(tm, 0)) {
+            ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                String name = "client" + c;
+                threads.add(new Thread(() -> {
+                    try (Client client = new Client(server.getPort())) {
+                        for (int t = 0; t < TASKS_PER_CLIENT; t++) {
+                            String response = client.send("todo " + name + " task " + t);
+                            assertTrue(response.startsWith("Got it!"), "Unexpected response: " + response);
+                        }
+                        assertTrue(client.send("find " + name + " ").contains(name), "Session should see its tasks");
+                        assertTrue(client.send("bye").startsWith("Bye"), "bye should end the session");
+                    } catch (Throwable err) {
+                        failures.add(err);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertTrue(failures.isEmpty(), "No client should fail: " + failures);
+            assertEquals(CLIENTS * TASKS_PER_CLIENT, tm.getTaskListSize(), "Every session's tasks should be added");
+        }
+    }
+
+    @Test
+    public void invalidCommand_reportsErrorAndKeepsSession() throws Exception {
+        ConcurrentTaskManager tm = new ConcurrentTaskManager(new StubStorage());
+        try (MomoServer server = new MomoServer(tm, 0); Client client = new Client(server.getPort())) {
+            assertTrue(client.send("mark 5").contains("Did you mean"), "Errors should be sent back");
+            assertTrue(client.send("todo still here").startsWith("Got it!"), "Session should continue after errors");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package momo.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import momo.exceptions.InvalidArgumentException;
+import momo.tasks.Todo;
+
+public class WorkspaceManagerTest {
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("momo-workspaces");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void overBudget_evictsLeastRecentlyUsedAndReloadsFromDisk() {
+        long budget = 3 * WorkspaceManager.WORKSPACE_OVERHEAD_BYTES + 10_000;
+        try (WorkspaceManager workspaces = new WorkspaceManager(directory, budget)) {
+            for (int user = 0; user < 10; user++) {
+                try (WorkspaceManager.Lease lease = workspaces.acquire("user" + user)) {
+                    for (int t = 0; t <= user; t++) {
+                        lease.getTaskManager().addTask(new Todo("task " + t + " of user" + user));
+                    }
+                }
+            }
+
+            assertTrue(workspaces.getEstimatedBytes() <= budget, "Idle workspaces should fit the budget");
+            assertTrue(workspaces.getLoadedCount() < 10, "Least recently used workspaces should be evicted");
+
+            for (int user = 0; user < 10; user++) {
+                try (WorkspaceManager.Lease lease = workspaces.acquire("user" + user)) {
+                    assertEquals(user + 1, lease.getTaskManager().getTaskListSize(),
+                            "Workspace should reload with its own tasks: user" + user);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void leasedWorkspace_isNotEvicted() {
+        try (WorkspaceManager workspaces = new WorkspaceManager(directory, 1)) {
+            try (WorkspaceManager.Lease held = workspaces.acquire("held")) {
+                held.getTaskManager().addTask(new Todo("keep me"));
+                workspaces.acquire("other").close();
+
+                assertEquals(1, workspaces.getLoadedCount(), "Only the leased workspace should stay loaded");
+                held.getTaskManager().addTask(new Todo("still usable"));
+            }
+            try (WorkspaceManager.Lease reloaded = workspaces.acquire("held")) {
+                assertEquals(2, reloaded.getTaskManager().getTaskListSize(), "Changes should survive eviction");
+            }
+        }
+    }
+
+    @Test
+    public void acquire_invalidKey_throwsInvalidArgument() {
+        try (WorkspaceManager workspaces = new WorkspaceManager(directory, 1 << 20)) {
+            assertThrows(InvalidArgumentException.class, () -> workspaces.acquire("../escape"),
+                    "Keys must not reach outside the directory");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package momo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import momo.tasks.Deadline;
+import momo.tasks.Event;
+import momo.tasks.Task;
+import momo.tasks.Todo;
+
+public class BinaryStorageTest {
+    @TempDir
+    Path tempDir;
+
+    private static ArrayList<Task> sampleTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        Task deadline = new Deadline("submit | report, draft", LocalDateTime.of(2026, 3, 1, 23, 59));
+        deadline.setComplete();
+        deadline.addTag("school");
+        deadline.addTag("cs2103t");
+        tasks.add(deadline);
+        Task event = new Event("consultation \\ 日本", LocalDateTime.of(2026, 3, 3, 14, 0),
+                LocalDateTime.of(2026, 3, 3, 16, 0, 30, 5));
+        event.addTag("school");
+        tasks.add(event);
+        return tasks;
+    }
+
+    private static List<String> render(List<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(task.toStorageString());
+        }
+        return lines;
+    }
+
+    @Test
+    public void saveTasks_roundTrip_loadsSameTasks() {
+        String path = tempDir.resolve("momoTasks.bin").toString();
+        ArrayList<Task> tasks = sampleTasks();
+
+        new BinaryStorage(path).saveTasks(tasks);
+
+        assertEquals(render(tasks), render(new BinaryStorage(path).loadTasks()),
+                "Binary round trip should preserve every field");
+    }
+
+    @Test
+    public void converter_textToBinaryAndBack_isLossless() throws IOException {
+        String text = tempDir.resolve("momoTasks.txt").toString();
+        String binary = tempDir.resolve("momoTasks.bin").toString();
+        String textAgain = tempDir.resolve("roundTrip.txt").toString();
+        new Storage(text).saveTasks(sampleTasks());
+
+        assertEquals(3, StorageConverter.textToBinary(text, binary), "All tasks should be converted");
+        assertEquals(3, StorageConverter.binaryToText(binary, textAgain), "All tasks should be converted back");
+
+        assertEquals(Files.readAllLines(Path.of(text)), Files.readAllLines(Path.of(textAgain)),
+                "Converting to binary and back should reproduce the text file");
+    }
+
+    @Test
+    public void loadTasks_wrongMagic_fallsBackToPreviousGeneration() throws IOException {
+        Path path = tempDir.resolve("momoTasks.bin");
+        BinaryStorage storage = new BinaryStorage(path.toString());
+        ArrayList<Task> previous = sampleTasks();
+        storage.saveTasks(previous);
+        storage.saveTasks(new ArrayList<>());
+
+        Files.write(path, "T|0|not binary|".getBytes());
+
+        assertEquals(render(previous), render(new BinaryStorage(path.toString()).loadTasks()),
+                "An unreadable file should fall back to the backup generation");
+    }
+
+    @Test
+    public void loadTasks_negativeTagCount_fallsBackToPreviousGeneration() throws IOException {
+        Path path = tempDir.resolve("momoTasks.bin");
+        BinaryStorage storage = new BinaryStorage(path.toString());
+        ArrayList<Task> previous = sampleTasks();
+        storage.saveTasks(previous);
+        ArrayList<Task> latest = new ArrayList<>();
+        latest.add(new Todo("a"));
+        storage.saveTasks(latest);
+
+        // Header (14 bytes), record length, type, flags, id and the title "a" come before the tag count
+        byte[] bytes = Files.readAllBytes(path);
+        int tagCountOffset = 14 + Integer.BYTES + 2 + Long.BYTES + Integer.BYTES + 1;
+        bytes[tagCountOffset] = (byte) 0xFF;
+        bytes[tagCountOffset + 1] = (byte) 0xFF;
+        Files.write(path, bytes);
+
+        assertEquals(render(previous), render(new BinaryStorage(path.toString()).loadTasks()),
+                "A record with a negative tag count should be treated as a damaged file");
+    }
+
+    @Test
+    public void mappedTaskFile_get_decodesOnlyRequestedRecords() {
+        String path = tempDir.resolve("momoTasks.bin").toString();
+        ArrayList<Task> tasks = sampleTasks();
+        new BinaryStorage(path).saveTasks(tasks);
+
+        try (MappedTaskFile mapped = MappedTaskFile.open(path)) {
+            assertEquals(3, mapped.size(), "Size should come from the header");
+            assertEquals(tasks.get(2).toStorageString(), mapped.get(2).toStorageString(),
+                    "Random access should decode the requested record");
+            assertEquals(render(tasks), render(mapped.asList()), "List view should decode every record");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package momo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import momo.tasks.TaskManager;
+import momo.tasks.Todo;
+
+public class JournalStorageTest {
+    @TempDir
+    Path tempDir;
+
+    private String journalPath() {
+        return tempDir.resolve("momoTasks.journal").toString();
+    }
+
+    @Test
+    public void loadTasks_replaysRecordedMutations() {
+        TaskManager tm = new TaskManager(new JournalStorage(journalPath()));
+        tm.addTask(new Todo("A"));
+        tm.addTask(new Todo("B"));
+        tm.addTask(new Todo("C"));
+        tm.markTask(1);
+        tm.tagTask(2, "school");
+        tm.tagTask(2, "a|b");
+        tm.untagTask(2, "school");
+        tm.removeTask(0);
+
+        TaskManager reloaded = new TaskManager(new JournalStorage(journalPath()));
+
+        assertEquals(2, reloaded.getTaskListSize(), "Replay should apply the delete");
+        assertEquals("[T][X] B", reloaded.getTask(0).toString(), "Replay should apply the mark");
+        assertEquals("[T][ ] C (tags: a|b)", reloaded.getTask(1).toString(), "Replay should apply tag changes");
+    }
+
+    @Test
+    public void loadTasks_manyDeletes_resolvesLaterRecordsPastRemovedTasks() {
+        TaskManager tm = new TaskManager(new JournalStorage(journalPath()));
+        for (int i = 0; i < 10; i++) {
+            tm.addTask(new Todo("T" + i));
+        }
+        for (int i = 0; i < 5; i++) {
+            tm.removeTask(i); // removes T0, T2, T4, T6, T8
+        }
+        tm.markTask(4);
+        tm.addTask(new Todo("T10"));
+        tm.removeTask(0);
+
+        TaskManager reloaded = new TaskManager(new JournalStorage(journalPath()));
+
+        assertEquals(5, reloaded.getTaskListSize(), "Replay should apply every delete");
+        assertEquals("[T][ ] T3", reloaded.getTask(0).toString());
+        assertEquals("[T][X] T9", reloaded.getTask(3).toString(), "Mark after deletes should find its task");
+        assertEquals("[T][ ] T10", reloaded.getTask(4).toString());
+    }
+
+    @Test
+    public void loadTasks_tornTrailingRecord_keepsEarlierRecords() throws IOException {
+        TaskManager tm = new TaskManager(new JournalStorage(journalPath()));
+        tm.addTask(new Todo("A"));
+        tm.addTask(new Todo("B"));
+
+        // A fresh journal starts with an empty snapshot, so records go to segment 1
+        try (FileWriter writer = new FileWriter(journalPath() + ".1", true)) {
+            writer.write("M|"); // simulates a crash halfway through appending a record
+        }
+
+        TaskManager reloaded = new TaskManager(new JournalStorage(journalPath()));
+
+        assertEquals(2, reloaded.getTaskListSize(), "Records before the torn one should survive");
+        assertEquals("[T][ ] B", reloaded.getTask(1).toString(), "Torn mark record should be dropped");
+    }
+
+    @Test
+    public void compact_foldsTailIntoSnapshot_reloadMatches() {
+        JournalStorage journal = new JournalStorage(journalPath());
+        TaskManager tm = new TaskManager(journal);
+        tm.addTask(new Todo("A"));
+        tm.addTask(new Todo("B"));
+        tm.markTask(0);
+
+        assertTrue(new JournalCompactor(journal, 1_000, 1).compact(), "Compaction should run once records exist");
+        assertEquals(0, journal.getTailRecordCount(), "Tail should be empty after compaction");
+        assertTrue(new File(journalPath() + ".1.snapshot").exists(), "Compaction should write a snapshot");
+        assertFalse(new File(journalPath()).exists(), "Segments before the previous snapshot should be deleted");
+
+        tm.addTask(new Todo("C"));
+        tm.removeTask(1);
+
+        TaskManager reloaded = new TaskManager(new JournalStorage(journalPath()));
+
+        assertEquals(2, reloaded.getTaskListSize(), "Reload should combine snapshot and tail");
+        assertEquals("[T][X] A", reloaded.getTask(0).toString(), "Snapshot state should be kept");
+        assertEquals("[T][ ] C", reloaded.getTask(1).toString(), "Tail records should be replayed");
+    }
+
+    @Test
+    public void loadTasks_damagedRecordMidJournal_setsLaterSegmentsAside() throws IOException {
+        JournalStorage journal = new JournalStorage(journalPath());
+        TaskManager tm = new TaskManager(journal);
+        tm.addTask(new Todo("A"));
+        tm.addTask(new Todo("B"));
+        journal.sealActiveSegment();
+        tm.addTask(new Todo("C"));
+
+        Path segment = Path.of(journalPath() + ".1");
+        List<String> records = new ArrayList<>(Files.readAllLines(segment));
+        records.add(1, "X|garbage");
+        Files.write(segment, records);
+
+        TaskManager reloaded = new TaskManager(new JournalStorage(journalPath()));
+
+        assertEquals(1, reloaded.getTaskListSize(), "Records before the damaged one should survive");
+        assertEquals("[T][ ] A", reloaded.getTask(0).toString());
+        assertTrue(new File(journalPath() + ".1.corrupt").exists(), "Damaged segment should be set aside");
+        assertTrue(new File(journalPath() + ".2.corrupt").exists(), "Later segments should be set aside, not deleted");
+    }
+
+    @Test
+    public void loadTasks_damagedSnapshot_fallsBackToPreviousSnapshot() throws IOException {
+        JournalStorage journal = new JournalStorage(journalPath());
+        TaskManager tm = new TaskManager(journal);
+        tm.addTask(new Todo("A"));
+        tm.markTask(0);
+        assertTrue(new JournalCompactor(journal, 1_000, 1).compact(), "Compaction should run once records exist");
+        tm.addTask(new Todo("B"));
+
+        Files.writeString(Path.of(journalPath() + ".1.snapshot"), "garbage\n");
+
+        TaskManager reloaded = new TaskManager(new JournalStorage(journalPath()));
+
+        assertEquals(2, reloaded.getTaskListSize(), "Previous snapshot and every segment should be replayed");
+        assertEquals("[T][X] A", reloaded.getTask(0).toString());
+        assertEquals("[T][ ] B", reloaded.getTask(1).toString());
+        assertTrue(new File(journalPath() + ".1.snapshot.corrupt").exists(), "Damaged snapshot should be set aside");
+    }
+}
@@ -0,0 +1,95 @@
+package momo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.tasks.Todo;
+
+public class SlottedStorageTest {
+    @TempDir
+    Path tempDir;
+
+    private static List<String> render(List<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(task.toStorageString());
+        }
+        return lines;
+    }
+
+    @Test
+    public void record_mixedChanges_reloadMatchesMemory() {
+        String path = tempDir.resolve("momoTasks.slots").toString();
+        TaskManager tm = new TaskManager(new SlottedStorage(path));
+        for (int i = 0; i < 10; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+
+        tm.markTask(3);
+        tm.tagTask(7, "urgent");
+        tm.removeTask(1);
+        tm.addTask(new Todo("a title long enough to outgrow the slot " + "x".repeat(300)));
+        tm.removeTask(9);
+        tm.unmarkTask(2);
+
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < tm.getTaskListSize(); i++) {
+            expected.add(tm.getTask(i));
+        }
+        assertEquals(render(expected), render(new SlottedStorage(path).loadTasks()),
+                "Slots on disk should match the list in memory");
+    }
+
+    @Test
+    public void saveChanges_onlyDirtyTasks_rewritesTheirSlots() throws IOException {
+        Path path = tempDir.resolve("momoTasks.slots");
+        SlottedStorage storage = new SlottedStorage(path.toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        storage.saveTasks(tasks);
+        long sizeBefore = Files.size(path);
+
+        tasks.get(2).setComplete();
+        tasks.get(4).addTag("home");
+        storage.saveChanges(tasks);
+
+        assertFalse(tasks.get(2).isDirty(), "Written tasks should no longer be dirty");
+        assertEquals(sizeBefore, Files.size(path), "In-place updates should not grow the file");
+        assertEquals(render(tasks), render(new SlottedStorage(path.toString()).loadTasks()),
+                "Dirty tasks should be persisted");
+    }
+
+    @Test
+    public void recordAll_bulkMark_updatesSlotsInPlace() throws IOException {
+        Path path = tempDir.resolve("momoTasks.slots");
+        TaskManager tm = new TaskManager(new SlottedStorage(path.toString()));
+        for (int i = 0; i < 10; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+        Object fileBefore = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        long sizeBefore = Files.size(path);
+
+        tm.markTasksById(new long[] {tm.getTask(6).getId(), tm.getTask(7).getId()});
+
+        // A full rewrite replaces the file atomically, which gives it a new file key
+        assertEquals(fileBefore, Files.readAttributes(path, BasicFileAttributes.class).fileKey(),
+                "Bulk changes should be written into the existing file");
+        assertEquals(sizeBefore, Files.size(path), "In-place updates should not grow the file");
+        assertEquals("[T][X] task 6", new SlottedStorage(path.toString()).loadTasks().get(6).toString(),
+                "Bulk changes should be persisted");
+    }
+}
@@ -0,0 +1,152 @@
+package momo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+import momo.tasks.Todo;
+
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    //Stream that dies after a fixed number of bytes, emulating a crash mid-write
+    private static class FailingOutputStream extends FilterOutputStream {
+        private long remaining;
+
+        FailingOutputStream(OutputStream out, long failAfter) {
+            super(out);
+            this.remaining = failAfter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (remaining-- <= 0) {
+                throw new IOException("Injected fault");
+            }
+            super.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) {
+                write(b[off + i]);
+            }
+        }
+    }
+
+    private static ArrayList<Task> generation(int gen, int size) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Todo("gen " + gen + " task " + i + " | with, delimiters"));
+        }
+        return tasks;
+    }
+
+    private static String render(ArrayList<Task> tasks) {
+        StringBuilder sb = new StringBuilder();
+        for (Task task : tasks) {
+            sb.append(task.toStorageString()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void saveTasks_roundTrip_loadsSameTasks() {
+        String path = tempDir.resolve("momoTasks.txt").toString();
+        ArrayList<Task> tasks = generation(1, 20);
+
+        new Storage(path).saveTasks(tasks);
+
+        assertEquals(render(tasks), render(new Storage(path).loadTasks()), "Saved tasks should load back unchanged");
+    }
+
+    @Test
+    public void saveTasks_writerKilledAtRandomOffsets_previousGenerationSurvives() throws IOException {
+        Path file = tempDir.resolve("momoTasks.txt");
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> committed = generation(0, 50);
+        storage.saveTasks(committed);
+
+        Random random = new Random(2103);
+        for (int gen = 1; gen <= 30; gen++) {
+            ArrayList<Task> next = generation(gen, 50);
+            long size = render(next).length();
+            long offset = (long) (random.nextDouble() * size);
+
+            assertThrows(IOException.class, () -> AtomicFileWriter.write(file, writer -> {
+                for (Task task : next) {
+                    writer.write(task.toStorageString());
+                    writer.newLine();
+                }
+            }, out -> new FailingOutputStream(out, offset)), "Injected fault at byte " + offset + " should surface");
+
+            assertEquals(render(committed), render(new Storage(file.toString()).loadTasks()),
+                    "Crash at byte " + offset + " should leave the last committed generation intact");
+
+            storage.saveTasks(next);
+            committed = next;
+        }
+    }
+
+    @Test
+    public void loadTasks_tornStorageFile_fallsBackToPreviousGeneration() throws IOException {
+        Path file = tempDir.resolve("momoTasks.txt");
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> previous = generation(0, 10);
+        storage.saveTasks(previous);
+        storage.saveTasks(generation(1, 10));
+
+        // Emulate a write that bypassed the atomic path and was cut off mid-line
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        Files.write(file, "E|0|broken".getBytes(), StandardOpenOption.APPEND);
+
+        assertEquals(render(previous), render(new Storage(file.toString()).loadTasks()),
+                "A torn storage file should fall back to the previous generation");
+        assertTrue(Files.exists(tempDir.resolve("momoTasks.txt.corrupt")), "Torn file should be kept for inspection");
+    }
+
+    @Test
+    public void chunkedLoader_manySmallChunks_keepsFileOrder() {
+        ArrayList<Task> tasks = generation(7, 500);
+        String content = render(tasks).replace("\n", "\r\n\n");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(render(tasks), render(ChunkedTaskLoader.parse(content, pool, 100)),
+                    "Chunks should be stitched back in file order");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void chunkedLoader_corruptLines_reportedPerChunk() {
+        String content = render(generation(8, 300)) + "X|0|bad\n" + render(generation(9, 300)) + "bad\n";
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StorageException err = assertThrows(StorageException.class, () ->
+                    ChunkedTaskLoader.parse(content, pool, 100));
+            assertTrue(err.getMessage().contains("line 301:"), err.getMessage());
+            assertTrue(err.getMessage().contains("line 602:"), err.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
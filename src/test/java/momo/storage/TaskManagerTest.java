@@ -1,16 +1,34 @@
 package momo.storage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import momo.exceptions.InvalidArgumentException;
+import momo.exceptions.MomoException;
+import momo.parser.Parser;
+import momo.tasks.Deadline;
+import momo.tasks.Event;
 import momo.tasks.Task;
+import momo.tasks.TaskCursor;
 import momo.tasks.TaskManager;
+import momo.tasks.TimeSlot;
 import momo.tasks.Todo;
+import momo.ui.Gui;
 
 public class TaskManagerTest {
+    @TempDir
+    Path tempDir;
 
     //Private class to emulate data used by Storage.java
     private static class StubStorage implements StorageService {
@@ -57,6 +75,32 @@ public class TaskManagerTest {
         assertEquals(1, storage.saveCalls, "removeTask should autosave exactly once");
     }
 
+    @Test
+    public void getTask_afterRemovalsLeaveTombstones_skipsRemovedTasks() {
+        TaskManager tm = new TaskManager(new StubStorage() {
+            @Override
+            public void record(List<Task> tasks, Mutation mutation) {
+            }
+
+            @Override
+            public boolean isIncremental() {
+                return true;
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+
+        tm.removeTask(2);
+        tm.removeTask(5);
+
+        int[] expected = {0, 1, 3, 4, 5, 7, 8, 9};
+        assertEquals(expected.length, tm.getTaskListSize(), "Size should not count removed tasks");
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("[T][ ] task " + expected[i], tm.getTask(i).toString(), "Position " + i);
+        }
+    }
+
     @Test
     public void constructor_loadsTasksFromStorage_tasksArrayInitialised() {
         StubStorage storage = new StubStorage();
@@ -99,4 +143,352 @@ public class TaskManagerTest {
         assertEquals("[T][ ] A", tm.getTask(0).toString(), "getTask(0) should return first task");
         assertEquals("[T][ ] B", tm.getTask(1).toString(), "getTask(1) should return second task");
     }
+
+    @Test
+    public void removeTaskById_leavesOtherIdsAndPositionsConsistent() {
+        StubStorage storage = new StubStorage();
+        TaskManager tm = new TaskManager(storage);
+        for (String title : new String[] {"A", "B", "C", "D"}) {
+            tm.addTask(new Todo(title));
+        }
+        long idOfC = tm.getTask(2).getId();
+
+        tm.removeTaskById(tm.getTask(0).getId());
+        tm.removeTaskById(tm.getTaskById(idOfC - 1).getId());
+
+        assertEquals(2, tm.getTaskListSize(), "Size should exclude removed tasks");
+        assertEquals("[T][ ] C", tm.getTaskById(idOfC).toString(), "Ids should survive removals");
+        assertEquals("[T][ ] D", tm.getTask(1).toString(), "Positions should close up after removals");
+        assertEquals(2, storage.backing.size(), "Storage should receive the list without removed tasks");
+    }
+
+    @Test
+    public void constructor_tasksWithoutIds_assignsIdsInListOrder() {
+        StubStorage storage = new StubStorage();
+        storage.backing.add(new Todo("A"));
+        storage.backing.add(new Todo("B"));
+
+        TaskManager tm = new TaskManager(storage);
+        tm.addTask(new Todo("C"));
+
+        assertEquals(1, tm.getTask(0).getId(), "Loaded tasks should be numbered from 1");
+        assertEquals(3, tm.getTask(2).getId(), "New tasks should continue after the loaded ids");
+        assertEquals("T|0|B||2", storage.backing.get(1).toStorageString(), "Assigned ids should be saved");
+    }
+
+    @Test
+    public void findTasksByTag_indexFollowsTagChanges() {
+        TaskManager tm = new TaskManager(new StubStorage());
+        for (String title : new String[] {"A", "B", "C"}) {
+            tm.addTask(new Todo(title));
+        }
+        tm.tagTask(0, "school");
+        tm.tagTask(1, "school");
+        tm.tagTask(1, "urgent");
+        tm.tagTask(2, "urgent");
+        tm.untagTask(0, "school");
+        tm.removeTask(2);
+
+        assertEquals(1, tm.findTasksByTag("school").size(), "Untagged task should leave the index");
+        assertEquals(1, tm.findTasksByTag("urgent").size(), "Removed task should leave the index");
+        assertEquals(1, tm.findTasksByAllTags(List.of("school", "urgent")).size(), "AND should intersect");
+        assertEquals(1, tm.findTasksByAnyTag(List.of("school", "urgent", "none")).size(),
+                "OR should list each task once");
+    }
+
+    @Test
+    public void findTasksByTitle_matchesLinearScan() {
+        TaskManager tm = new TaskManager(new StubStorage());
+        String[] titles = {"Read Book", "book club", "bookkeeping", "CS2103T notes", "buy milk", "Notebook"};
+        for (String title : titles) {
+            tm.addTask(new Todo(title));
+        }
+        tm.removeTask(1);
+
+        for (String keyword : new String[] {"book", "BOO", "ok", "note", "eep", "xyz", "k c", "b"}) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < tm.getTaskListSize(); i++) {
+                if (tm.getTask(i).containsKeyword(keyword)) {
+                    expected.add(tm.getTask(i).toString());
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            for (Task task : tm.findTasksByTitle(keyword)) {
+                actual.add(task.toString());
+            }
+            assertEquals(expected, actual, "Indexed search should match a scan for: " + keyword);
+        }
+    }
+
+    @Test
+    public void findEventsBetween_matchesLinearScanAcrossChangesAndReload() {
+        StubStorage storage = new StubStorage();
+        TaskManager tm = new TaskManager(storage);
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 0, 0);
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime start = base.plusHours((i * 37) % 500);
+            tm.addTask(new Event("E" + i, start, start.plusHours(i % 13)));
+            if (i % 10 == 0) {
+                tm.addTask(new Todo("T" + i));
+            }
+        }
+        for (int i = 150; i >= 0; i -= 7) {
+            tm.removeTask(i);
+        }
+
+        assertBetweenMatchesScan(tm, base);
+        tm.save();
+        assertBetweenMatchesScan(new TaskManager(storage), base);
+    }
+
+    private static void assertBetweenMatchesScan(TaskManager tm, LocalDateTime base) {
+        for (int hour = -20; hour < 520; hour += 11) {
+            LocalDateTime from = base.plusHours(hour);
+            LocalDateTime to = from.plusHours(hour % 3 == 0 ? 0 : 6);
+            List<Task> expected = new ArrayList<>();
+            for (int i = 0; i < tm.getTaskListSize(); i++) {
+                Task task = tm.getTask(i);
+                if (task instanceof Event && !((Event) task).getStartDate().isAfter(to)
+                        && !((Event) task).getEndDate().isBefore(from)) {
+                    expected.add(task);
+                }
+            }
+            List<Task> actual = tm.findEventsBetween(from, to);
+            assertEquals(expected.size(), actual.size(), "Tree should find every overlapping event at " + from);
+            assertEquals(true, actual.containsAll(expected), "Tree should find the same events at " + from);
+        }
+    }
+
+    @Test
+    public void findEventsOverlapping_excludesTheEventItself() {
+        TaskManager tm = new TaskManager(new StubStorage());
+        LocalDateTime nine = LocalDateTime.of(2026, 3, 2, 9, 0);
+        tm.addTask(new Event("meeting", nine, nine.plusHours(2)));
+        tm.addTask(new Event("lunch", nine.plusHours(3), nine.plusHours(4)));
+        tm.addTask(new Event("workshop", nine.plusHours(1), nine.plusHours(3)));
+
+        List<Task> overlapping = tm.findEventsOverlapping((Event) tm.getTask(2));
+
+        assertEquals(2, overlapping.size(), "Touching and overlapping events should both count");
+        assertEquals("meeting", overlapping.get(0).getTitle(), "Results should be ordered by start");
+    }
+
+    @Test
+    public void findUpcomingDeadlines_skipsCompletedAndRemoved() {
+        StubStorage storage = new StubStorage();
+        TaskManager tm = new TaskManager(storage);
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 12, 0);
+        for (int day = 1; day <= 20; day++) {
+            tm.addTask(new Deadline("D" + day, LocalDateTime.of(2026, 3, day, 12, 0)));
+        }
+        tm.addTask(new Todo("not a deadline"));
+        tm.markTask(10); // D11
+        tm.markTask(11); // D12
+        tm.unmarkTask(11);
+        tm.removeTask(12); // D13
+
+        assertEquals(List.of("D10", "D12", "D14"), titlesOf(tm.findUpcomingDeadlines(now, 3)),
+                "Upcoming should start at now and skip completed and removed deadlines");
+        assertEquals(9, tm.findOverdueDeadlines(now).size(), "Deadlines due before now should be overdue");
+        assertEquals("D1", tm.findOverdueDeadlines(now).get(0).getTitle(), "Longest overdue should come first");
+
+        tm.save();
+        TaskManager reloaded = new TaskManager(storage);
+        assertEquals(List.of("D10", "D12", "D14"), titlesOf(reloaded.findUpcomingDeadlines(now, 3)),
+                "Index should be rebuilt on reload");
+    }
+
+    private static List<String> titlesOf(List<Task> tasks) {
+        List<String> titles = new ArrayList<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    @Test
+    public void eventCommand_checkFlag_reportsOnlyClashingEvents() throws MomoException {
+        TaskManager tm = new TaskManager(new StubStorage());
+        Parser parser = new Parser();
+        Gui gui = new Gui();
+        parser.parse("event consultation /from 2026-03-03 1400 /to 2026-03-03 1600").execute(tm, gui);
+        parser.parse("event lunch /from 2026-03-03 1200 /to 2026-03-03 1300").execute(tm, gui);
+
+        gui.clear();
+        parser.parse("event meeting /from 2026-03-03 1500 /to 2026-03-03 1700 /check").execute(tm, gui);
+        String output = gui.getOutput();
+
+        assertEquals(3, tm.getTaskListSize(), "Event should be added despite the clash");
+        assertEquals("meeting", tm.getTask(2).getTitle(), "/check should not become part of the title");
+        assertTrue(output.contains("clashes with") && output.contains("consultation"), "Clash should be reported");
+        assertFalse(output.contains("lunch"), "Events that do not overlap should not be reported");
+
+        gui.clear();
+        parser.parse("event dinner /from 2026-03-03 1800 /to 2026-03-03 1900 /check").execute(tm, gui);
+        assertFalse(gui.getOutput().contains("clashes with"), "No clash should be reported for a free slot");
+    }
+
+    @Test
+    public void eventCommand_checkFlag_touchingEventsDoNotClash() throws MomoException {
+        TaskManager tm = new TaskManager(new StubStorage());
+        Parser parser = new Parser();
+        Gui gui = new Gui();
+        parser.parse("event lecture /from 2026-03-03 1000 /to 2026-03-03 1100").execute(tm, gui);
+        parser.parse("event lab /from 2026-03-03 1200 /to 2026-03-03 1300").execute(tm, gui);
+
+        gui.clear();
+        parser.parse("event tutorial /from 2026-03-03 1100 /to 2026-03-03 1200 /check").execute(tm, gui);
+
+        assertFalse(gui.getOutput().contains("clashes with"), "Back-to-back events should not be reported");
+    }
+
+    @Test
+    public void bulkCommands_changeEverySelectedTaskAndSaveOnce() throws MomoException {
+        StubStorage storage = new StubStorage();
+        TaskManager tm = new TaskManager(storage);
+        for (int i = 1; i <= 20; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+        Parser parser = new Parser();
+        Gui gui = new Gui();
+
+        storage.saveCalls = 0;
+        parser.parse("mark 1-5,3,#20").execute(tm, gui);
+        assertEquals(1, storage.saveCalls, "A bulk mark should be saved once");
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i < 5 || i == 19, tm.getTask(i).isComplete(), "Only selected tasks should be marked: " + i);
+        }
+
+        parser.parse("tag 2-4 urgent,cs").execute(tm, gui);
+        assertEquals(List.of("task 2", "task 3", "task 4"), titlesOf(tm.findTasksByAllTags(List.of("urgent", "cs"))),
+                "Every selected task should get every tag");
+
+        storage.saveCalls = 0;
+        parser.parse("delete 2,4,10-19").execute(tm, gui);
+        assertEquals(1, storage.saveCalls, "A bulk delete should be saved once");
+        assertEquals(List.of("task 1", "task 3", "task 5", "task 6", "task 7", "task 8", "task 9", "task 20"),
+                titlesOf(tm.getTasks()), "Positions should refer to the list before the delete");
+        assertEquals(8, tm.snapshot().size(), "The snapshot should drop every deleted task");
+        assertEquals(List.of("task 3"), titlesOf(tm.findTasksByTag("urgent")), "Deleted tasks should leave the tag index");
+    }
+
+    @Test
+    public void bulkCommand_outOfRange_changesNothing() {
+        StubStorage storage = new StubStorage();
+        TaskManager tm = new TaskManager(storage);
+        tm.addTask(new Todo("A"));
+        tm.addTask(new Todo("B"));
+
+        assertThrows(InvalidArgumentException.class, () -> new Parser().parse("delete 1-3").execute(tm, new Gui()));
+        assertEquals(2, tm.getTaskListSize(), "No task should be deleted when part of the range is invalid");
+    }
+
+    @Test
+    public void listPage_showsOnlyThatPage() throws MomoException {
+        TaskManager tm = new TaskManager(new StubStorage());
+        for (int i = 1; i <= 120; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+        Parser parser = new Parser();
+
+        Gui gui = new Gui();
+        parser.parse("list --page 3 --size 50").execute(tm, gui);
+        String output = gui.getOutput();
+        assertTrue(output.contains("101.[T][ ] task 101 #101"), "The page should be numbered by list position");
+        assertFalse(output.contains("task 100 "), "Tasks of earlier pages should not be shown");
+        assertTrue(output.contains("Showing tasks 101-120 of 120."), "The page should say which part it is");
+
+        gui.clear();
+        parser.parse("list").execute(tm, gui);
+        assertTrue(gui.getOutput().contains("120.[T][ ] task 120 #120"), "A plain list should show every task");
+        assertFalse(gui.getOutput().contains("Showing tasks"), "A plain list is not a page");
+
+        assertThrows(InvalidArgumentException.class, () -> parser.parse("list --page 4 --size 40").execute(tm, gui));
+    }
+
+    @Test
+    public void openCursorAfter_resumesAfterLastTaskReadEvenIfTasksWereDeleted() {
+        TaskManager tm = new TaskManager(new StubStorage());
+        for (int i = 1; i <= 10; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+
+        TaskCursor cursor = tm.openCursor();
+        assertEquals(List.of("task 1", "task 2", "task 3", "task 4"), titlesOf(cursor.next(4)));
+        tm.removeTask(0);
+        tm.removeTask(0);
+        tm.addTask(new Todo("task 11"));
+        assertEquals(List.of("task 5", "task 6"), titlesOf(cursor.next(2)), "A cursor should keep reading its snapshot");
+
+        TaskCursor resumed = tm.openCursorAfter(cursor.getLastId());
+        assertEquals(4, resumed.getPosition(), "Two earlier tasks were deleted");
+        assertEquals(List.of("task 7", "task 8", "task 9", "task 10", "task 11"), titlesOf(resumed.next(100)));
+        assertFalse(resumed.hasNext());
+    }
+
+    @Test
+    public void findFreeSlots_matchesMinuteByMinuteScan() {
+        TaskManager tm = new TaskManager(new StubStorage());
+        LocalDateTime day = LocalDateTime.of(2026, 3, 3, 0, 0);
+        for (int i = 0; i < 40; i++) {
+            LocalDateTime start = day.plusMinutes((i * 197) % 1800 - 200);
+            tm.addTask(new Event("E" + i, start, start.plusMinutes(15 + (i * 31) % 90)));
+        }
+        tm.addTask(new Deadline("not blocking", day.plusHours(20)));
+        tm.removeTask(5);
+
+        boolean[] isBusy = new boolean[24 * 60];
+        for (int i = 0; i < tm.getTaskListSize(); i++) {
+            if (tm.getTask(i) instanceof Event) {
+                Event event = (Event) tm.getTask(i);
+                for (int m = 0; m < isBusy.length; m++) {
+                    LocalDateTime minute = day.plusMinutes(m);
+                    if (!minute.isBefore(event.getStartDate()) && minute.isBefore(event.getEndDate())) {
+                        isBusy[m] = true;
+                    }
+                }
+            }
+        }
+        List<String> expected = new ArrayList<>();
+        for (int m = 0; m < isBusy.length; m++) {
+            int end = m;
+            while (end < isBusy.length && !isBusy[end]) {
+                end++;
+            }
+            if (end - m >= 20) {
+                expected.add(new TimeSlot(day.plusMinutes(m), day.plusMinutes(end)).toString());
+            }
+            m = end;
+        }
+
+        List<String> actual = new ArrayList<>();
+        for (TimeSlot slot : tm.findFreeSlots(day, day.plusDays(1), Duration.ofMinutes(20))) {
+            actual.add(slot.toString());
+        }
+        assertEquals(expected, actual, "Sweep should find the same free windows as a scan");
+    }
+
+    @Test
+    public void rangeCommandsAfterDelete_defaultStorageStack_persistEveryChange() throws MomoException {
+        String journalPath = tempDir.resolve("momoTasks.journal").toString();
+        WriteBehindStorage storage = new WriteBehindStorage(new JournalStorage(journalPath));
+        TaskManager tm = new TaskManager(storage);
+        Parser parser = new Parser();
+        Gui gui = new Gui();
+        for (int i = 1; i <= 10; i++) {
+            parser.parse("todo task " + i).execute(tm, gui);
+        }
+
+        parser.parse("delete 1").execute(tm, gui);
+        parser.parse("mark 1-2").execute(tm, gui);
+        parser.parse("tag 3 cs").execute(tm, gui);
+        tm.flush();
+        storage.close();
+
+        TaskManager reloaded = new TaskManager(new JournalStorage(journalPath));
+        assertEquals(9, reloaded.getTaskListSize(), "The delete should be persisted");
+        assertEquals("[T][X] task 2", reloaded.getTask(0).toString(), "The range mark should be persisted");
+        assertEquals("[T][X] task 3", reloaded.getTask(1).toString(), "The range mark should be persisted");
+        assertEquals(List.of("task 4"), titlesOf(reloaded.findTasksByTag("cs")), "The tag should be persisted");
+    }
 }
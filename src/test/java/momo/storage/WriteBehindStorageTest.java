@@ -0,0 +1,106 @@
+package momo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import momo.exceptions.StorageException;
+import momo.tasks.Task;
+import momo.tasks.TaskManager;
+import momo.tasks.Todo;
+
+public class WriteBehindStorageTest {
+
+    //Private class that remembers what reached it and how many writes it took
+    private static class RecordingStorage implements StorageService {
+        private final boolean isIncremental;
+        private final List<Mutation> recorded = new ArrayList<>();
+        private ArrayList<Task> saved = new ArrayList<>();
+        private int writeCalls = 0;
+
+        RecordingStorage(boolean isIncremental) {
+            this.isIncremental = isIncremental;
+        }
+
+        @Override
+        public ArrayList<Task> loadTasks() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public synchronized void saveTasks(ArrayList<Task> tasks) {
+            writeCalls++;
+            saved = new ArrayList<>(tasks);
+        }
+
+        @Override
+        public synchronized void recordAll(List<Task> tasks, List<Mutation> mutations) {
+            writeCalls++;
+            recorded.addAll(mutations);
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return isIncremental;
+        }
+    }
+
+    @Test
+    public void record_burstOfMutations_groupCommittedInOrder() {
+        RecordingStorage delegate = new RecordingStorage(true);
+        WriteBehindStorage storage = new WriteBehindStorage(delegate, 200, 10_000);
+        TaskManager tm = new TaskManager(storage);
+
+        for (int i = 0; i < 500; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+        tm.markTask(3);
+        tm.flush();
+
+        assertEquals(501, delegate.recorded.size(), "Every mutation should reach the delegate");
+        assertEquals(Mutation.Type.MARK, delegate.recorded.get(500).getType(), "Mutations should keep their order");
+        assertTrue(delegate.writeCalls < 10, "A burst should be written in a few batches, not one per mutation");
+        storage.close();
+    }
+
+    @Test
+    public void record_nonIncrementalDelegate_savesLatestCopyOnce() {
+        RecordingStorage delegate = new RecordingStorage(false);
+        WriteBehindStorage storage = new WriteBehindStorage(delegate, 200, 10_000);
+        TaskManager tm = new TaskManager(storage);
+
+        for (int i = 0; i < 100; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+        tm.flush();
+
+        assertEquals(100, delegate.saved.size(), "The latest list should be saved");
+        assertTrue(delegate.writeCalls < 10, "Queued copies should be coalesced into few saves");
+        storage.close();
+    }
+
+    @Test
+    public void flush_delegateThrowsUnexpectedly_rethrowsInsteadOfHanging() {
+        RecordingStorage delegate = new RecordingStorage(true) {
+            @Override
+            public synchronized void recordAll(List<Task> tasks, List<Mutation> mutations) {
+                throw new NullPointerException();
+            }
+        };
+        WriteBehindStorage storage = new WriteBehindStorage(delegate, 0, 10_000);
+        TaskManager tm = new TaskManager(storage);
+        tm.addTask(new Todo("task"));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThrows(StorageException.class, tm::flush, "The failure should reach the caller");
+        });
+        storage.close();
+    }
+}
@@ -0,0 +1,195 @@
+package momo.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import momo.exceptions.MomoException;
+import momo.storage.Mutation;
+import momo.storage.StorageService;
+
+public class ConcurrentTaskManagerTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int OPERATIONS_PER_WRITER = 3000;
+
+    // Records mutations and notices if two of them are ever recorded at the same time
+    private static class CheckingStorage implements StorageService {
+        private final AtomicInteger writersInside = new AtomicInteger();
+        private final AtomicBoolean isOverlapSeen = new AtomicBoolean();
+        private int mutations = 0;
+
+        @Override
+        public ArrayList<Task> loadTasks() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveTasks(ArrayList<Task> tasks) {
+        }
+
+        @Override
+        public void record(List<Task> tasks, Mutation mutation) {
+            if (writersInside.incrementAndGet() > 1) {
+                isOverlapSeen.set(true);
+            }
+            mutations++;
+            writersInside.decrementAndGet();
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return true;
+        }
+    }
+
+    @Test
+    public void concurrentReadersAndWriters_keepListAndIndexesConsistent() throws InterruptedException {
+        CheckingStorage storage = new CheckingStorage();
+        ConcurrentTaskManager tm = new ConcurrentTaskManager(storage);
+        for (int i = 0; i < 200; i++) {
+            tm.addTask(new Todo("seed " + i));
+        }
+
+        AtomicInteger added = new AtomicInteger(200);
+        AtomicInteger removed = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger(200);
+        AtomicBoolean isDone = new AtomicBoolean();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            String tag = "w" + w;
+            Random random = new Random(w);
+            writers.add(new Thread(() -> runQuietly(start, failures, () -> {
+                for (int op = 0; op < OPERATIONS_PER_WRITER; op++) {
+                    long id = 1 + random.nextInt(added.get());
+                    try {
+                        switch (random.nextInt(6)) {
+                        case 0:
+                        case 1:
+                            tm.addTask(new Todo("task " + tag + " " + op));
+                            added.incrementAndGet();
+                            break;
+                        case 2:
+                            tm.removeTaskById(id);
+                            removed.incrementAndGet();
+                            break;
+                        case 3:
+                            tm.markTaskById(id);
+                            break;
+                        case 4:
+                            tm.tagTaskById(id, tag);
+                            break;
+                        default:
+                            tm.untagTaskById(id, tag);
+                            break;
+                        }
+                        succeeded.incrementAndGet();
+                    } catch (MomoException err) {
+                        // the task was removed by another writer
+                    }
+                }
+            })));
+        }
+
+        for (int r = 0; r < READERS; r++) {
+            readers.add(new Thread(() -> runQuietly(start, failures, () -> {
+                while (!isDone.get()) {
+                    List<Task> tasks = tm.getTasks();
+                    for (int i = 1; i < tasks.size(); i++) {
+                        assertTrue(tasks.get(i - 1).getId() < tasks.get(i).getId(), "Listing should be ordered");
+                    }
+                    List<Task> tagged = tm.findTasksByTag("w1");
+                    for (int i = 1; i < tagged.size(); i++) {
+                        assertTrue(tagged.get(i - 1).getId() < tagged.get(i).getId(), "Results should be ordered");
+                    }
+                    tm.findTasksByTitle("task w2");
+                    tm.getTaskById(1 + tasks.size() / 2);
+                    tm.getTask(0);
+                }
+            })));
+        }
+
+        writers.forEach(Thread::start);
+        readers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        isDone.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(failures.isEmpty(), "No thread should fail: " + failures);
+        assertTrue(!storage.isOverlapSeen.get(), "Changes should be recorded one at a time");
+        assertEquals(succeeded.get(), storage.mutations, "Every successful change should be recorded once");
+        assertEquals(added.get() - removed.get(), tm.getTaskListSize(), "Size should reflect adds and removes");
+
+        List<Task> tasks = tm.getTasks();
+        assertEquals(tm.getTaskListSize(), tasks.size(), "Listing should hold every task");
+        for (int w = 0; w < WRITERS; w++) {
+            String tag = "w" + w;
+            long expected = tasks.stream().filter(task -> task.hasTag(tag)).count();
+            assertEquals(expected, tm.findTasksByTag(tag).size(), "Tag index should match the tasks for " + tag);
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i), tm.getTaskById(tasks.get(i).getId()), "Id index should find every task");
+            assertEquals(tasks.get(i), tm.getTask(i), "Positions should follow the listing");
+        }
+    }
+
+    @Test
+    public void removeTasksById_underWriteLock_doesNotWaitOnItself() {
+        ConcurrentTaskManager tm = new ConcurrentTaskManager(new CheckingStorage());
+        for (int i = 0; i < 10; i++) {
+            tm.addTask(new Todo("task " + i));
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            tm.removeTasksById(new long[] {1, 2});
+        });
+
+        assertEquals(8, tm.getTaskListSize(), "Both tasks should be removed");
+        assertEquals(3, tm.getTask(0).getId(), "Positions should skip the removed tasks");
+    }
+
+    @Test
+    public void endBatch_underWriteLock_doesNotWaitOnItself() {
+        ConcurrentTaskManager tm = new ConcurrentTaskManager(new CheckingStorage());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            tm.beginBatch();
+            tm.addTask(new Todo("x"));
+            tm.commitBatch();
+            tm.addTask(new Todo("y"));
+            tm.endBatch();
+        });
+
+        assertEquals(0, tm.getBatchedChangeCount(), "Ending the batch should write the held changes");
+        assertEquals(2, tm.getTaskListSize());
+    }
+
+    private static void runQuietly(CountDownLatch start, ConcurrentLinkedQueue<Throwable> failures, Runnable body) {
+        try {
+            start.await();
+            body.run();
+        } catch (Throwable err) {
+            failures.add(err);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package momo.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import momo.storage.Mutation;
+import momo.storage.StorageService;
+
+public class QueryPlannerTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final String[] WORDS = {"essay", "lab", "quiz", "meeting", "report", "gym"};
+    private static final String[] TAGS = {"cs", "ma", "work", "home"};
+
+    private TaskManager tm;
+
+    private static class NoStorage implements StorageService {
+        @Override
+        public ArrayList<Task> loadTasks() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void saveTasks(ArrayList<Task> tasks) {
+        }
+
+        @Override
+        public void record(List<Task> tasks, Mutation mutation) {
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return true;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        tm = new TaskManager(new NoStorage());
+        Random random = new Random(7);
+        for (int i = 0; i < 600; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + i;
+            LocalDateTime at = DAY.plusHours(random.nextInt(24 * 60));
+            Task task;
+            switch (i % 3) {
+            case 0:
+                task = new Todo(title);
+                break;
+            case 1:
+                task = new Deadline(title, at);
+                break;
+            default:
+                task = new Event(title, at, at.plusHours(1 + random.nextInt(72)));
+                break;
+            }
+            tm.addTask(task);
+            tm.tagTaskById(task.getId(), TAGS[random.nextInt(TAGS.length)]);
+            if (random.nextInt(4) == 0) {
+                tm.markTaskById(task.getId());
+            }
+        }
+        tm.tagTaskById(tm.getTask(10).getId(), "rare");
+        tm.tagTaskById(tm.getTask(20).getId(), "rare");
+        tm.removeTask(30);
+    }
+
+    @Test
+    public void findTasks_sameResultsAsScanningEveryTask() {
+        List<Query> queries = List.of(
+                Query.tag("cs"),
+                Query.title("essay"),
+                Query.title("la"),
+                Query.type(Event.class),
+                Query.allOf(List.of(Query.type(Deadline.class), Query.done(false))),
+                Query.due(DAY.plusDays(3), DAY.plusDays(10)),
+                Query.allOf(List.of(Query.due(null, DAY.plusDays(5)), Query.done(false), Query.tag("work"))),
+                Query.starts(DAY.plusDays(20), null),
+                Query.allOf(List.of(Query.ends(DAY.plusDays(2), DAY.plusDays(4)), Query.title("meeting"))),
+                Query.allOf(List.of(Query.anyOf(List.of(Query.tag("rare"), Query.title("quiz"))),
+                        Query.not(Query.done(true)))),
+                Query.anyOf(List.of(Query.tag("ma"), Query.done(true))),
+                Query.not(Query.tag("home")));
+
+        for (Query query : queries) {
+            List<Task> expected = tm.getTasks().stream().filter(query::matches).collect(Collectors.toList());
+            assertEquals(expected, tm.findTasks(query), "Plan: " + tm.planQuery(query).describe());
+        }
+    }
+
+    @Test
+    public void planQuery_startsFromMostSelectiveIndex() {
+        Query rareAndCommon = Query.allOf(List.of(Query.title("essay"), Query.tag("rare")));
+        assertEquals("tag index #rare", tm.planQuery(rareAndCommon).describe());
+
+        Query oneDay = Query.allOf(List.of(Query.tag("cs"), Query.due(DAY.plusDays(4), DAY.plusDays(4).plusHours(23))));
+        assertEquals("due date index", tm.planQuery(oneDay).describe());
+
+        Query undone = Query.allOf(List.of(Query.type(Deadline.class), Query.done(false)));
+        assertEquals("deadline index (incomplete)", tm.planQuery(undone).describe());
+
+        Query either = Query.anyOf(List.of(Query.tag("rare"), Query.title("quiz")));
+        assertEquals("union of tag index #rare, title index \"quiz\"", tm.planQuery(either).describe());
+    }
+
+    @Test
+    public void planQuery_noHelpfulIndex_scansList() {
+        assertEquals("full scan", tm.planQuery(Query.not(Query.tag("cs"))).describe());
+        assertEquals("full scan", tm.planQuery(Query.done(true)).describe());
+        assertEquals("full scan", tm.planQuery(Query.anyOf(List.of(Query.tag("cs"), Query.done(true))))
+                .describe());
+    }
+}
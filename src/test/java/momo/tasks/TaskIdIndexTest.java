@@ -0,0 +1,34 @@
+package momo.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskIdIndexTest {
+    @Test
+    public void randomOperations_matchHashMap() {
+        TaskIdIndex index = new TaskIdIndex();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(2103);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(id);
+                assertEquals(removed == null ? -1 : (int) removed, index.remove(id), "remove(" + id + ")");
+            } else {
+                expected.put(id, i);
+                index.put(id, i);
+            }
+        }
+
+        assertEquals(expected.size(), index.size(), "Sizes should match");
+        for (long id = 1; id <= 500; id++) {
+            assertEquals((int) expected.getOrDefault(id, -1), index.get(id), "get(" + id + ")");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package momo.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskSnapshotTest {
+    @Test
+    public void randomAddsAndRemoves_matchListAndLeaveOldVersionsUnchanged() {
+        List<Task> initial = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            initial.add(todoWithId(id));
+        }
+        TaskSnapshot snapshot = TaskSnapshot.of(initial);
+        List<Task> expected = new ArrayList<>(initial);
+        List<TaskSnapshot> versions = new ArrayList<>();
+        List<List<Task>> expectedVersions = new ArrayList<>();
+        Random random = new Random(2103);
+        long nextId = 301;
+
+        for (int op = 0; op < 3000; op++) {
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                Task task = todoWithId(nextId++);
+                snapshot = snapshot.with(task);
+                expected.add(task);
+            } else {
+                Task removed = expected.remove(random.nextInt(expected.size()));
+                snapshot = snapshot.without(removed.getId());
+            }
+            if (op % 500 == 0) {
+                versions.add(snapshot);
+                expectedVersions.add(new ArrayList<>(expected));
+            }
+        }
+
+        assertMatches(expected, snapshot);
+        for (int v = 0; v < versions.size(); v++) {
+            assertMatches(expectedVersions.get(v), versions.get(v));
+        }
+    }
+
+    @Test
+    public void get_outOfBounds_throwsIndexOutOfBounds() {
+        TaskSnapshot snapshot = TaskSnapshot.empty().with(todoWithId(1));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1), "Position past the end");
+        assertEquals(snapshot, snapshot.without(7), "Removing a missing id should keep the snapshot");
+    }
+
+    @Test
+    public void iteratorFromPosition_startsThereAndCountsIdsBefore() {
+        TaskSnapshot snapshot = TaskSnapshot.empty();
+        List<Task> expected = new ArrayList<>();
+        for (long id = 2; id <= 400; id += 2) {
+            Task task = todoWithId(id);
+            snapshot = snapshot.with(task);
+            expected.add(task);
+        }
+
+        for (int from = 0; from <= expected.size(); from += 13) {
+            List<Task> iterated = new ArrayList<>();
+            snapshot.iterator(from).forEachRemaining(iterated::add);
+            assertEquals(expected.subList(from, expected.size()), iterated, "iterator(" + from + ")");
+        }
+        assertEquals(0, snapshot.countIdsUpTo(1), "No id is below the first");
+        assertEquals(50, snapshot.countIdsUpTo(100), "An id in the snapshot counts itself");
+        assertEquals(50, snapshot.countIdsUpTo(101), "A missing id counts the ids below it");
+        TaskSnapshot finalSnapshot = snapshot;
+        assertThrows(IndexOutOfBoundsException.class, () -> finalSnapshot.iterator(expected.size() + 1),
+                "Position past the end");
+    }
+
+    private static void assertMatches(List<Task> expected, TaskSnapshot snapshot) {
+        assertEquals(expected.size(), snapshot.size(), "Sizes should match");
+        List<Task> iterated = new ArrayList<>();
+        snapshot.forEach(iterated::add);
+        assertEquals(expected, iterated, "Iteration should follow list order");
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(expected.get(i), snapshot.get(i), "get(" + i + ")");
+        }
+    }
+
+    private static Task todoWithId(long id) {
+        Task task = new Todo("task " + id);
+        task.setId(id);
+        return task;
+    }
+}